@@ -0,0 +1,51 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import com.vaadin.flow.component.ClientCallable;
+import com.vaadin.flow.component.html.Div;
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+/**
+ * Component with the client callables invoked by the benchmarks.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+public class BenchmarkCallables extends Div {
+
+  @ClientCallable
+  public String echo(String value) {
+    return value;
+  }
+
+  @LegacyClientCallable
+  public String name(JsonObject value) {
+    return value.getString("name");
+  }
+
+  @ClientCallable
+  public JsonObject data() {
+    JsonObject object = Json.createObject();
+    object.put("name", "data");
+    object.put("count", 42);
+    return object;
+  }
+}
@@ -0,0 +1,93 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Conversions between elemental values and Jackson nodes, as performed for the arguments and
+ * results of client callables in Vaadin 25.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConversionBenchmark {
+
+  @Param({"TYPICAL", "SHALLOW_WIDE", "DEEP_NARROW"})
+  private DocumentShape shape;
+
+  private JsonValue json;
+
+  private JsonNode node;
+
+  private String key;
+
+  @Setup
+  public void setup() {
+    json = shape.create();
+    node = JsonMigrationHelper25.convertToJsonNode(json);
+    key = ((JsonObject) json).keys()[0];
+  }
+
+  @Benchmark
+  public JsonNode convertToJsonNode() {
+    return JsonMigrationHelper25.convertToJsonNode(json);
+  }
+
+  @Benchmark
+  public JsonValue toJsonValueView() {
+    return JsonMigrationHelper25.toJsonValueView(node);
+  }
+
+  @Benchmark
+  public JsonValue copyToJsonValue() {
+    return JsonMigrationHelper25.copyToJsonValue(node);
+  }
+
+  /** Converts a node and reads one property, which is the typical use of an event payload. */
+  @Benchmark
+  public JsonValue toJsonValueViewAndGet() {
+    return ((JsonObject) JsonMigrationHelper25.toJsonValueView(node)).get(key);
+  }
+
+  @Benchmark
+  public JsonValue copyToJsonValueAndGet() {
+    return ((JsonObject) JsonMigrationHelper25.copyToJsonValue(node)).get(key);
+  }
+}
@@ -0,0 +1,85 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+/**
+ * Documents of different shapes used as input by the benchmarks.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+enum DocumentShape {
+
+  /** An object with a few properties of each type, and a short array of small objects. */
+  TYPICAL {
+    @Override
+    JsonValue create() {
+      JsonArray items = Json.createArray();
+      for (int i = 0; i < 10; i++) {
+        JsonObject item = Json.createObject();
+        item.put("id", i);
+        item.put("label", "item " + i);
+        item.put("selected", i % 2 == 0);
+        items.set(i, item);
+      }
+      JsonObject object = Json.createObject();
+      object.put("name", "document");
+      object.put("version", 3);
+      object.put("enabled", true);
+      object.put("owner", Json.createNull());
+      object.put("items", items);
+      return object;
+    }
+  },
+
+  /** An object with a thousand scalar properties. */
+  SHALLOW_WIDE {
+    @Override
+    JsonValue create() {
+      JsonObject object = Json.createObject();
+      for (int i = 0; i < 1000; i++) {
+        object.put("p" + i, i % 2 == 0 ? Json.create(i) : Json.create("value " + i));
+      }
+      return object;
+    }
+  },
+
+  /** Objects nested 500 levels deep, each one with a single scalar property. */
+  DEEP_NARROW {
+    @Override
+    JsonValue create() {
+      JsonObject root = Json.createObject();
+      JsonObject object = root;
+      for (int i = 1; i < 500; i++) {
+        JsonObject child = Json.createObject();
+        object.put("value", i);
+        object.put("child", child);
+        object = child;
+      }
+      return root;
+    }
+  };
+
+  abstract JsonValue create();
+}
@@ -0,0 +1,76 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import com.vaadin.flow.server.Version;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ClassInstrumentationUtil#instrumentClass(Class)} when the instrumented class has to be
+ * generated (cold) and when it has already been defined (cached). The cached case is also measured
+ * with concurrent callers, as in the first navigation of many sessions.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class InstrumentationBenchmark {
+
+  private final int version = Version.getMajorVersion();
+
+  private final ClassInstrumentationUtil instrumentation = new ClassInstrumentationUtil(version);
+
+  /**
+   * Each invocation uses a new instance, which defines the instrumented class in a new class
+   * loader. Defining it through {@code Lookup.defineClass} is disabled in this fork, because the
+   * class would be defined only once in the class loader of {@link BenchmarkCallables}, and the
+   * following invocations would find the existing class instead.
+   */
+  @Benchmark
+  @Fork(value = 2, jvmArgsAppend = "-Djsonmigration.instrumentation.lookup=false")
+  public Class<?> instrumentClassCold() {
+    return new ClassInstrumentationUtil(version).instrumentClass(BenchmarkCallables.class);
+  }
+
+  @Benchmark
+  public Class<?> instrumentClassCached() {
+    return instrumentation.instrumentClass(BenchmarkCallables.class);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Class<?> instrumentClassCachedContended() {
+    return instrumentation.instrumentClass(BenchmarkCallables.class);
+  }
+}
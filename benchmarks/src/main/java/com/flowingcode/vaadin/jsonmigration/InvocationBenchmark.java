@@ -0,0 +1,133 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import com.vaadin.flow.component.ClientCallable;
+import com.vaadin.flow.server.Version;
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of invoking client callables of an instrumented class, compared with a plain
+ * {@code ClientCallable} method. Methods are invoked through reflection, as Vaadin does. In Vaadin
+ * 25, the instrumented methods convert their arguments from (or their result into) Jackson nodes.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class InvocationBenchmark {
+
+  private BenchmarkCallables plain;
+
+  private BenchmarkCallables instrumented;
+
+  private Method echo;
+
+  private Method name;
+
+  private Method instrumentedName;
+
+  private Method data;
+
+  private Method instrumentedData;
+
+  private JsonObject argument;
+
+  // the argument as it is received from the client
+  private Object clientArgument;
+
+  private static Method getClientCallable(Class<?> type, String name) {
+    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+      for (Method method : c.getDeclaredMethods()) {
+        if (method.getName().equals(name) && method.isAnnotationPresent(ClientCallable.class)) {
+          return method;
+        }
+      }
+    }
+    throw new IllegalArgumentException(name);
+  }
+
+  @Setup
+  public void setup() throws ReflectiveOperationException {
+    Class<? extends BenchmarkCallables> type =
+        new ClassInstrumentationUtil(Version.getMajorVersion())
+            .instrumentClass(BenchmarkCallables.class);
+    plain = new BenchmarkCallables();
+    instrumented = type.getDeclaredConstructor().newInstance();
+
+    echo = BenchmarkCallables.class.getMethod("echo", String.class);
+    name = BenchmarkCallables.class.getMethod("name", JsonObject.class);
+    data = BenchmarkCallables.class.getMethod("data");
+    instrumentedName = getClientCallable(type, "name");
+    instrumentedData = getClientCallable(type, "data");
+
+    argument = Json.createObject();
+    argument.put("name", "argument");
+    argument.put("count", 42);
+    clientArgument =
+        Version.getMajorVersion() > 24
+            ? JsonMigrationHelper25.convertToJsonNode(argument)
+            : argument;
+  }
+
+  @Benchmark
+  public Object plain() throws ReflectiveOperationException {
+    return echo.invoke(plain, "argument");
+  }
+
+  /** Baseline for {@link #instrumentedArgument()}, without argument conversion. */
+  @Benchmark
+  public Object plainJsonArgument() throws ReflectiveOperationException {
+    return name.invoke(plain, argument);
+  }
+
+  @Benchmark
+  public Object instrumentedArgument() throws ReflectiveOperationException {
+    return instrumentedName.invoke(instrumented, clientArgument);
+  }
+
+  /** Baseline for {@link #instrumentedResult()}, without result conversion. */
+  @Benchmark
+  public Object plainJsonResult() throws ReflectiveOperationException {
+    return data.invoke(plain);
+  }
+
+  @Benchmark
+  public Object instrumentedResult() throws ReflectiveOperationException {
+    return instrumentedData.invoke(instrumented);
+  }
+}
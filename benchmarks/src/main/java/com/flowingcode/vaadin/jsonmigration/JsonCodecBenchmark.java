@@ -0,0 +1,88 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link JsonCodec#decodeAs(JsonValue, Class)} for each of the supported types.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JsonCodecBenchmark {
+
+  private final JsonValue string = Json.create("value");
+
+  private final JsonValue number = Json.create(42);
+
+  private final JsonValue bool = Json.create(true);
+
+  private final JsonValue nul = Json.createNull();
+
+  private final JsonValue object = Json.createObject();
+
+  @Benchmark
+  public String decodeString() {
+    return JsonCodec.decodeAs(string, String.class);
+  }
+
+  @Benchmark
+  public int decodeInt() {
+    return JsonCodec.decodeAs(number, int.class);
+  }
+
+  @Benchmark
+  public Double decodeDouble() {
+    return JsonCodec.decodeAs(number, Double.class);
+  }
+
+  @Benchmark
+  public boolean decodeBoolean() {
+    return JsonCodec.decodeAs(bool, boolean.class);
+  }
+
+  @Benchmark
+  public Integer decodeNull() {
+    return JsonCodec.decodeAs(nul, Integer.class);
+  }
+
+  @Benchmark
+  public JsonObject decodeJsonObject() {
+    return JsonCodec.decodeAs(object, JsonObject.class);
+  }
+}
@@ -0,0 +1,31 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import org.openjdk.jmh.annotations.Fork;
+
+/**
+ * {@link SerializerBenchmark} with bytecode generation disabled, so that beans are converted
+ * through reflection.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+@Fork(value = 2, jvmArgsAppend = "-Djsonmigration.serializer.bytecode=false")
+public class ReflectiveSerializerBenchmark extends SerializerBenchmark {}
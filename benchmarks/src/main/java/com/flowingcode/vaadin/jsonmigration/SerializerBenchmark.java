@@ -0,0 +1,245 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.JsonArray;
+import elemental.json.JsonValue;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link JsonSerializer} conversions of beans, records and collections, using generated codecs.
+ *
+ * @see ReflectiveSerializerBenchmark
+ * @author Javier Godoy / Flowing Code
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SerializerBenchmark {
+
+  public static class Address {
+    private String street;
+    private String city;
+
+    public String getStreet() {
+      return street;
+    }
+
+    public void setStreet(String street) {
+      this.street = street;
+    }
+
+    public String getCity() {
+      return city;
+    }
+
+    public void setCity(String city) {
+      this.city = city;
+    }
+  }
+
+  public static class Person {
+    private String name;
+    private int age;
+    private double score;
+    private boolean active;
+    private int[] ratings;
+    private List<String> tags;
+    private Address address;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public int getAge() {
+      return age;
+    }
+
+    public void setAge(int age) {
+      this.age = age;
+    }
+
+    public double getScore() {
+      return score;
+    }
+
+    public void setScore(double score) {
+      this.score = score;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public void setActive(boolean active) {
+      this.active = active;
+    }
+
+    public int[] getRatings() {
+      return ratings;
+    }
+
+    public void setRatings(int[] ratings) {
+      this.ratings = ratings;
+    }
+
+    public List<String> getTags() {
+      return tags;
+    }
+
+    public void setTags(List<String> tags) {
+      this.tags = tags;
+    }
+
+    public Address getAddress() {
+      return address;
+    }
+
+    public void setAddress(Address address) {
+      this.address = address;
+    }
+  }
+
+  public record Point(String label, double x, double y) {}
+
+  private Person person;
+
+  private Point point;
+
+  private List<Person> people;
+
+  private JsonValue personJson;
+
+  private JsonValue pointJson;
+
+  private JsonArray peopleJson;
+
+  private String personText;
+
+  private String peopleText;
+
+  private static Person createPerson(int i) {
+    Address address = new Address();
+    address.setStreet(i + " Main Street");
+    address.setCity("Springfield");
+    Person person = new Person();
+    person.setName("Person " + i);
+    person.setAge(20 + i % 50);
+    person.setScore(i * 1.5);
+    person.setActive(i % 2 == 0);
+    person.setRatings(new int[] {1, 2, 3, 4, 5, 4, 3, 2, 1, i});
+    person.setTags(Arrays.asList("a", "b", "c"));
+    person.setAddress(address);
+    return person;
+  }
+
+  @Setup
+  public void setup() throws IOException {
+    person = createPerson(1);
+    point = new Point("origin", 0.5, -1.25);
+    people = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      people.add(createPerson(i));
+    }
+    personJson = JsonSerializer.toJson(person);
+    pointJson = JsonSerializer.toJson(point);
+    peopleJson = JsonSerializer.toJson(people);
+    personText = writeJson(person);
+    peopleText = writeJson(people);
+  }
+
+  private static String writeJson(Object bean) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    JsonSerializer.writeJson(bean, sb);
+    return sb.toString();
+  }
+
+  @Benchmark
+  public JsonValue beanToJson() {
+    return JsonSerializer.toJson(person);
+  }
+
+  @Benchmark
+  public Person beanToObject() {
+    return JsonSerializer.toObject(Person.class, personJson);
+  }
+
+  @Benchmark
+  public JsonValue recordToJson() {
+    return JsonSerializer.toJson(point);
+  }
+
+  @Benchmark
+  public Point recordToObject() {
+    return JsonSerializer.toObject(Point.class, pointJson);
+  }
+
+  @Benchmark
+  public JsonArray collectionToJson() {
+    return JsonSerializer.toJson(people);
+  }
+
+  @Benchmark
+  public List<Person> collectionToObjects() {
+    return JsonSerializer.toObjects(Person.class, peopleJson);
+  }
+
+  @Benchmark
+  public String beanWriteJson() throws IOException {
+    return writeJson(person);
+  }
+
+  @Benchmark
+  public Person beanReadJson() throws IOException {
+    return JsonSerializer.readJson(Person.class, new StringReader(personText));
+  }
+
+  @Benchmark
+  public String collectionWriteJson() throws IOException {
+    return writeJson(people);
+  }
+
+  @Benchmark
+  public List<Person> collectionReadJson() throws IOException {
+    return JsonSerializer.readJsonList(Person.class, new StringReader(peopleText));
+  }
+}
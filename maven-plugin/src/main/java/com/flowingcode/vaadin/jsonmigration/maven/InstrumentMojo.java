@@ -0,0 +1,149 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Generates the instrumented classes of the components in the build output, so that they do not
+ * have to be generated at runtime. Classes are generated for Vaadin 24 and Vaadin 25, and the
+ * variant that matches the runtime version is loaded by {@code JsonMigration.instrumentClass}.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+@Mojo(
+    name = "instrument",
+    defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+    requiresDependencyResolution = ResolutionScope.COMPILE,
+    threadSafe = true)
+public class InstrumentMojo extends AbstractMojo {
+
+  private static final String GENERATOR =
+      "com.flowingcode.vaadin.jsonmigration.InstrumentedClassGenerator";
+
+  private static final String INSTRUMENTED_SUFFIX = "$Instrumented";
+
+  @Parameter(defaultValue = "${project}", readonly = true, required = true)
+  private MavenProject project;
+
+  @Parameter(defaultValue = "${plugin.artifacts}", readonly = true, required = true)
+  private List<Artifact> pluginArtifacts;
+
+  /** Skips the generation of instrumented classes. */
+  @Parameter(property = "jsonmigration.instrument.skip", defaultValue = "false")
+  private boolean skip;
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    File outputDirectory = new File(project.getBuild().getOutputDirectory());
+    if (skip || !outputDirectory.isDirectory()) {
+      return;
+    }
+
+    List<String> generated;
+    try (URLClassLoader classLoader = createClassLoader()) {
+      Class<?> generator;
+      try {
+        generator = classLoader.loadClass(GENERATOR);
+      } catch (ClassNotFoundException e) {
+        throw new MojoExecutionException(
+            "json-migration-helper must be a dependency of the project", e);
+      }
+      Method generate = generator.getDeclaredMethod("generate", File.class, List.class);
+      generate.setAccessible(true);
+      generated = invoke(generate, outputDirectory, getClassNames(outputDirectory.toPath()));
+    } catch (IOException | ReflectiveOperationException e) {
+      throw new MojoExecutionException("Failed to generate instrumented classes", e);
+    }
+
+    for (String className : generated) {
+      getLog().debug("Generated " + className);
+    }
+    getLog().info("Generated " + generated.size() + " instrumented classes");
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<String> invoke(Method generate, File outputDirectory, List<String> classNames)
+      throws MojoFailureException, IllegalAccessException, IOException {
+    try {
+      return (List<String>) generate.invoke(null, outputDirectory, classNames);
+    } catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new MojoFailureException(cause.getMessage(), cause);
+    }
+  }
+
+  /**
+   * Creates a class loader with the build output and the compile classpath of the project. The
+   * dependencies of this plugin (ASM and Jackson) are added at the end, for projects that do not
+   * include them.
+   */
+  private URLClassLoader createClassLoader() throws MojoExecutionException {
+    List<URL> urls = new ArrayList<>();
+    try {
+      for (String element : project.getCompileClasspathElements()) {
+        urls.add(new File(element).toURI().toURL());
+      }
+      for (Artifact artifact : pluginArtifacts) {
+        urls.add(artifact.getFile().toURI().toURL());
+      }
+    } catch (DependencyResolutionRequiredException | MalformedURLException e) {
+      throw new MojoExecutionException("Failed to resolve the compile classpath", e);
+    }
+    return new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getPlatformClassLoader());
+  }
+
+  private static List<String> getClassNames(Path outputDirectory) throws IOException {
+    try (Stream<Path> files = Files.walk(outputDirectory)) {
+      return files
+          .map(path -> outputDirectory.relativize(path).toString())
+          .filter(name -> name.endsWith(".class"))
+          .map(name -> name.substring(0, name.length() - 6).replace(File.separatorChar, '.'))
+          .filter(name -> !name.endsWith("module-info") && !name.endsWith("package-info"))
+          .filter(name -> !name.contains(INSTRUMENTED_SUFFIX))
+          .collect(Collectors.toList());
+    }
+  }
+}
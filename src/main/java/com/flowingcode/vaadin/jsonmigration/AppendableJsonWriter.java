@@ -0,0 +1,188 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.JsonValue;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Writes JSON text to an {@link Appendable}, with the same formatting as {@link
+ * JsonValue#toJson()}.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+final class AppendableJsonWriter implements JsonTokenWriter {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final Appendable out;
+
+  // whether the current container at each nesting level is still empty
+  private boolean[] empty = new boolean[16];
+
+  private int depth;
+
+  private boolean afterName;
+
+  AppendableJsonWriter(Appendable out) {
+    this.out = out;
+  }
+
+  private void beforeValue() throws IOException {
+    if (afterName) {
+      afterName = false;
+    } else if (depth > 0) {
+      if (!empty[depth - 1]) {
+        out.append(',');
+      }
+      empty[depth - 1] = false;
+    }
+  }
+
+  private void push() {
+    if (depth == empty.length) {
+      empty = Arrays.copyOf(empty, depth * 2);
+    }
+    empty[depth++] = true;
+  }
+
+  @Override
+  public void beginObject() throws IOException {
+    beforeValue();
+    out.append('{');
+    push();
+  }
+
+  @Override
+  public void name(String name) throws IOException {
+    beforeValue();
+    quote(name);
+    out.append(':');
+    afterName = true;
+  }
+
+  @Override
+  public void endObject() throws IOException {
+    depth--;
+    out.append('}');
+  }
+
+  @Override
+  public void beginArray() throws IOException {
+    beforeValue();
+    out.append('[');
+    push();
+  }
+
+  @Override
+  public void endArray() throws IOException {
+    depth--;
+    out.append(']');
+  }
+
+  @Override
+  public void value(String value) throws IOException {
+    beforeValue();
+    quote(value);
+  }
+
+  @Override
+  public void value(double value) throws IOException {
+    beforeValue();
+    out.append(JsonTokenWriter.formatNumber(value));
+  }
+
+  @Override
+  public void value(boolean value) throws IOException {
+    beforeValue();
+    out.append(value ? "true" : "false");
+  }
+
+  @Override
+  public void nullValue() throws IOException {
+    beforeValue();
+    out.append("null");
+  }
+
+  @Override
+  public void value(JsonValue value) throws IOException {
+    beforeValue();
+    out.append(value.toJson());
+  }
+
+  private void quote(String value) throws IOException {
+    out.append('"');
+    int start = 0;
+    int length = value.length();
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      String escape;
+      switch (c) {
+        case '\b':
+          escape = "\\b";
+          break;
+        case '\t':
+          escape = "\\t";
+          break;
+        case '\n':
+          escape = "\\n";
+          break;
+        case '\f':
+          escape = "\\f";
+          break;
+        case '\r':
+          escape = "\\r";
+          break;
+        case '"':
+          escape = "\\\"";
+          break;
+        case '\\':
+          escape = "\\\\";
+          break;
+        default:
+          if (!isControlChar(c)) {
+            continue;
+          }
+          escape =
+              "\\u" + HEX[c >> 12 & 0xF] + HEX[c >> 8 & 0xF] + HEX[c >> 4 & 0xF] + HEX[c & 0xF];
+      }
+      out.append(value, start, i).append(escape);
+      start = i + 1;
+    }
+    out.append(value, start, length);
+    out.append('"');
+  }
+
+  // same set of characters escaped by elemental.json.impl.JsonUtil
+  private static boolean isControlChar(char c) {
+    return (c <= 0x1f)
+        || (c >= 0x7f && c <= 0x9f)
+        || c == 0xad
+        || c == 0x70f
+        || c == 0x17b4
+        || c == 0x17b5
+        || c == 0xfeff
+        || (c >= 0x600 && c <= 0x604)
+        || (c >= 0x200c && c <= 0x200f)
+        || (c >= 0x2028 && c <= 0x202f)
+        || (c >= 0x2060 && c <= 0x206f);
+  }
+}
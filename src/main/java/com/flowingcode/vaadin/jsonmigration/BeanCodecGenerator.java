@@ -0,0 +1,417 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import com.flowingcode.vaadin.jsonmigration.BeanMetadata.Codec;
+import com.flowingcode.vaadin.jsonmigration.BeanMetadata.Property;
+import elemental.json.Json;
+import elemental.json.JsonNull;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates bytecode serializers for {@link JsonSerializer}.
+ *
+ * <p>For each bean type, a class implementing {@link Function Function&lt;Object,JsonValue&gt;}
+ * and {@link BiConsumer BiConsumer&lt;Object,JsonObject&gt;} is generated. The serializer calls
+ * the getters directly and converts primitive values without boxing them. The deserializer calls
+ * the setters directly, converting primitive values inline and delegating other values to a
+ * reader function supplied by {@link JsonSerializer}.
+ *
+ * <p>The generated class is defined in its own child of the class loader of the bean, therefore it
+ * can only access public classes. Beans whose accessors are not public, or that have properties of
+ * a non-public type, are handled by reflection. The child class loader is only reachable through
+ * the codec, which is held by the {@link BeanMetadata} of the bean, so that it is discarded with
+ * the metadata.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+final class BeanCodecGenerator {
+
+  private static final Logger logger = LoggerFactory.getLogger(BeanCodecGenerator.class);
+
+  private static final String JSON = Type.getInternalName(Json.class);
+  private static final String JSON_OBJECT = Type.getInternalName(JsonObject.class);
+  private static final String JSON_VALUE = Type.getInternalName(JsonValue.class);
+  private static final String JSON_NULL = Type.getInternalName(JsonNull.class);
+  private static final String FUNCTION = Type.getInternalName(Function.class);
+  private static final String BI_CONSUMER = Type.getInternalName(BiConsumer.class);
+  private static final String JSON_SERIALIZER = Type.getInternalName(JsonSerializer.class);
+  private static final String READERS = "readers";
+  private static final String READERS_DESCRIPTOR = "[" + Type.getDescriptor(Function.class);
+
+  private BeanCodecGenerator() {}
+
+  /**
+   * Creates a bytecode codec for the type described by the given metadata.
+   *
+   * @param metadata the metadata of a bean or record type
+   * @param readerFactory supplies, for each writable property, a function that converts a {@link
+   *     JsonValue} into a value of the property type
+   * @return a codec for the described type, or {@link Codec#REFLECTIVE} if the type cannot be
+   *     handled by generated code
+   */
+  static Codec createCodec(
+      BeanMetadata metadata, Function<Property, Function<JsonValue, Object>> readerFactory) {
+    Class<?> type = metadata.getType();
+    if (!isSupported(type) || !isAccessible(metadata.getReaders())
+        || !isAccessible(metadata.getWriters())) {
+      return Codec.REFLECTIVE;
+    }
+
+    List<Property> writers = new ArrayList<>(metadata.getWriters());
+    @SuppressWarnings("unchecked")
+    Function<JsonValue, Object>[] readers = new Function[writers.size()];
+    for (int i = 0; i < readers.length; i++) {
+      if (!writers.get(i).getType().isPrimitive()) {
+        readers[i] = readerFactory.apply(writers.get(i));
+      }
+    }
+
+    try {
+      String className = type.getName() + "$JsonCodec";
+      Class<?> codecClass =
+          new GeneratedClassLoader(type.getClassLoader())
+              .defineGeneratedClass(
+                  className, () -> generateBytecode(className, metadata, writers));
+
+      Object codec = codecClass.getConstructor(Function[].class).newInstance((Object) readers);
+
+      @SuppressWarnings("unchecked")
+      Function<Object, JsonValue> serializer = (Function<Object, JsonValue>) codec;
+
+      @SuppressWarnings("unchecked")
+      BiConsumer<Object, JsonObject> deserializer =
+          metadata.isRecord() ? null : (BiConsumer<Object, JsonObject>) codec;
+
+      return new Codec(serializer, deserializer);
+    } catch (Exception | LinkageError e) {
+      logger.debug("Could not generate codec for {}", type, e);
+      return Codec.REFLECTIVE;
+    }
+  }
+
+  private static boolean isSupported(Class<?> type) {
+    if (type.getClassLoader() == null || !Modifier.isPublic(type.getModifiers())) {
+      return false;
+    }
+    if (type.isSynthetic() || type.getName().indexOf('/') >= 0) {
+      // lambdas and hidden classes
+      return false;
+    }
+    return !type.isInterface() && !Modifier.isAbstract(type.getModifiers());
+  }
+
+  // whether the generated class can link against the accessors and the types of the properties
+  private static boolean isAccessible(Collection<Property> properties) {
+    for (Property property : properties) {
+      Method method = property.getMethod();
+      if (!Modifier.isPublic(method.getModifiers())
+          || !isAccessible(method.getDeclaringClass())
+          || !isAccessible(property.getType())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isAccessible(Class<?> type) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+    return type.isPrimitive() || Modifier.isPublic(type.getModifiers());
+  }
+
+  private static byte[] generateBytecode(
+      String className, BeanMetadata metadata, List<Property> writers) {
+    String internalClassName = className.replace('.', '/');
+
+    ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+    cw.visit(
+        Opcodes.V1_8,
+        Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+        internalClassName,
+        null,
+        "java/lang/Object",
+        new String[] {FUNCTION, BI_CONSUMER});
+
+    cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, READERS, READERS_DESCRIPTOR, null, null)
+        .visitEnd();
+
+    generateConstructor(cw, internalClassName);
+    generateSerializer(cw, metadata);
+    generateDeserializer(cw, internalClassName, metadata.getType(), writers);
+
+    cw.visitEnd();
+    return cw.toByteArray();
+  }
+
+  private static void generateConstructor(ClassWriter cw, String internalClassName) {
+    MethodVisitor mv =
+        cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "(" + READERS_DESCRIPTOR + ")V", null, null);
+    mv.visitCode();
+    mv.visitVarInsn(Opcodes.ALOAD, 0);
+    mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+    mv.visitVarInsn(Opcodes.ALOAD, 0);
+    mv.visitVarInsn(Opcodes.ALOAD, 1);
+    mv.visitFieldInsn(Opcodes.PUTFIELD, internalClassName, READERS, READERS_DESCRIPTOR);
+    mv.visitInsn(Opcodes.RETURN);
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+  }
+
+  // Object apply(Object bean)
+  private static void generateSerializer(ClassWriter cw, BeanMetadata metadata) {
+    String internalBeanName = Type.getInternalName(metadata.getType());
+
+    MethodVisitor mv =
+        cw.visitMethod(
+            Opcodes.ACC_PUBLIC, "apply", "(Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+    mv.visitCode();
+
+    // Bean bean = (Bean) arg
+    mv.visitVarInsn(Opcodes.ALOAD, 1);
+    mv.visitTypeInsn(Opcodes.CHECKCAST, internalBeanName);
+    mv.visitVarInsn(Opcodes.ASTORE, 2);
+
+    // JsonObject json = Json.createObject()
+    mv.visitMethodInsn(
+        Opcodes.INVOKESTATIC, JSON, "createObject", "()L" + JSON_OBJECT + ";", false);
+    mv.visitVarInsn(Opcodes.ASTORE, 3);
+
+    for (Property property : metadata.getReaders()) {
+      Method reader = property.getMethod();
+      Class<?> type = reader.getReturnType();
+
+      mv.visitVarInsn(Opcodes.ALOAD, 3);
+      mv.visitLdcInsn(property.getName());
+
+      // bean.getProperty()
+      mv.visitVarInsn(Opcodes.ALOAD, 2);
+      mv.visitMethodInsn(
+          Opcodes.INVOKEVIRTUAL,
+          internalBeanName,
+          reader.getName(),
+          Type.getMethodDescriptor(reader),
+          false);
+
+      // convert the value to JsonValue
+      if (type == boolean.class) {
+        mv.visitMethodInsn(
+            Opcodes.INVOKESTATIC, JSON, "create", "(Z)Lelemental/json/JsonBoolean;", false);
+      } else if (type == char.class) {
+        mv.visitMethodInsn(
+            Opcodes.INVOKESTATIC,
+            "java/lang/Character",
+            "toString",
+            "(C)Ljava/lang/String;",
+            false);
+        mv.visitMethodInsn(
+            Opcodes.INVOKESTATIC,
+            JSON,
+            "create",
+            "(Ljava/lang/String;)Lelemental/json/JsonString;",
+            false);
+      } else if (type.isPrimitive()) {
+        if (type == long.class) {
+          mv.visitInsn(Opcodes.L2D);
+        } else if (type == float.class) {
+          mv.visitInsn(Opcodes.F2D);
+        } else if (type != double.class) {
+          mv.visitInsn(Opcodes.I2D);
+        }
+        mv.visitMethodInsn(
+            Opcodes.INVOKESTATIC, JSON, "create", "(D)Lelemental/json/JsonNumber;", false);
+      } else {
+        mv.visitMethodInsn(
+            Opcodes.INVOKESTATIC,
+            JSON_SERIALIZER,
+            "toJson",
+            "(Ljava/lang/Object;)L" + JSON_VALUE + ";",
+            false);
+      }
+
+      // json.put(name, value)
+      mv.visitMethodInsn(
+          Opcodes.INVOKEINTERFACE,
+          JSON_OBJECT,
+          "put",
+          "(Ljava/lang/String;L" + JSON_VALUE + ";)V",
+          true);
+    }
+
+    mv.visitVarInsn(Opcodes.ALOAD, 3);
+    mv.visitInsn(Opcodes.ARETURN);
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+  }
+
+  // void accept(Object bean, Object json)
+  private static void generateDeserializer(
+      ClassWriter cw, String internalClassName, Class<?> beanType, List<Property> writers) {
+    String internalBeanName = Type.getInternalName(beanType);
+
+    MethodVisitor mv =
+        cw.visitMethod(
+            Opcodes.ACC_PUBLIC, "accept", "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
+    mv.visitCode();
+
+    // Bean bean = (Bean) arg1
+    mv.visitVarInsn(Opcodes.ALOAD, 1);
+    mv.visitTypeInsn(Opcodes.CHECKCAST, internalBeanName);
+    mv.visitVarInsn(Opcodes.ASTORE, 3);
+
+    // JsonObject json = (JsonObject) arg2
+    mv.visitVarInsn(Opcodes.ALOAD, 2);
+    mv.visitTypeInsn(Opcodes.CHECKCAST, JSON_OBJECT);
+    mv.visitVarInsn(Opcodes.ASTORE, 4);
+
+    for (int i = 0; i < writers.size(); i++) {
+      Property property = writers.get(i);
+      Method writer = property.getMethod();
+      Class<?> type = property.getType();
+      Label skip = new Label();
+
+      // JsonValue value = json.get(name)
+      mv.visitVarInsn(Opcodes.ALOAD, 4);
+      mv.visitLdcInsn(property.getName());
+      mv.visitMethodInsn(
+          Opcodes.INVOKEINTERFACE,
+          JSON_OBJECT,
+          "get",
+          "(Ljava/lang/String;)L" + JSON_VALUE + ";",
+          true);
+      mv.visitVarInsn(Opcodes.ASTORE, 5);
+
+      // if (value != null)
+      mv.visitVarInsn(Opcodes.ALOAD, 5);
+      mv.visitJumpInsn(Opcodes.IFNULL, skip);
+
+      if (type.isPrimitive()) {
+        // if (value instanceof JsonNull) throw new IllegalArgumentException(...)
+        // (the reflective path fails when the setter is invoked with null)
+        Label notNull = new Label();
+        mv.visitVarInsn(Opcodes.ALOAD, 5);
+        mv.visitTypeInsn(Opcodes.INSTANCEOF, JSON_NULL);
+        mv.visitJumpInsn(Opcodes.IFEQ, notNull);
+        mv.visitTypeInsn(Opcodes.NEW, "java/lang/IllegalArgumentException");
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitLdcInsn(
+            String.format(
+                "Cannot assign null to property '%s' of primitive type %s",
+                property.getName(), type.getName()));
+        mv.visitMethodInsn(
+            Opcodes.INVOKESPECIAL,
+            "java/lang/IllegalArgumentException",
+            "<init>",
+            "(Ljava/lang/String;)V",
+            false);
+        mv.visitInsn(Opcodes.ATHROW);
+        mv.visitLabel(notNull);
+      }
+
+      mv.visitVarInsn(Opcodes.ALOAD, 3);
+      if (type.isPrimitive()) {
+        mv.visitVarInsn(Opcodes.ALOAD, 5);
+        if (type == boolean.class) {
+          mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, JSON_VALUE, "asBoolean", "()Z", true);
+        } else if (type == char.class) {
+          mv.visitMethodInsn(
+              Opcodes.INVOKEINTERFACE, JSON_VALUE, "asString", "()Ljava/lang/String;", true);
+          mv.visitInsn(Opcodes.ICONST_0);
+          mv.visitMethodInsn(
+              Opcodes.INVOKEVIRTUAL, "java/lang/String", "charAt", "(I)C", false);
+        } else {
+          mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, JSON_VALUE, "asNumber", "()D", true);
+          if (type == long.class) {
+            mv.visitInsn(Opcodes.D2L);
+          } else if (type == float.class) {
+            mv.visitInsn(Opcodes.D2F);
+          } else if (type != double.class) {
+            mv.visitInsn(Opcodes.D2I);
+            if (type == short.class) {
+              mv.visitInsn(Opcodes.I2S);
+            } else if (type == byte.class) {
+              mv.visitInsn(Opcodes.I2B);
+            }
+          }
+        }
+      } else {
+        // (Type) readers[i].apply(value)
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, internalClassName, READERS, READERS_DESCRIPTOR);
+        pushInt(mv, i);
+        mv.visitInsn(Opcodes.AALOAD);
+        mv.visitVarInsn(Opcodes.ALOAD, 5);
+        mv.visitMethodInsn(
+            Opcodes.INVOKEINTERFACE,
+            FUNCTION,
+            "apply",
+            "(Ljava/lang/Object;)Ljava/lang/Object;",
+            true);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+      }
+
+      // bean.setProperty(value)
+      mv.visitMethodInsn(
+          Opcodes.INVOKEVIRTUAL,
+          internalBeanName,
+          writer.getName(),
+          Type.getMethodDescriptor(writer),
+          false);
+      Class<?> returnType = writer.getReturnType();
+      if (returnType == long.class || returnType == double.class) {
+        mv.visitInsn(Opcodes.POP2);
+      } else if (returnType != void.class) {
+        mv.visitInsn(Opcodes.POP);
+      }
+
+      mv.visitLabel(skip);
+    }
+
+    mv.visitInsn(Opcodes.RETURN);
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+  }
+
+  private static void pushInt(MethodVisitor mv, int value) {
+    if (value >= -1 && value <= 5) {
+      mv.visitInsn(Opcodes.ICONST_0 + value);
+    } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+      mv.visitIntInsn(Opcodes.BIPUSH, value);
+    } else {
+      mv.visitIntInsn(Opcodes.SIPUSH, value);
+    }
+  }
+}
@@ -0,0 +1,255 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Introspection results used by {@link JsonSerializer}, computed once per class.
+ *
+ * <p>Metadata is held in a {@link ClassValue}, so that it does not prevent the described classes
+ * from being unloaded. The cache can be explicitly discarded through {@link #invalidate(Class)} and
+ * {@link #invalidateAll()}.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+final class BeanMetadata {
+
+  private static volatile ClassValue<BeanMetadata> cache = newCache();
+
+  private static ClassValue<BeanMetadata> newCache() {
+    return new ClassValue<BeanMetadata>() {
+      @Override
+      protected BeanMetadata computeValue(Class<?> type) {
+        return new BeanMetadata(type);
+      }
+    };
+  }
+
+  /**
+   * Returns the metadata of the given type, introspecting it if needed.
+   *
+   * @param type a bean or record class
+   * @return the metadata of {@code type}
+   * @throws IllegalArgumentException if the type cannot be introspected
+   */
+  static BeanMetadata of(Class<?> type) {
+    return cache.get(type);
+  }
+
+  /** Discards the cached metadata of the given type. */
+  static void invalidate(Class<?> type) {
+    cache.remove(type);
+  }
+
+  /** Discards the cached metadata of all the types. */
+  static void invalidateAll() {
+    cache = newCache();
+  }
+
+  /** A readable or writable property of a bean, or a component of a record. */
+  static final class Property {
+
+    private final String name;
+    private final Method method;
+    private final Class<?> type;
+    private final Type genericType;
+
+    private Property(String name, Method method, Class<?> type, Type genericType) {
+      this.name = name;
+      this.method = method;
+      this.type = type;
+      this.genericType = genericType;
+    }
+
+    /** Returns the name of the property. */
+    String getName() {
+      return name;
+    }
+
+    /** Returns the read method (for readers and record components) or write method. */
+    Method getMethod() {
+      return method;
+    }
+
+    /** Returns the type of the property. */
+    Class<?> getType() {
+      return type;
+    }
+
+    /** Returns the generic type of the property. */
+    Type getGenericType() {
+      return genericType;
+    }
+  }
+
+  /**
+   * Specialized serializer and deserializer of a bean type. A {@code null} function means that the
+   * corresponding direction falls back to reflection.
+   */
+  static final class Codec {
+
+    static final Codec REFLECTIVE = new Codec(null, null);
+
+    private final Function<Object, JsonValue> serializer;
+    private final BiConsumer<Object, JsonObject> deserializer;
+
+    Codec(Function<Object, JsonValue> serializer, BiConsumer<Object, JsonObject> deserializer) {
+      this.serializer = serializer;
+      this.deserializer = deserializer;
+    }
+
+    /** Returns a function that converts a bean into a {@link JsonObject}, or {@code null}. */
+    Function<Object, JsonValue> getSerializer() {
+      return serializer;
+    }
+
+    /** Returns a consumer that populates a bean from a {@link JsonObject}, or {@code null}. */
+    BiConsumer<Object, JsonObject> getDeserializer() {
+      return deserializer;
+    }
+  }
+
+  private final Class<?> type;
+
+  private final List<Property> readers;
+
+  private final Map<String, Property> writers;
+
+  private final Constructor<?> canonicalConstructor;
+
+  private volatile Codec codec;
+
+  private BeanMetadata(Class<?> type) {
+    this.type = type;
+    if (type.isRecord()) {
+      RecordComponent[] components = type.getRecordComponents();
+      Class<?>[] componentTypes = new Class<?>[components.length];
+      List<Property> readers = new ArrayList<>(components.length);
+      for (int i = 0; i < components.length; i++) {
+        RecordComponent rc = components[i];
+        componentTypes[i] = rc.getType();
+        readers.add(
+            new Property(rc.getName(), rc.getAccessor(), rc.getType(), rc.getGenericType()));
+      }
+      this.readers = Collections.unmodifiableList(readers);
+      writers = Collections.emptyMap();
+      canonicalConstructor = lookupConstructor(type, componentTypes);
+    } else {
+      BeanInfo info;
+      try {
+        info = Introspector.getBeanInfo(type);
+      } catch (IntrospectionException e) {
+        throw new IllegalArgumentException("Could not introspect " + type, e);
+      }
+
+      List<Property> readers = new ArrayList<>();
+      Map<String, Property> writers = new HashMap<>();
+      for (PropertyDescriptor pd : info.getPropertyDescriptors()) {
+        Method reader = pd.getReadMethod();
+        if (reader != null && !"class".equals(pd.getName())) {
+          readers.add(
+              new Property(
+                  pd.getName(), reader, reader.getReturnType(), reader.getGenericReturnType()));
+        }
+        Method writer = pd.getWriteMethod();
+        if (writer != null) {
+          writers.put(
+              pd.getName(),
+              new Property(
+                  pd.getName(),
+                  writer,
+                  writer.getParameterTypes()[0],
+                  writer.getGenericParameterTypes()[0]));
+        }
+      }
+      this.readers = Collections.unmodifiableList(readers);
+      this.writers = Collections.unmodifiableMap(writers);
+      canonicalConstructor = null;
+    }
+  }
+
+  private static Constructor<?> lookupConstructor(Class<?> type, Class<?>[] parameterTypes) {
+    try {
+      return type.getDeclaredConstructor(parameterTypes);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalArgumentException("Could not find the canonical constructor of " + type, e);
+    }
+  }
+
+  /** Returns the described type. */
+  Class<?> getType() {
+    return type;
+  }
+
+  /** Returns whether the described type is a record. */
+  boolean isRecord() {
+    return canonicalConstructor != null;
+  }
+
+  /**
+   * Returns the readable properties of a bean (excluding {@code class}), or the components of a
+   * record in declaration order.
+   */
+  List<Property> getReaders() {
+    return readers;
+  }
+
+  /** Returns the writable properties of a bean, or an empty collection if the type is a record. */
+  Collection<Property> getWriters() {
+    return writers.values();
+  }
+
+  /** Returns the writable property with the given name, or {@code null}. */
+  Property getWriter(String name) {
+    return writers.get(name);
+  }
+
+  /** Returns the canonical constructor of a record, or {@code null} if the type is a bean. */
+  Constructor<?> getCanonicalConstructor() {
+    return canonicalConstructor;
+  }
+
+  /** Returns the specialized codec of the described type, or {@code null} if not yet created. */
+  Codec getCodec() {
+    return codec;
+  }
+
+  void setCodec(Codec codec) {
+    this.codec = codec;
+  }
+}
@@ -0,0 +1,55 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import com.vaadin.flow.component.ClientCallable;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * When instrumented, memoizes the results of a method annotated with {@link ClientCallable} or
+ * {@link LegacyClientCallable}. The results are cached for each component instance, in a cache
+ * bounded to {@link #maxEntries()} entries that evicts the least recently used ones, and keyed by
+ * the structure of the arguments. While a result is cached, invocations with the same arguments
+ * neither call the method nor convert the result again.
+ *
+ * <p>The annotated method must return a non-primitive type, and its result should only depend on
+ * its arguments. Cached results are shared by the invocations that return them, so they should not
+ * be modified.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface CachedClientCallable {
+
+  /**
+   * The time, in milliseconds, after which a cached result expires. If zero or negative, cached
+   * results expire only when they are evicted.
+   */
+  long ttl() default 0;
+
+  /** The maximum number of results cached for each component instance. */
+  int maxEntries() default 100;
+}
@@ -21,27 +21,43 @@ package com.flowingcode.vaadin.jsonmigration;
 
 import com.vaadin.flow.component.ClientCallable;
 import com.vaadin.flow.component.Component;
+import elemental.json.JsonArray;
+import elemental.json.JsonBoolean;
+import elemental.json.JsonNumber;
+import elemental.json.JsonObject;
+import elemental.json.JsonString;
 import elemental.json.JsonValue;
+import java.io.IOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.SneakyThrows;
 import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
+import org.objectweb.asm.signature.SignatureVisitor;
+import org.objectweb.asm.signature.SignatureWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,7 +67,27 @@ import org.slf4j.LoggerFactory;
  * <p>This class provides methods to dynamically create subclasses of a given parent class using
  * bytecode instrumentation. Methods annotated with {@link ClientCallable} that return a type
  * assignable to {@link JsonValue} are automatically overridden to convert the result through {@link
- * JsonMigration#convertToClientCallableResult(JsonValue)}.
+ * JsonMigration#convertToClientCallableResult(JsonValue)}. Methods returning a {@code
+ * CompletableFuture} of such a type are overridden to convert the value when the future completes.
+ * The overrides call the conversion in
+ * {@link ClientCallableConversions} that matches the declared type of each argument and result.
+ *
+ * <p>If the instrumented class was generated at build time (see {@link
+ * InstrumentedClassGenerator}), it is loaded instead of being generated, provided that the digest
+ * that it records matches the current bytecode of its parent. Otherwise, the generated
+ * bytecode may be stored in a disk cache (see {@link InstrumentationCache}). On Java 9 and later,
+ * the instrumented class is defined in the class loader and package of its parent, through {@link
+ * MethodHandles.Lookup}; on Java 8, or if the package of the parent is not open, it is defined in a
+ * separate class loader.
+ *
+ * <p>If the {@code jsonmigration.instrumentation.metrics} system property is {@code true}, the
+ * overrides also report the time spent in each invocation to {@link ClientCallableMetrics}. In that
+ * case, the instrumented classes generated at build time (which don't report metrics) are ignored.
+ *
+ * <p>The overrides of methods annotated with {@link CachedClientCallable} look up the result in a
+ * {@link ClientCallableCache} before converting the arguments, and cache the converted result.
+ * The overrides of methods annotated with {@link CoalescedClientCallable} submit the arguments to a
+ * {@link ClientCallableCoalescer}, which delivers the latest ones through a later invocation.
  *
  * @author Javier Godoy / Flowing Code
  */
@@ -61,9 +97,95 @@ final class ClassInstrumentationUtil {
 
   private final int version;
 
+  // whether the overrides report metrics to ClientCallableMetrics
+  private final boolean metrics;
+
+  // null if the disk cache of instrumented classes is disabled
+  private final InstrumentationCache cache;
+
+  // instrumented classes (or the class itself, if it doesn't need instrumentation) by parent class
+  private final ClassValue<Class<?>> instrumentedClasses =
+      new ClassValue<Class<?>>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Class<?> computeValue(Class<?> type) {
+          InstrumentationDiagnostics.getInstance().cacheMissed();
+          return createOrLoadInstrumentedClass((Class<? extends Component>) type);
+        }
+      };
+
+  private static final String CONVERSIONS =
+      "com/flowingcode/vaadin/jsonmigration/ClientCallableConversions";
+
+  private static final String INSTRUMENTED_CALLABLE =
+      "com/flowingcode/vaadin/jsonmigration/InstrumentedCallable";
+
+  private static final String CLIENT_CALLABLE_CACHE =
+      "com/flowingcode/vaadin/jsonmigration/ClientCallableCache";
+
+  private static final String CLIENT_CALLABLE_COALESCER =
+      "com/flowingcode/vaadin/jsonmigration/ClientCallableCoalescer";
+
+  // constant of the classes generated at build time, with the digest of their parent class
+  static final String PARENT_DIGEST = "PARENT_DIGEST";
+
+  private static final boolean METRICS =
+      Boolean.getBoolean("jsonmigration.instrumentation.metrics");
+
+  // declared types that have specialized conversions in ClientCallableConversions
+  private static final List<Class<?>> SPECIALIZED_TYPES =
+      Arrays.asList(
+          JsonObject.class, JsonArray.class, JsonBoolean.class, JsonNumber.class, JsonString.class);
+
+  // callables that need instrumentation, by parent class
+  private final ClassValue<List<InstrumentableMethod>> instrumentableMethods =
+      new ClassValue<List<InstrumentableMethod>>() {
+        @Override
+        protected List<InstrumentableMethod> computeValue(Class<?> type) {
+          return analyzeCallables(type);
+        }
+      };
+
+  // only accessed when a class is instrumented for the first time
   private final Map<ClassLoader, InstrumentedClassLoader> classLoaderCache = new WeakHashMap<>();
 
-  private static final boolean IS_ASM_PRESENT;
+  private final Lock classLoaderCacheLock = new ReentrantLock();
+
+  static final boolean IS_ASM_PRESENT;
+
+  private static final boolean USE_LOOKUP =
+      Boolean.parseBoolean(System.getProperty("jsonmigration.instrumentation.lookup", "true"));
+
+  // MethodHandles.privateLookupIn(Class, Lookup) and Lookup.defineClass(byte[]), since Java 9
+  private static final MethodHandle PRIVATE_LOOKUP_IN;
+
+  private static final MethodHandle DEFINE_CLASS;
+
+  static {
+    MethodHandle privateLookupIn = null;
+    MethodHandle defineClass = null;
+    if (USE_LOOKUP) {
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        privateLookupIn =
+            lookup.findStatic(
+                MethodHandles.class,
+                "privateLookupIn",
+                MethodType.methodType(
+                    MethodHandles.Lookup.class, Class.class, MethodHandles.Lookup.class));
+        defineClass =
+            lookup.findVirtual(
+                MethodHandles.Lookup.class,
+                "defineClass",
+                MethodType.methodType(Class.class, byte[].class));
+      } catch (ReflectiveOperationException e) {
+        privateLookupIn = null;
+        defineClass = null;
+      }
+    }
+    PRIVATE_LOOKUP_IN = privateLookupIn;
+    DEFINE_CLASS = defineClass;
+  }
 
   static {
     boolean isPresent;
@@ -78,7 +200,13 @@ final class ClassInstrumentationUtil {
   }
 
   ClassInstrumentationUtil(int version) {
+    this(version, METRICS);
+  }
+
+  ClassInstrumentationUtil(int version, boolean metrics) {
     this.version = version;
+    this.metrics = metrics;
+    cache = InstrumentationCache.forVersion(version, metrics);
   }
 
   /**
@@ -91,6 +219,9 @@ final class ClassInstrumentationUtil {
    * ClientCallable} that return a type assignable to {@link JsonValue} will be overridden to
    * convert the result via JsonMigration.convertClientCallableResult().
    *
+   * <p>The instrumented class is created (or loaded) once, and subsequent calls with the same
+   * parent class return it without further checks.
+   *
    * <p><b>Requirements:</b>
    *
    * <ul>
@@ -106,11 +237,14 @@ final class ClassInstrumentationUtil {
    * @throws RuntimeException if the instrumentation or instantiation fails
    */
   public <T extends Component> Class<? extends T> instrumentClass(Class<T> parent) {
-    // Validate input
     if (parent == null) {
       throw new IllegalArgumentException("Parent class cannot be null");
     }
+    InstrumentationDiagnostics.getInstance().instrumentationRequested();
+    return instrumentedClasses.get(parent).asSubclass(parent);
+  }
 
+  private <T extends Component> Class<? extends T> createOrLoadInstrumentedClass(Class<T> parent) {
     if (parent.isInterface()) {
       throw new IllegalArgumentException("Cannot instrument an interface: " + parent.getName());
     }
@@ -127,8 +261,24 @@ final class ClassInstrumentationUtil {
       throw new IllegalArgumentException("Cannot instrument a final class: " + parent.getName());
     }
 
+    long start = System.nanoTime();
+    Object event = FlightRecorderEvents.beginInstrumentation();
+    Class<? extends T> pregenerated = findPregeneratedClass(parent);
+    if (pregenerated != null) {
+      FlightRecorderEvents.endInstrumentation(
+          event, pregenerated, InstrumentedClassInfo.Source.BUILD_TIME.name(), -1);
+      InstrumentationDiagnostics.getInstance()
+          .classInstrumented(
+              version,
+              pregenerated,
+              InstrumentedClassInfo.Source.BUILD_TIME,
+              -1,
+              System.nanoTime() - start);
+      return pregenerated;
+    }
+
     if (!needsInstrumentation(parent)) {
-      logger.info("{} no instrumentation needed", parent);
+      logger.debug("{} no instrumentation needed", parent);
       return parent;
     }
 
@@ -155,14 +305,118 @@ final class ClassInstrumentationUtil {
     }
 
     try {
-      String instrumentedClassName = parent.getName() + "$Instrumented";
-      return createInstrumentedClass(parent, instrumentedClassName);
+      BytecodeInfo info = new BytecodeInfo();
+      Class<? extends T> instrumentedClass = null;
+      if (DEFINE_CLASS != null) {
+        instrumentedClass = defineInstrumentedClass(parent, info);
+      }
+      if (instrumentedClass == null) {
+        String instrumentedClassName = parent.getName() + "$Instrumented";
+        instrumentedClass = createInstrumentedClass(parent, instrumentedClassName, info);
+      }
+      if (info.source != null) {
+        // otherwise, the class was defined concurrently by another instance
+        FlightRecorderEvents.endInstrumentation(
+            event, instrumentedClass, info.source.name(), info.size);
+        InstrumentationDiagnostics.getInstance()
+            .classInstrumented(
+                version, instrumentedClass, info.source, info.size, System.nanoTime() - start);
+      }
+      return instrumentedClass;
     } catch (Exception e) {
       throw new RuntimeException("Failed to instrument " + parent.getName(), e);
     }
   }
 
-  private boolean needsInstrumentation(Class<?> parent) {
+  /**
+   * Returns the binary name of the instrumented class that is generated at build time for {@code
+   * parent}. Since the instrumentation depends on the Vaadin version, the name is suffixed with the
+   * version. The same name is used when the instrumented class is defined at runtime in the class
+   * loader of {@code parent}, unless it reports metrics or a stale class file generated at build
+   * time has that name.
+   */
+  String getPregeneratedClassName(Class<?> parent) {
+    return parent.getName() + "$Instrumented" + version;
+  }
+
+  // the binary name of the instrumented class when it is defined in the class loader of parent
+  private String getDefinedClassName(Class<?> parent) {
+    if (metrics) {
+      return parent.getName() + "$InstrumentedWithMetrics" + version;
+    }
+    String className = getPregeneratedClassName(parent);
+    String resource = className.replace('.', '/') + ".class";
+    ClassLoader classLoader = parent.getClassLoader();
+    if (classLoader != null && classLoader.getResource(resource) != null) {
+      // the class generated at build time was ignored, and its name cannot be reused
+      return parent.getName() + "$Reinstrumented" + version;
+    }
+    return className;
+  }
+
+  // returns the instrumented class generated at build time, or null if there is none or if it was
+  // generated from a different version of parent
+  private <T extends Component> Class<? extends T> findPregeneratedClass(Class<T> parent) {
+    if (metrics) {
+      return null;
+    }
+    Class<? extends T> type = findInstrumentedClass(parent, getPregeneratedClassName(parent));
+    if (type == null || !hasParentDigest(type)) {
+      // without a digest, the class was defined at runtime in the class loader of parent
+      return null;
+    }
+    if (!isGeneratedFrom(type, parent)) {
+      logger.debug("{} was instrumented at build time from a different version, ignoring", parent);
+      return null;
+    }
+    logger.debug("{} was instrumented at build time", parent);
+    return type;
+  }
+
+  private static boolean hasParentDigest(Class<?> type) {
+    try {
+      type.getDeclaredField(PARENT_DIGEST);
+      return true;
+    } catch (NoSuchFieldException | LinkageError e) {
+      return false;
+    }
+  }
+
+  // whether the PARENT_DIGEST of a class generated at build time matches the current parent
+  private boolean isGeneratedFrom(Class<?> type, Class<?> parent) {
+    Object digest;
+    try {
+      digest = type.getDeclaredField(PARENT_DIGEST).get(null);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return false;
+    }
+    try {
+      return InstrumentationCache.computeParentDigest(parent).equals(digest);
+    } catch (IOException e) {
+      logger.debug("Cannot compute the digest of {}", parent, e);
+      return false;
+    }
+  }
+
+  // returns the instrumented class with the given name, or null if there is none
+  private static <T extends Component> Class<? extends T> findInstrumentedClass(
+      Class<T> parent, String className) {
+    Class<?> type;
+    try {
+      type = Class.forName(className, false, parent.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      return null;
+    } catch (LinkageError e) {
+      // a class generated at build time that no longer links with its parent
+      return null;
+    }
+    if (type.getSuperclass() != parent) {
+      return null;
+    }
+    return type.asSubclass(parent);
+  }
+
+  boolean needsInstrumentation(Class<?> parent) {
     return !getInstrumentableMethods(parent).isEmpty();
   }
 
@@ -208,14 +462,58 @@ final class ClassInstrumentationUtil {
     return map.values().stream();
   }
 
-  private List<Method> getInstrumentableMethods(Class<?> parent) {
+  /**
+   * How an argument of an instrumented method is converted before calling the parent method, or how
+   * the result of the parent method is converted before returning it.
+   */
+  private enum Conversion {
+    NONE,
+    JSON_VALUE,
+    JSON_VALUE_ARRAY,
+    JSON_VALUE_FUTURE
+  }
+
+  /** A callable method that needs instrumentation, with the conversions it requires. */
+  private static final class InstrumentableMethod {
+
+    final Method method;
+
+    // null if the override has the same parameter types as the parent method
+    final Conversion[] parameterConversions;
+
+    final Conversion resultConversion;
+
+    // null if the results are not cached
+    final CachedClientCallable cache;
+
+    // null if the invocations are not coalesced
+    final CoalescedClientCallable coalesce;
+
+    InstrumentableMethod(
+        Method method, Conversion[] parameterConversions, Conversion resultConversion) {
+      this.method = method;
+      this.parameterConversions = parameterConversions;
+      this.resultConversion = resultConversion;
+      cache = method.getAnnotation(CachedClientCallable.class);
+      coalesce = method.getAnnotation(CoalescedClientCallable.class);
+    }
+  }
+
+  private List<InstrumentableMethod> getInstrumentableMethods(Class<?> parent) {
+    return instrumentableMethods.get(parent);
+  }
+
+  private List<InstrumentableMethod> analyzeCallables(Class<?> parent) {
     return getAllCallables(parent)
         .filter(
             method -> {
               boolean isCallable = method.isAnnotationPresent(ClientCallable.class);
               boolean isLegacyCallable = method.isAnnotationPresent(LegacyClientCallable.class);
               boolean hasJsonValueReturn = JsonValue.class.isAssignableFrom(method.getReturnType());
+              boolean hasJsonValueFutureReturn = hasJsonValueFutureReturn(method);
               boolean hasJsonValueParams = hasJsonValueParameters(method);
+              boolean isCached = method.isAnnotationPresent(CachedClientCallable.class);
+              boolean isCoalesced = method.isAnnotationPresent(CoalescedClientCallable.class);
 
               if (isCallable && hasJsonValueParams) {
                 throw new IllegalArgumentException(
@@ -226,13 +524,97 @@ final class ClassInstrumentationUtil {
                         LegacyClientCallable.class.getSimpleName()));
               }
 
+              if (isCached && method.getReturnType().isPrimitive()) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "Instrumented method '%s' in class '%s' is annotated with @%s and must return an object",
+                        method.getName(),
+                        method.getDeclaringClass(),
+                        CachedClientCallable.class.getSimpleName()));
+              }
+
+              if (isCoalesced && method.getReturnType() != Void.TYPE) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "Instrumented method '%s' in class '%s' is annotated with @%s and must return void",
+                        method.getName(),
+                        method.getDeclaringClass(),
+                        CoalescedClientCallable.class.getSimpleName()));
+              }
+
               if (hasLegacyVaadin()) {
-                return isLegacyCallable;
+                return isLegacyCallable || isCached || isCoalesced;
               } else {
-                return (isCallable && hasJsonValueReturn) || isLegacyCallable;
+                boolean needsOverride =
+                    hasJsonValueReturn || hasJsonValueFutureReturn || isCached || isCoalesced;
+                return (isCallable && needsOverride) || isLegacyCallable;
               }
             })
-        .collect(Collectors.toList());
+        .map(this::analyzeCallable)
+        .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+  }
+
+  private InstrumentableMethod analyzeCallable(Method method) {
+    if (hasLegacyVaadin()) {
+      return new InstrumentableMethod(method, null, Conversion.NONE);
+    }
+
+    Conversion[] conversions = null;
+    Class<?>[] paramTypes = method.getParameterTypes();
+    for (int i = 0; i < paramTypes.length; i++) {
+      Conversion conversion;
+      if (JsonValue.class.isAssignableFrom(paramTypes[i])) {
+        conversion = Conversion.JSON_VALUE;
+      } else if (JsonValue[].class.isAssignableFrom(paramTypes[i])) {
+        conversion = Conversion.JSON_VALUE_ARRAY;
+      } else {
+        continue;
+      }
+      if (conversions == null) {
+        conversions = new Conversion[paramTypes.length];
+        Arrays.fill(conversions, Conversion.NONE);
+      }
+      conversions[i] = conversion;
+    }
+
+    Conversion resultConversion;
+    if (JsonValue.class.isAssignableFrom(method.getReturnType())) {
+      resultConversion = Conversion.JSON_VALUE;
+    } else if (hasJsonValueFutureReturn(method)) {
+      resultConversion = Conversion.JSON_VALUE_FUTURE;
+    } else {
+      resultConversion = Conversion.NONE;
+    }
+    return new InstrumentableMethod(method, conversions, resultConversion);
+  }
+
+  /**
+   * Returns whether the method returns a {@code CompletableFuture} whose type argument is
+   * assignable to {@link JsonValue}, e.g. {@code CompletableFuture<JsonObject>} or {@code
+   * CompletableFuture<? extends JsonValue>}.
+   */
+  private static boolean hasJsonValueFutureReturn(Method method) {
+    if (method.getReturnType() != CompletableFuture.class
+        || !(method.getGenericReturnType() instanceof ParameterizedType)) {
+      return false;
+    }
+    java.lang.reflect.Type arg =
+        ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0];
+    return JsonValue.class.isAssignableFrom(getUpperBound(arg));
+  }
+
+  private static Class<?> getUpperBound(java.lang.reflect.Type type) {
+    if (type instanceof Class) {
+      return (Class<?>) type;
+    } else if (type instanceof ParameterizedType) {
+      return getUpperBound(((ParameterizedType) type).getRawType());
+    } else if (type instanceof WildcardType) {
+      return getUpperBound(((WildcardType) type).getUpperBounds()[0]);
+    } else if (type instanceof TypeVariable) {
+      return getUpperBound(((TypeVariable<?>) type).getBounds()[0]);
+    } else {
+      return Object.class;
+    }
   }
 
   private static boolean hasJsonValueParameters(Method method) {
@@ -245,399 +627,875 @@ final class ClassInstrumentationUtil {
     return false;
   }
 
+  /**
+   * Defines the instrumented class in the class loader and package of {@code parent}, through
+   * {@code MethodHandles.privateLookupIn(parent, lookup).defineClass(bytecode)}.
+   *
+   * @return the instrumented class, or {@code null} if the package of {@code parent} is not open
+   *     to this library
+   */
+  @SneakyThrows
+  private <T extends Component> Class<? extends T> defineInstrumentedClass(
+      Class<T> parent, BytecodeInfo info) {
+    MethodHandles.Lookup lookup;
+    try {
+      lookup = (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invokeExact(parent, MethodHandles.lookup());
+    } catch (IllegalAccessException e) {
+      logger.debug("Cannot define the instrumented class in the package of {}", parent, e);
+      return null;
+    }
+
+    String className = getDefinedClassName(parent);
+    byte[] bytecode = getBytecode(className, parent, info);
+    try {
+      return ((Class<?>) DEFINE_CLASS.invokeExact(lookup, bytecode)).asSubclass(parent);
+    } catch (LinkageError e) {
+      // the class was defined concurrently by another instance
+      info.source = null;
+      Class<? extends T> instrumentedClass = findInstrumentedClass(parent, className);
+      if (instrumentedClass == null) {
+        throw e;
+      }
+      return instrumentedClass;
+    }
+  }
+
+  /** How the bytecode of an instrumented class was obtained, for diagnostics. */
+  private static final class BytecodeInfo {
+
+    // null if the bytecode was not obtained
+    InstrumentedClassInfo.Source source;
+
+    int size;
+  }
+
+  private byte[] getBytecode(String className, Class<?> parent, BytecodeInfo info) {
+    byte[] bytecode;
+    if (cache == null) {
+      info.source = InstrumentedClassInfo.Source.GENERATED;
+      bytecode = generateBytecode(className, parent);
+    } else {
+      info.source = InstrumentedClassInfo.Source.DISK_CACHE;
+      bytecode =
+          cache.getBytecode(
+              className,
+              parent,
+              () -> {
+                info.source = InstrumentedClassInfo.Source.GENERATED;
+                return generateBytecode(className, parent);
+              });
+    }
+    info.size = bytecode.length;
+    return bytecode;
+  }
+
   private <T extends Component> Class<? extends T> createInstrumentedClass(
-      Class<T> parent, String className) throws Exception {
+      Class<T> parent, String className, BytecodeInfo info) throws Exception {
     InstrumentedClassLoader classLoader =
         getOrCreateInstrumentedClassLoader(parent.getClassLoader());
-    return classLoader.defineInstrumentedClass(className, parent).asSubclass(parent);
+    return classLoader.defineInstrumentedClass(className, parent, info).asSubclass(parent);
   }
 
   private InstrumentedClassLoader getOrCreateInstrumentedClassLoader(ClassLoader parent) {
-    synchronized (classLoaderCache) {
-      return classLoaderCache.computeIfAbsent(parent, InstrumentedClassLoader::new);
+    classLoaderCacheLock.lock();
+    try {
+      return classLoaderCache.computeIfAbsent(
+          parent,
+          loader -> {
+            InstrumentationDiagnostics.getInstance().classLoaderCreated();
+            return new InstrumentedClassLoader(loader);
+          });
+    } finally {
+      classLoaderCacheLock.unlock();
     }
   }
 
-  private final class InstrumentedClassLoader extends ClassLoader {
-
-    private final Map<Class<?>, Class<?>> instrumentedClassCache = new ConcurrentHashMap<>();
+  private final class InstrumentedClassLoader extends GeneratedClassLoader {
 
     public InstrumentedClassLoader(ClassLoader parent) {
       super(parent);
     }
 
-    public Class<?> defineInstrumentedClass(String className, Class<?> parent) {
-      return instrumentedClassCache.computeIfAbsent(
-          parent,
-          p -> {
-            byte[] bytecode = generateBytecode(className, p);
-            return defineClass(className, bytecode, 0, bytecode.length);
-          });
+    public Class<?> defineInstrumentedClass(
+        String className, Class<?> parent, BytecodeInfo info) {
+      return defineGeneratedClass(className, () -> getBytecode(className, parent, info));
     }
+  }
 
-    private byte[] generateBytecode(String className, Class<?> parent) {
-      String internalClassName = className.replace('.', '/');
-      String internalParentName = parent.getName().replace('.', '/');
-
-      ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+  /**
+   * Generates the bytecode of an instrumented class that extends {@code parent}.
+   *
+   * @param className the binary name of the instrumented class
+   * @param parent the parent class
+   * @return the bytecode of the instrumented class
+   */
+  byte[] generateBytecode(String className, Class<?> parent) {
+    return generateBytecode(className, parent, null);
+  }
 
-      cw.visit(
-          Opcodes.V1_8,
-          Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
-          internalClassName,
+  /**
+   * Generates the bytecode of an instrumented class that extends {@code parent}, for a class that
+   * is generated at build time.
+   *
+   * @param className the binary name of the instrumented class
+   * @param parent the parent class
+   * @param parentDigest the digest of {@code parent}, which is recorded in a {@code PARENT_DIGEST}
+   *     constant, or {@code null}
+   * @return the bytecode of the instrumented class
+   */
+  byte[] generateBytecode(String className, Class<?> parent, String parentDigest) {
+    String internalClassName = className.replace('.', '/');
+    String internalParentName = parent.getName().replace('.', '/');
+
+    ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+
+    cw.visit(
+        Opcodes.V1_8,
+        Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
+        internalClassName,
+        null,
+        internalParentName,
+        null);
+
+    if (parentDigest != null) {
+      cw.visitField(
+          Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC,
+          PARENT_DIGEST,
+          "Ljava/lang/String;",
           null,
-          internalParentName,
-          null);
+          parentDigest);
+    }
 
-      generateConstructor(cw, internalParentName);
-      generateClientCallableOverrides(cw, parent, internalClassName, internalParentName);
+    generateConstructor(cw, internalParentName);
+    generateClientCallableOverrides(cw, parent, internalClassName, internalParentName);
 
-      cw.visitEnd();
-      return cw.toByteArray();
-    }
+    cw.visitEnd();
+    return cw.toByteArray();
+  }
 
-    private void generateConstructor(ClassWriter cw, String internalParentName) {
-      MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
-      mv.visitCode();
-      mv.visitVarInsn(Opcodes.ALOAD, 0);
-      mv.visitMethodInsn(Opcodes.INVOKESPECIAL, internalParentName, "<init>", "()V", false);
-      mv.visitInsn(Opcodes.RETURN);
-      mv.visitMaxs(0, 0);
-      mv.visitEnd();
-    }
+  private void generateConstructor(ClassWriter cw, String internalParentName) {
+    MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+    mv.visitCode();
+    mv.visitVarInsn(Opcodes.ALOAD, 0);
+    mv.visitMethodInsn(Opcodes.INVOKESPECIAL, internalParentName, "<init>", "()V", false);
+    mv.visitInsn(Opcodes.RETURN);
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+  }
 
-    private void generateClientCallableOverrides(
-        ClassWriter cw, Class<?> parent, String internalClassName, String internalParentName) {
-      List<String> privateMethodNames = new ArrayList<>();
-      for (Method method : getInstrumentableMethods(parent)) {
-        if (Modifier.isPrivate(method.getModifiers())) {
-          privateMethodNames.add(method.getName());
-          createLookupHelper(cw, method);
-          cw.visitField(
-              Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL,
-              method.getName(),
-              Type.getDescriptor(MethodHandle.class),
-              null,
-              null);
-        }
-        generateMethodOverride(cw, method, internalClassName, internalParentName);
+  private void generateClientCallableOverrides(
+      ClassWriter cw, Class<?> parent, String internalClassName, String internalParentName) {
+    List<String> privateMethodNames = new ArrayList<>();
+    List<Method> methods = new ArrayList<>();
+    List<InstrumentableMethod> cachedMethods = new ArrayList<>();
+    List<InstrumentableMethod> coalescedMethods = new ArrayList<>();
+    for (InstrumentableMethod instrumentable : getInstrumentableMethods(parent)) {
+      Method method = instrumentable.method;
+      methods.add(method);
+      if (metrics) {
+        cw.visitField(
+            Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL,
+            "metrics_" + method.getName(),
+            "L" + INSTRUMENTED_CALLABLE + ";",
+            null,
+            null);
+      }
+      if (instrumentable.cache != null) {
+        cachedMethods.add(instrumentable);
+        cw.visitField(
+            Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL,
+            "cache_" + method.getName(),
+            "L" + CLIENT_CALLABLE_CACHE + ";",
+            null,
+            null);
+      }
+      if (instrumentable.coalesce != null) {
+        coalescedMethods.add(instrumentable);
+        cw.visitField(
+            Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL,
+            "coalescer_" + method.getName(),
+            "L" + CLIENT_CALLABLE_COALESCER + ";",
+            null,
+            null);
+      }
+      if (Modifier.isPrivate(method.getModifiers())) {
+        privateMethodNames.add(method.getName());
+        createLookupHelper(cw, method);
+        cw.visitField(
+            Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL,
+            method.getName(),
+            Type.getDescriptor(MethodHandle.class),
+            null,
+            null);
       }
+      generateMethodOverride(cw, instrumentable, internalClassName, internalParentName);
+    }
 
-      if (!privateMethodNames.isEmpty()) {
-        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
-        mv.visitCode();
-        for (String name : privateMethodNames) {
+    if (!privateMethodNames.isEmpty()
+        || !cachedMethods.isEmpty()
+        || !coalescedMethods.isEmpty()
+        || metrics) {
+      MethodVisitor mv = cw.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+      mv.visitCode();
+      if (metrics) {
+        for (Method method : methods) {
+          // metrics_name = InstrumentedCallable.create(className, name)
+          mv.visitLdcInsn(method.getDeclaringClass().getName());
+          mv.visitLdcInsn(method.getName());
           mv.visitMethodInsn(
               Opcodes.INVOKESTATIC,
-              internalClassName,
-              "lookup_" + name,
-              "()" + Type.getDescriptor(MethodHandle.class),
+              INSTRUMENTED_CALLABLE,
+              "create",
+              "(Ljava/lang/String;Ljava/lang/String;)L" + INSTRUMENTED_CALLABLE + ";",
               false);
           mv.visitFieldInsn(
-              Opcodes.PUTSTATIC, internalClassName, name, "Ljava/lang/invoke/MethodHandle;");
+              Opcodes.PUTSTATIC,
+              internalClassName,
+              "metrics_" + method.getName(),
+              "L" + INSTRUMENTED_CALLABLE + ";");
         }
-        mv.visitInsn(Opcodes.RETURN);
-        mv.visitMaxs(0, 0);
-        mv.visitEnd();
       }
+      for (InstrumentableMethod instrumentable : cachedMethods) {
+        // cache_name = ClientCallableCache.create(ttl, maxEntries)
+        mv.visitLdcInsn(instrumentable.cache.ttl());
+        mv.visitLdcInsn(instrumentable.cache.maxEntries());
+        mv.visitMethodInsn(
+            Opcodes.INVOKESTATIC,
+            CLIENT_CALLABLE_CACHE,
+            "create",
+            "(JI)L" + CLIENT_CALLABLE_CACHE + ";",
+            false);
+        mv.visitFieldInsn(
+            Opcodes.PUTSTATIC,
+            internalClassName,
+            "cache_" + instrumentable.method.getName(),
+            "L" + CLIENT_CALLABLE_CACHE + ";");
+      }
+      for (InstrumentableMethod instrumentable : coalescedMethods) {
+        // coalescer_name = ClientCallableCoalescer.create(InstrumentedClass.class, name, window)
+        mv.visitLdcInsn(Type.getObjectType(internalClassName));
+        mv.visitLdcInsn(instrumentable.method.getName());
+        mv.visitLdcInsn(instrumentable.coalesce.window());
+        mv.visitMethodInsn(
+            Opcodes.INVOKESTATIC,
+            CLIENT_CALLABLE_COALESCER,
+            "create",
+            "(Ljava/lang/Class;Ljava/lang/String;J)L" + CLIENT_CALLABLE_COALESCER + ";",
+            false);
+        mv.visitFieldInsn(
+            Opcodes.PUTSTATIC,
+            internalClassName,
+            "coalescer_" + instrumentable.method.getName(),
+            "L" + CLIENT_CALLABLE_COALESCER + ";");
+      }
+      for (String name : privateMethodNames) {
+        mv.visitMethodInsn(
+            Opcodes.INVOKESTATIC,
+            internalClassName,
+            "lookup_" + name,
+            "()" + Type.getDescriptor(MethodHandle.class),
+            false);
+        mv.visitFieldInsn(
+            Opcodes.PUTSTATIC, internalClassName, name, "Ljava/lang/invoke/MethodHandle;");
+      }
+      mv.visitInsn(Opcodes.RETURN);
+      mv.visitMaxs(0, 0);
+      mv.visitEnd();
     }
+  }
 
-    private void createLookupHelper(ClassWriter cw, Method method) {
-      MethodVisitor mv =
-          cw.visitMethod(
-              Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC,
-              "lookup_" + method.getName(),
-              "()" + Type.getDescriptor(MethodHandle.class),
-              null,
-              null);
-
-      // Invoke static MethodHandles.lookup()
-      mv.visitMethodInsn(
-          Opcodes.INVOKESTATIC,
-          "java/lang/invoke/MethodHandles",
-          "lookup",
-          "()Ljava/lang/invoke/MethodHandles$Lookup;",
-          false);
-
-      // Load the Owner class
-      mv.visitLdcInsn(Type.getType(method.getDeclaringClass()));
-
-      // Load the Method Name
-      mv.visitLdcInsn(method.getName());
-
-      // Create Class[] array
-      Class<?> argTypes[] = method.getParameterTypes();
-      pushInt(mv, (short) argTypes.length);
-      mv.visitTypeInsn(Opcodes.ANEWARRAY, "java/lang/Class");
-
-      // Load the specific Class objects and store in array
-      for (short i = 0; i < argTypes.length; i++) {
-        mv.visitInsn(Opcodes.DUP);
-        pushInt(mv, i);
-        loadClassConstant(mv, argTypes[i]);
-        mv.visitInsn(Opcodes.AASTORE);
-      }
+  private void createLookupHelper(ClassWriter cw, Method method) {
+    MethodVisitor mv =
+        cw.visitMethod(
+            Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC,
+            "lookup_" + method.getName(),
+            "()" + Type.getDescriptor(MethodHandle.class),
+            null,
+            null);
+
+    // Invoke static MethodHandles.lookup()
+    mv.visitMethodInsn(
+        Opcodes.INVOKESTATIC,
+        "java/lang/invoke/MethodHandles",
+        "lookup",
+        "()Ljava/lang/invoke/MethodHandles$Lookup;",
+        false);
+
+    // Load the Owner class
+    mv.visitLdcInsn(Type.getType(method.getDeclaringClass()));
+
+    // Load the Method Name
+    mv.visitLdcInsn(method.getName());
+
+    // Create Class[] array
+    Class<?> argTypes[] = method.getParameterTypes();
+    pushInt(mv, (short) argTypes.length);
+    mv.visitTypeInsn(Opcodes.ANEWARRAY, "java/lang/Class");
+
+    // Load the specific Class objects and store in array
+    for (short i = 0; i < argTypes.length; i++) {
+      mv.visitInsn(Opcodes.DUP);
+      pushInt(mv, i);
+      loadClassConstant(mv, argTypes[i]);
+      mv.visitInsn(Opcodes.AASTORE);
+    }
 
-      // Invoke getDeclaredMethod
-      mv.visitMethodInsn(
-          Opcodes.INVOKEVIRTUAL,
-          "java/lang/Class",
-          "getDeclaredMethod",
-          "(Ljava/lang/String;[Ljava/lang/Class;)Ljava/lang/reflect/Method;",
-          false);
+    // Invoke getDeclaredMethod
+    mv.visitMethodInsn(
+        Opcodes.INVOKEVIRTUAL,
+        "java/lang/Class",
+        "getDeclaredMethod",
+        "(Ljava/lang/String;[Ljava/lang/Class;)Ljava/lang/reflect/Method;",
+        false);
+
+    // Invoke method.setAccessible(true)
+    mv.visitInsn(Opcodes.DUP);
+    mv.visitInsn(Opcodes.ICONST_1);
+    mv.visitMethodInsn(
+        Opcodes.INVOKEVIRTUAL, "java/lang/reflect/Method", "setAccessible", "(Z)V", false);
+
+    // Invoke Lookup.unresolve(method)
+    mv.visitMethodInsn(
+        Opcodes.INVOKEVIRTUAL,
+        "java/lang/invoke/MethodHandles$Lookup",
+        "unreflect",
+        "(Ljava/lang/reflect/Method;)Ljava/lang/invoke/MethodHandle;",
+        false);
+
+    // Return result
+    mv.visitInsn(Opcodes.ARETURN);
+
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+  }
 
-      // Invoke method.setAccessible(true)
-      mv.visitInsn(Opcodes.DUP);
-      mv.visitInsn(Opcodes.ICONST_1);
-      mv.visitMethodInsn(
-          Opcodes.INVOKEVIRTUAL, "java/lang/reflect/Method", "setAccessible", "(Z)V", false);
+  private void generateMethodOverride(
+      ClassWriter cw,
+      InstrumentableMethod instrumentable,
+      String internalClassName,
+      String internalParentName) {
+    Method method = instrumentable.method;
+    logger.debug("Override {}", method);
+
+    Conversion[] conversions = instrumentable.parameterConversions;
+    Conversion resultConversion = instrumentable.resultConversion;
+    boolean hasJsonValueParams = conversions != null;
+
+    String overrideDescriptor = getMethodDescriptor(method, hasJsonValueParams);
+    String superDescriptor = getMethodDescriptor(method, false);
+    int access =
+        method.getModifiers()
+            & (Opcodes.ACC_PUBLIC | Opcodes.ACC_PROTECTED | Opcodes.ACC_PRIVATE);
+
+    MethodVisitor mv =
+        cw.visitMethod(
+            access,
+            method.getName(),
+            overrideDescriptor,
+            getMethodSignature(method, hasJsonValueParams, overrideDescriptor),
+            getExceptionInternalNames(method.getExceptionTypes()));
+
+    mv.visitAnnotation(Type.getDescriptor(ClientCallable.class), true);
+    mv.visitCode();
+
+    // Local variables after the parameters: the timestamps (if metrics are recorded), the result
+    // and the cache key (if results are cached)
+    Class<?>[] paramTypes = method.getParameterTypes();
+    int firstLocal = 1;
+    for (Class<?> paramType : paramTypes) {
+      firstLocal += paramType == Long.TYPE || paramType == Double.TYPE ? 2 : 1;
+    }
+    int resultLocal = metrics ? firstLocal + 6 : firstLocal;
+    int keyLocal = resultLocal + 1;
 
-      // Invoke Lookup.unresolve(method)
+    if (instrumentable.coalesce != null) {
+      // if (coalescer_name.submit(this, new Object[] {params})) return
+      mv.visitFieldInsn(
+          Opcodes.GETSTATIC,
+          internalClassName,
+          "coalescer_" + method.getName(),
+          "L" + CLIENT_CALLABLE_COALESCER + ";");
+      mv.visitVarInsn(Opcodes.ALOAD, 0);
+      visitArgumentArray(mv, paramTypes);
       mv.visitMethodInsn(
           Opcodes.INVOKEVIRTUAL,
-          "java/lang/invoke/MethodHandles$Lookup",
-          "unreflect",
-          "(Ljava/lang/reflect/Method;)Ljava/lang/invoke/MethodHandle;",
+          CLIENT_CALLABLE_COALESCER,
+          "submit",
+          "(Lcom/vaadin/flow/component/Component;[Ljava/lang/Object;)Z",
           false);
-
-      // Return result
-      mv.visitInsn(Opcodes.ARETURN);
-
-      mv.visitMaxs(0, 0);
-      mv.visitEnd();
+      Label invoke = new Label();
+      mv.visitJumpInsn(Opcodes.IFEQ, invoke);
+      mv.visitInsn(Opcodes.RETURN);
+      mv.visitLabel(invoke);
     }
 
-    private void generateMethodOverride(
-        ClassWriter cw, Method method, String internalClassName, String internalParentName) {
-      logger.info("Override {}", method);
-
-      boolean hasJsonValueReturn =
-          !hasLegacyVaadin() && JsonValue.class.isAssignableFrom(method.getReturnType());
-      boolean hasJsonValueParams = !hasLegacyVaadin() && hasJsonValueParameters(method);
-
-      String overrideDescriptor = getMethodDescriptor(method, hasJsonValueParams);
-      String superDescriptor = getMethodDescriptor(method, false);
-      int access =
-          method.getModifiers()
-              & (Opcodes.ACC_PUBLIC | Opcodes.ACC_PROTECTED | Opcodes.ACC_PRIVATE);
-
-      MethodVisitor mv =
-          cw.visitMethod(
-              access,
-              method.getName(),
-              overrideDescriptor,
-              null,
-              getExceptionInternalNames(method.getExceptionTypes()));
+    if (metrics) {
+      // long start = System.nanoTime()
+      visitNanoTime(mv, firstLocal);
+    }
 
-      mv.visitAnnotation(Type.getDescriptor(ClientCallable.class), true);
-      mv.visitCode();
+    if (instrumentable.cache != null) {
+      visitCacheLookup(mv, method, internalClassName, keyLocal);
+    }
 
-      boolean isPrivate = Modifier.isPrivate(method.getModifiers());
-      if (isPrivate) {
-        // Load MethodHandle from static field
-        mv.visitFieldInsn(
-            Opcodes.GETSTATIC,
-            internalClassName,
-            method.getName(),
-            "Ljava/lang/invoke/MethodHandle;");
-      }
+    boolean isPrivate = Modifier.isPrivate(method.getModifiers());
+    if (isPrivate) {
+      // Load MethodHandle from static field
+      mv.visitFieldInsn(
+          Opcodes.GETSTATIC,
+          internalClassName,
+          method.getName(),
+          "Ljava/lang/invoke/MethodHandle;");
+    }
 
-      // Load 'this'
-      mv.visitVarInsn(Opcodes.ALOAD, 0);
+    // Load 'this'
+    mv.visitVarInsn(Opcodes.ALOAD, 0);
 
-      // Load and convert parameters
-      Class<?>[] paramTypes = method.getParameterTypes();
-      int localVarIndex = 1;
-      for (Class<?> paramType : paramTypes) {
-        if (hasJsonValueParams && JsonValue.class.isAssignableFrom(paramType)) {
-          // Load the JsonNode parameter
-          mv.visitVarInsn(Opcodes.ALOAD, localVarIndex);
+    // Load and convert parameters
+    int localVarIndex = 1;
+    for (int i = 0; i < paramTypes.length; i++) {
+      Class<?> paramType = paramTypes[i];
+      Conversion conversion = hasJsonValueParams ? conversions[i] : Conversion.NONE;
+      if (conversion == Conversion.JSON_VALUE) {
+        // Load the JsonNode parameter
+        mv.visitVarInsn(Opcodes.ALOAD, localVarIndex);
 
-          // Call JsonMigration.convertToJsonValue(JsonNode) -> JsonValue
+        if (SPECIALIZED_TYPES.contains(paramType)) {
+          // Call e.g. ClientCallableConversions.toJsonObject(ObjectNode) -> JsonObject
           mv.visitMethodInsn(
               Opcodes.INVOKESTATIC,
-              "com/flowingcode/vaadin/jsonmigration/JsonMigration",
-              "convertToJsonValue",
-              "(Ljava/lang/Object;)Lelemental/json/JsonValue;",
+              CONVERSIONS,
+              "to" + paramType.getSimpleName(),
+              "(" + getConvertedTypeDescriptor(paramType) + ")" + Type.getDescriptor(paramType),
+              false);
+        } else {
+          // Call ClientCallableConversions.toJsonValue(JsonNode) -> JsonValue
+          mv.visitMethodInsn(
+              Opcodes.INVOKESTATIC,
+              CONVERSIONS,
+              "toJsonValue",
+              "(Ltools/jackson/databind/JsonNode;)Lelemental/json/JsonValue;",
               false);
 
           // Cast to the original type if not JsonValue
           if (paramType != JsonValue.class) {
             mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(paramType));
           }
+        }
 
-          localVarIndex++;
-        } else if (hasJsonValueParams && JsonValue[].class.isAssignableFrom(paramType)) {
-          // Load the JsonNode[] parameter and create target array
-          mv.visitVarInsn(Opcodes.ALOAD, localVarIndex);
-          mv.visitInsn(Opcodes.DUP);
-          mv.visitInsn(Opcodes.ARRAYLENGTH);
-          mv.visitTypeInsn(Opcodes.ANEWARRAY, Type.getInternalName(paramType.getComponentType()));
+        localVarIndex++;
+      } else if (conversion == Conversion.JSON_VALUE_ARRAY) {
+        // Load the JsonNode[] parameter and create target array
+        mv.visitVarInsn(Opcodes.ALOAD, localVarIndex);
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitInsn(Opcodes.ARRAYLENGTH);
+        mv.visitTypeInsn(Opcodes.ANEWARRAY, Type.getInternalName(paramType.getComponentType()));
 
-          // Stack before: [SourceArray, TargetArray]
-          // Stack after: [TargetArray, SourceArray, TargetArray]
-          mv.visitInsn(Opcodes.DUP_X1);
+        // Stack before: [SourceArray, TargetArray]
+        // Stack after: [TargetArray, SourceArray, TargetArray]
+        mv.visitInsn(Opcodes.DUP_X1);
 
-          // Call JsonMigration.convertToJsonValue(JsonNode[], JsonValue[])
-          mv.visitMethodInsn(
-              Opcodes.INVOKESTATIC,
-              "com/flowingcode/vaadin/jsonmigration/JsonMigration",
-              "convertToJsonValue",
-              "([Ljava/lang/Object;[Lelemental/json/JsonValue;)V",
-              false);
+        // Call ClientCallableConversions.toJsonValues(JsonNode[], JsonValue[])
+        mv.visitMethodInsn(
+            Opcodes.INVOKESTATIC,
+            CONVERSIONS,
+            "toJsonValues",
+            "([Ltools/jackson/databind/JsonNode;[Lelemental/json/JsonValue;)V",
+            false);
 
-          localVarIndex++;
-        } else {
-          localVarIndex += loadParameter(mv, paramType, localVarIndex);
-        }
+        localVarIndex++;
+      } else {
+        localVarIndex += loadParameter(mv, paramType, localVarIndex);
       }
+    }
 
-      if (isPrivate) {
-        // Call private method
-        String descriptor =
-            "(" + Type.getDescriptor(method.getDeclaringClass()) + superDescriptor.substring(1);
-        mv.visitMethodInsn(
-            Opcodes.INVOKEVIRTUAL,
-            "java/lang/invoke/MethodHandle",
-            "invokeExact",
-            descriptor,
-            false);
+    if (metrics) {
+      // long beforeInvocation = System.nanoTime()
+      visitNanoTime(mv, firstLocal + 2);
+    }
+
+    if (isPrivate) {
+      // Call private method
+      String descriptor =
+          "(" + Type.getDescriptor(method.getDeclaringClass()) + superDescriptor.substring(1);
+      mv.visitMethodInsn(
+          Opcodes.INVOKEVIRTUAL,
+          "java/lang/invoke/MethodHandle",
+          "invokeExact",
+          descriptor,
+          false);
+    } else {
+      // Call super.methodName(params) with original descriptor
+      mv.visitMethodInsn(
+          Opcodes.INVOKESPECIAL, internalParentName, method.getName(), superDescriptor, false);
+    }
+
+    if (metrics) {
+      // long afterInvocation = System.nanoTime()
+      visitNanoTime(mv, firstLocal + 4);
+    }
+
+    if (resultConversion == Conversion.JSON_VALUE) {
+      // Store result in local variable
+      mv.visitVarInsn(Opcodes.ASTORE, resultLocal);
+
+      // Load result back
+      mv.visitVarInsn(Opcodes.ALOAD, resultLocal);
+
+      // Call e.g. ClientCallableConversions.fromJsonObject(aux)
+      Class<?> returnType = method.getReturnType();
+      if (!SPECIALIZED_TYPES.contains(returnType)) {
+        returnType = JsonValue.class;
+      }
+      mv.visitMethodInsn(
+          Opcodes.INVOKESTATIC,
+          CONVERSIONS,
+          "from" + returnType.getSimpleName(),
+          "(" + Type.getDescriptor(returnType) + ")Lelemental/json/JsonValue;",
+          false);
+    } else if (resultConversion == Conversion.JSON_VALUE_FUTURE) {
+      // Call ClientCallableConversions.fromJsonValueFuture(result), which converts the value
+      // when the future completes
+      mv.visitMethodInsn(
+          Opcodes.INVOKESTATIC,
+          CONVERSIONS,
+          "fromJsonValueFuture",
+          "(Ljava/util/concurrent/CompletableFuture;)Ljava/util/concurrent/CompletableFuture;",
+          false);
+    }
+
+    if (instrumentable.cache != null) {
+      // return cache_name.put(this, key, result)
+      mv.visitVarInsn(Opcodes.ASTORE, resultLocal);
+      mv.visitFieldInsn(
+          Opcodes.GETSTATIC,
+          internalClassName,
+          "cache_" + method.getName(),
+          "L" + CLIENT_CALLABLE_CACHE + ";");
+      mv.visitVarInsn(Opcodes.ALOAD, 0);
+      mv.visitVarInsn(Opcodes.ALOAD, keyLocal);
+      mv.visitVarInsn(Opcodes.ALOAD, resultLocal);
+      mv.visitMethodInsn(
+          Opcodes.INVOKEVIRTUAL,
+          CLIENT_CALLABLE_CACHE,
+          "put",
+          "(Lcom/vaadin/flow/component/Component;Ljava/lang/Object;Ljava/lang/Object;)"
+              + "Ljava/lang/Object;",
+          false);
+      visitCheckCast(mv, method.getReturnType());
+    }
+
+    if (metrics) {
+      // metrics_name.record(start, beforeInvocation, afterInvocation, System.nanoTime())
+      mv.visitFieldInsn(
+          Opcodes.GETSTATIC,
+          internalClassName,
+          "metrics_" + method.getName(),
+          "L" + INSTRUMENTED_CALLABLE + ";");
+      mv.visitVarInsn(Opcodes.LLOAD, firstLocal);
+      mv.visitVarInsn(Opcodes.LLOAD, firstLocal + 2);
+      mv.visitVarInsn(Opcodes.LLOAD, firstLocal + 4);
+      mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+      mv.visitMethodInsn(
+          Opcodes.INVOKEVIRTUAL, INSTRUMENTED_CALLABLE, "record", "(JJJJ)V", false);
+    }
+
+    // Return result or void
+    if (method.getReturnType() == Void.TYPE) {
+      mv.visitInsn(Opcodes.RETURN);
+    } else if (method.getReturnType().isPrimitive()) {
+      if (method.getReturnType() == Long.TYPE) {
+        mv.visitInsn(Opcodes.LRETURN);
+      } else if (method.getReturnType() == Float.TYPE) {
+        mv.visitInsn(Opcodes.FRETURN);
+      } else if (method.getReturnType() == Double.TYPE) {
+        mv.visitInsn(Opcodes.DRETURN);
       } else {
-        // Call super.methodName(params) with original descriptor
-        mv.visitMethodInsn(
-            Opcodes.INVOKESPECIAL, internalParentName, method.getName(), superDescriptor, false);
+        mv.visitInsn(Opcodes.IRETURN);
       }
+    } else {
+      mv.visitInsn(Opcodes.ARETURN);
+    }
 
-      if (hasJsonValueReturn) {
-        // Store result in local variable
-        mv.visitVarInsn(Opcodes.ASTORE, localVarIndex);
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+  }
 
-        // Load result back
-        mv.visitVarInsn(Opcodes.ALOAD, localVarIndex);
+  /**
+   * Generates the code that computes the cache key from the parameters, and returns the cached
+   * result if there is one.
+   */
+  private void visitCacheLookup(
+      MethodVisitor mv, Method method, String internalClassName, int keyLocal) {
+    String cacheField = "cache_" + method.getName();
+    String cacheDescriptor = "L" + CLIENT_CALLABLE_CACHE + ";";
+
+    // Object key = cache_name.createKey(new Object[] {params})
+    mv.visitFieldInsn(Opcodes.GETSTATIC, internalClassName, cacheField, cacheDescriptor);
+    visitArgumentArray(mv, method.getParameterTypes());
+    mv.visitMethodInsn(
+        Opcodes.INVOKEVIRTUAL,
+        CLIENT_CALLABLE_CACHE,
+        "createKey",
+        "([Ljava/lang/Object;)Ljava/lang/Object;",
+        false);
+    mv.visitVarInsn(Opcodes.ASTORE, keyLocal);
+
+    // Object cached = cache_name.get(this, key)
+    mv.visitFieldInsn(Opcodes.GETSTATIC, internalClassName, cacheField, cacheDescriptor);
+    mv.visitVarInsn(Opcodes.ALOAD, 0);
+    mv.visitVarInsn(Opcodes.ALOAD, keyLocal);
+    mv.visitMethodInsn(
+        Opcodes.INVOKEVIRTUAL,
+        CLIENT_CALLABLE_CACHE,
+        "get",
+        "(Lcom/vaadin/flow/component/Component;Ljava/lang/Object;)Ljava/lang/Object;",
+        false);
+
+    // if (cached != ClientCallableCache.MISS) return cached
+    Label miss = new Label();
+    mv.visitInsn(Opcodes.DUP);
+    mv.visitFieldInsn(Opcodes.GETSTATIC, CLIENT_CALLABLE_CACHE, "MISS", "Ljava/lang/Object;");
+    mv.visitJumpInsn(Opcodes.IF_ACMPEQ, miss);
+    visitCheckCast(mv, method.getReturnType());
+    mv.visitInsn(Opcodes.ARETURN);
+    mv.visitLabel(miss);
+    mv.visitInsn(Opcodes.POP);
+  }
 
-        // Call JsonMigration.convertToClientCallableResult(aux)
+  /** Generates the code that creates an {@code Object[]} with the (boxed) parameters. */
+  private void visitArgumentArray(MethodVisitor mv, Class<?>[] paramTypes) {
+    pushInt(mv, (short) paramTypes.length);
+    mv.visitTypeInsn(Opcodes.ANEWARRAY, "java/lang/Object");
+    int localVarIndex = 1;
+    for (short i = 0; i < paramTypes.length; i++) {
+      mv.visitInsn(Opcodes.DUP);
+      pushInt(mv, i);
+      localVarIndex += loadParameter(mv, paramTypes[i], localVarIndex);
+      if (paramTypes[i].isPrimitive()) {
+        // Box the primitive value, e.g. Integer.valueOf(int)
+        Class<?> wrapper = MethodType.methodType(paramTypes[i]).wrap().returnType();
         mv.visitMethodInsn(
             Opcodes.INVOKESTATIC,
-            "com/flowingcode/vaadin/jsonmigration/JsonMigration",
-            "convertToClientCallableResult",
-            "(Lelemental/json/JsonValue;)Lelemental/json/JsonValue;",
+            Type.getInternalName(wrapper),
+            "valueOf",
+            "(" + Type.getDescriptor(paramTypes[i]) + ")" + Type.getDescriptor(wrapper),
             false);
       }
+      mv.visitInsn(Opcodes.AASTORE);
+    }
+  }
 
-      // Return result or void
-      if (method.getReturnType() == Void.TYPE) {
-        mv.visitInsn(Opcodes.RETURN);
-      } else if (method.getReturnType().isPrimitive()) {
-        if (method.getReturnType() == Long.TYPE) {
-          mv.visitInsn(Opcodes.LRETURN);
-        } else if (method.getReturnType() == Float.TYPE) {
-          mv.visitInsn(Opcodes.FRETURN);
-        } else if (method.getReturnType() == Double.TYPE) {
-          mv.visitInsn(Opcodes.DRETURN);
-        } else {
-          mv.visitInsn(Opcodes.IRETURN);
-        }
+  // the verifier does not check assignments to interface types
+  private static void visitCheckCast(MethodVisitor mv, Class<?> type) {
+    if (type != Object.class && !type.isInterface()) {
+      mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+    }
+  }
+
+  private static void visitNanoTime(MethodVisitor mv, int local) {
+    mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+    mv.visitVarInsn(Opcodes.LSTORE, local);
+  }
+
+  private void pushInt(MethodVisitor mv, short value) {
+    if (value >= -1 && value <= 5) {
+      mv.visitInsn(Opcodes.ICONST_0 + value);
+    } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+      mv.visitIntInsn(Opcodes.BIPUSH, value);
+    } else {
+      mv.visitIntInsn(Opcodes.SIPUSH, value);
+    }
+  }
+
+  private void loadClassConstant(MethodVisitor mv, Class<?> clazz) {
+    if (clazz.isPrimitive()) {
+      if (clazz == int.class) {
+        mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Integer", "TYPE", "Ljava/lang/Class;");
+      } else if (clazz == boolean.class) {
+        mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Boolean", "TYPE", "Ljava/lang/Class;");
+      } else if (clazz == byte.class) {
+        mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Byte", "TYPE", "Ljava/lang/Class;");
+      } else if (clazz == char.class) {
+        mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Character", "TYPE", "Ljava/lang/Class;");
+      } else if (clazz == short.class) {
+        mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Short", "TYPE", "Ljava/lang/Class;");
+      } else if (clazz == float.class) {
+        mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Float", "TYPE", "Ljava/lang/Class;");
+      } else if (clazz == long.class) {
+        mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Long", "TYPE", "Ljava/lang/Class;");
+      } else if (clazz == double.class) {
+        mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Double", "TYPE", "Ljava/lang/Class;");
       } else {
-        mv.visitInsn(Opcodes.ARETURN);
+        throw new IllegalArgumentException("Unsupported type: " + clazz);
       }
+    } else {
+      mv.visitLdcInsn(Type.getType(clazz));
+    }
+  }
 
-      mv.visitMaxs(0, 0);
-      mv.visitEnd();
+  private int loadParameter(MethodVisitor mv, Class<?> paramType, int localVarIndex) {
+    if (!paramType.isPrimitive()) {
+      mv.visitVarInsn(Opcodes.ALOAD, localVarIndex);
+      return 1;
+    } else if (paramType == Long.TYPE) {
+      mv.visitVarInsn(Opcodes.LLOAD, localVarIndex);
+      return 2;
+    } else if (paramType == Float.TYPE) {
+      mv.visitVarInsn(Opcodes.FLOAD, localVarIndex);
+      return 1;
+    } else if (paramType == Double.TYPE) {
+      mv.visitVarInsn(Opcodes.DLOAD, localVarIndex);
+      return 2;
+    } else {
+      mv.visitVarInsn(Opcodes.ILOAD, localVarIndex);
+      return 1;
     }
+  }
 
-    private void pushInt(MethodVisitor mv, short value) {
-      if (value >= -1 && value <= 5) {
-        mv.visitInsn(Opcodes.ICONST_0 + value);
-      } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
-        mv.visitIntInsn(Opcodes.BIPUSH, value);
+  private String getMethodDescriptor(Method method, boolean convertJsonValueParams) {
+    StringBuilder sb = new StringBuilder("(");
+    for (Class<?> paramType : method.getParameterTypes()) {
+      if (convertJsonValueParams) {
+        sb.append(getConvertedTypeDescriptor(paramType));
       } else {
-        mv.visitIntInsn(Opcodes.SIPUSH, value);
+        sb.append(Type.getDescriptor(paramType));
       }
     }
+    sb.append(")");
+    sb.append(Type.getDescriptor(method.getReturnType()));
+    return sb.toString();
+  }
 
-    private void loadClassConstant(MethodVisitor mv, Class<?> clazz) {
-      if (clazz.isPrimitive()) {
-        if (clazz == int.class) {
-          mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Integer", "TYPE", "Ljava/lang/Class;");
-        } else if (clazz == boolean.class) {
-          mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Boolean", "TYPE", "Ljava/lang/Class;");
-        } else if (clazz == byte.class) {
-          mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Byte", "TYPE", "Ljava/lang/Class;");
-        } else if (clazz == char.class) {
-          mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Character", "TYPE", "Ljava/lang/Class;");
-        } else if (clazz == short.class) {
-          mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Short", "TYPE", "Ljava/lang/Class;");
-        } else if (clazz == float.class) {
-          mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Float", "TYPE", "Ljava/lang/Class;");
-        } else if (clazz == long.class) {
-          mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Long", "TYPE", "Ljava/lang/Class;");
-        } else if (clazz == double.class) {
-          mv.visitFieldInsn(Opcodes.GETSTATIC, "java/lang/Double", "TYPE", "Ljava/lang/Class;");
-        } else {
-          throw new IllegalArgumentException("Unsupported type: " + clazz);
+  /**
+   * Returns the generic signature of the override of a method, so that the generic types of the
+   * parent method (e.g. {@code CompletableFuture<JsonObject>}) are still visible through
+   * reflection. Returns {@code null} if the method is not generic, or if its signature refers to
+   * type variables of its class, which the instrumented class does not declare.
+   */
+  private String getMethodSignature(
+      Method method, boolean convertJsonValueParams, String descriptor) {
+    SignatureWriter sw = new SignatureWriter();
+    for (TypeVariable<Method> typeParameter : method.getTypeParameters()) {
+      sw.visitFormalTypeParameter(typeParameter.getName());
+      for (java.lang.reflect.Type bound : typeParameter.getBounds()) {
+        Class<?> rawBound = getUpperBound(bound);
+        SignatureVisitor sv =
+            rawBound.isInterface() && !(bound instanceof TypeVariable)
+                ? sw.visitInterfaceBound()
+                : sw.visitClassBound();
+        if (!writeType(sv, bound)) {
+          return null;
         }
-      } else {
-        mv.visitLdcInsn(Type.getType(clazz));
       }
     }
 
-    private int loadParameter(MethodVisitor mv, Class<?> paramType, int localVarIndex) {
-      if (!paramType.isPrimitive()) {
-        mv.visitVarInsn(Opcodes.ALOAD, localVarIndex);
-        return 1;
-      } else if (paramType == Long.TYPE) {
-        mv.visitVarInsn(Opcodes.LLOAD, localVarIndex);
-        return 2;
-      } else if (paramType == Float.TYPE) {
-        mv.visitVarInsn(Opcodes.FLOAD, localVarIndex);
-        return 1;
-      } else if (paramType == Double.TYPE) {
-        mv.visitVarInsn(Opcodes.DLOAD, localVarIndex);
-        return 2;
-      } else {
-        mv.visitVarInsn(Opcodes.ILOAD, localVarIndex);
-        return 1;
+    java.lang.reflect.Type[] paramTypes = method.getGenericParameterTypes();
+    for (int i = 0; i < paramTypes.length; i++) {
+      Class<?> paramType = method.getParameterTypes()[i];
+      if (convertJsonValueParams
+          && (JsonValue.class.isAssignableFrom(paramType)
+              || JsonValue[].class.isAssignableFrom(paramType))) {
+        writeType(sw.visitParameterType(), Type.getType(getConvertedTypeDescriptor(paramType)));
+      } else if (!writeType(sw.visitParameterType(), paramTypes[i])) {
+        return null;
       }
     }
 
-    private String getMethodDescriptor(Method method, boolean convertJsonValueParams) {
-      StringBuilder sb = new StringBuilder("(");
-      for (Class<?> paramType : method.getParameterTypes()) {
-        if (convertJsonValueParams) {
-          sb.append(getConvertedTypeDescriptor(paramType));
-        } else {
-          sb.append(Type.getDescriptor(paramType));
+    if (!writeType(sw.visitReturnType(), method.getGenericReturnType())) {
+      return null;
+    }
+
+    java.lang.reflect.Type[] exceptionTypes = method.getGenericExceptionTypes();
+    if (Arrays.stream(exceptionTypes).anyMatch(type -> !(type instanceof Class))) {
+      for (java.lang.reflect.Type exceptionType : exceptionTypes) {
+        if (!writeType(sw.visitExceptionType(), exceptionType)) {
+          return null;
         }
       }
-      sb.append(")");
-      sb.append(Type.getDescriptor(method.getReturnType()));
-      return sb.toString();
-    }
-
-    private MethodHandle getConvertedTypeDescriptor;
-
-    @SneakyThrows
-    private String getConvertedTypeDescriptor(Class<?> type) {
-      if (getConvertedTypeDescriptor == null) {
-        Class<?> helper =
-            Class.forName("com.flowingcode.vaadin.jsonmigration.ClassInstrumentationJacksonHelper");
-        MethodHandles.Lookup lookup = MethodHandles.lookup();
-        MethodType methodType = MethodType.methodType(String.class, Class.class);
-        getConvertedTypeDescriptor =
-            lookup.findStatic(helper, "getConvertedTypeDescriptor", methodType);
-      }
-      return (String) getConvertedTypeDescriptor.invokeExact(type);
     }
 
-    private String[] getExceptionInternalNames(Class<?>[] exceptionTypes) {
-      if (exceptionTypes == null || exceptionTypes.length == 0) {
-        return null;
+    String signature = sw.toString();
+    return signature.equals(descriptor) ? null : signature;
+  }
+
+  private static void writeType(SignatureVisitor sv, Type type) {
+    for (int i = 0; i < (type.getSort() == Type.ARRAY ? type.getDimensions() : 0); i++) {
+      sv = sv.visitArrayType();
+    }
+    Type elementType = type.getSort() == Type.ARRAY ? type.getElementType() : type;
+    if (elementType.getSort() == Type.OBJECT) {
+      sv.visitClassType(elementType.getInternalName());
+      sv.visitEnd();
+    } else {
+      sv.visitBaseType(elementType.getDescriptor().charAt(0));
+    }
+  }
+
+  private static boolean writeType(SignatureVisitor sv, java.lang.reflect.Type type) {
+    if (type instanceof Class) {
+      writeType(sv, Type.getType((Class<?>) type));
+      return true;
+    } else if (type instanceof GenericArrayType) {
+      return writeType(sv.visitArrayType(), ((GenericArrayType) type).getGenericComponentType());
+    } else if (type instanceof TypeVariable) {
+      if (((TypeVariable<?>) type).getGenericDeclaration() instanceof Class) {
+        return false;
+      }
+      sv.visitTypeVariable(((TypeVariable<?>) type).getName());
+      return true;
+    } else if (type instanceof ParameterizedType) {
+      ParameterizedType parameterizedType = (ParameterizedType) type;
+      if (parameterizedType.getOwnerType() instanceof ParameterizedType) {
+        return false;
       }
-      String[] names = new String[exceptionTypes.length];
-      for (int i = 0; i < exceptionTypes.length; i++) {
-        names[i] = exceptionTypes[i].getName().replace('.', '/');
+      sv.visitClassType(Type.getInternalName((Class<?>) parameterizedType.getRawType()));
+      for (java.lang.reflect.Type arg : parameterizedType.getActualTypeArguments()) {
+        if (arg instanceof WildcardType) {
+          WildcardType wildcard = (WildcardType) arg;
+          if (wildcard.getLowerBounds().length > 0) {
+            if (!writeType(sv.visitTypeArgument('-'), wildcard.getLowerBounds()[0])) {
+              return false;
+            }
+          } else if (wildcard.getUpperBounds()[0] == Object.class) {
+            sv.visitTypeArgument();
+          } else if (!writeType(sv.visitTypeArgument('+'), wildcard.getUpperBounds()[0])) {
+            return false;
+          }
+        } else if (!writeType(sv.visitTypeArgument('='), arg)) {
+          return false;
+        }
       }
-      return names;
+      sv.visitEnd();
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  private MethodHandle getConvertedTypeDescriptor;
+
+  @SneakyThrows
+  private String getConvertedTypeDescriptor(Class<?> type) {
+    if (getConvertedTypeDescriptor == null) {
+      Class<?> helper =
+          Class.forName("com.flowingcode.vaadin.jsonmigration.ClassInstrumentationJacksonHelper");
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      MethodType methodType = MethodType.methodType(String.class, Class.class);
+      getConvertedTypeDescriptor =
+          lookup.findStatic(helper, "getConvertedTypeDescriptor", methodType);
+    }
+    return (String) getConvertedTypeDescriptor.invokeExact(type);
+  }
+
+  private String[] getExceptionInternalNames(Class<?>[] exceptionTypes) {
+    if (exceptionTypes == null || exceptionTypes.length == 0) {
+      return null;
+    }
+    String[] names = new String[exceptionTypes.length];
+    for (int i = 0; i < exceptionTypes.length; i++) {
+      names[i] = exceptionTypes[i].getName().replace('.', '/');
     }
+    return names;
   }
 }
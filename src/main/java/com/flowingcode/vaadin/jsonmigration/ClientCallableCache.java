@@ -0,0 +1,166 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import com.vaadin.flow.component.Component;
+import elemental.json.JsonValue;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The results of a client callable annotated with {@link CachedClientCallable}. Instances are
+ * created by the instrumented classes when they are initialized, and keep a bounded LRU cache for
+ * each component instance, which is released when the component is garbage collected.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+public final class ClientCallableCache {
+
+  /** The value returned by {@link #get(Component, Object)} if there is no cached result. */
+  public static final Object MISS = new Object();
+
+  private final long ttlNanos;
+
+  private final int maxEntries;
+
+  private final Map<Component, Map<Object, Entry>> caches =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  private static final class Entry {
+    final Object result;
+    final long timestamp;
+
+    Entry(Object result, long timestamp) {
+      this.result = result;
+      this.timestamp = timestamp;
+    }
+  }
+
+  /** The arguments of an invocation, compared by their structure. */
+  private static final class Key {
+    final Object[] arguments;
+    final int hash;
+
+    Key(Object[] arguments) {
+      this.arguments = arguments;
+      hash = Arrays.deepHashCode(arguments);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Key
+          && hash == ((Key) obj).hash
+          && Arrays.deepEquals(arguments, ((Key) obj).arguments);
+    }
+  }
+
+  private ClientCallableCache(long ttlMillis, int maxEntries) {
+    ttlNanos = ttlMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(ttlMillis) : 0;
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * Creates the cache for a method of an instrumented class. This method is called from the static
+   * initializer of the instrumented class.
+   *
+   * @param ttlMillis the value of {@link CachedClientCallable#ttl()}
+   * @param maxEntries the value of {@link CachedClientCallable#maxEntries()}
+   */
+  public static ClientCallableCache create(long ttlMillis, int maxEntries) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+    return new ClientCallableCache(ttlMillis, maxEntries);
+  }
+
+  /**
+   * Returns the key of an invocation with the given arguments. Elemental JSON values are compared
+   * by their JSON representation, and arrays by their elements.
+   */
+  public Object createKey(Object[] arguments) {
+    return new Key(normalize(arguments));
+  }
+
+  private static Object[] normalize(Object[] arguments) {
+    Object[] normalized = arguments.clone();
+    for (int i = 0; i < normalized.length; i++) {
+      if (normalized[i] instanceof JsonValue) {
+        normalized[i] = ((JsonValue) normalized[i]).toJson();
+      } else if (normalized[i] instanceof Object[]) {
+        normalized[i] = normalize((Object[]) normalized[i]);
+      }
+    }
+    return normalized;
+  }
+
+  /**
+   * Returns the result cached for the given component and key, or {@link #MISS} if there is none.
+   */
+  public Object get(Component component, Object key) {
+    Map<Object, Entry> cache = caches.get(component);
+    if (cache == null) {
+      return MISS;
+    }
+    synchronized (cache) {
+      Entry entry = cache.get(key);
+      if (entry == null) {
+        return MISS;
+      } else if (ttlNanos > 0 && System.nanoTime() - entry.timestamp > ttlNanos) {
+        cache.remove(key);
+        return MISS;
+      }
+      return entry.result;
+    }
+  }
+
+  /**
+   * Caches the result for the given component and key, evicting the least recently used result if
+   * the cache is full.
+   *
+   * @return {@code result}
+   */
+  public Object put(Component component, Object key, Object result) {
+    Map<Object, Entry> cache = caches.computeIfAbsent(component, c -> createLruMap(maxEntries));
+    synchronized (cache) {
+      cache.put(key, new Entry(result, System.nanoTime()));
+    }
+    return result;
+  }
+
+  private static Map<Object, Entry> createLruMap(int maxEntries) {
+    return new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+}
@@ -0,0 +1,205 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinService;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+
+/**
+ * The pending invocations of a client callable annotated with {@link CoalescedClientCallable}.
+ * Instances are created by the instrumented classes when they are initialized.
+ *
+ * <p>Deliveries are scheduled in an executor that belongs to the current {@link VaadinService}, and
+ * that is shut down when the service is destroyed.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+public final class ClientCallableCoalescer {
+
+  /** Schedules the delivery of the pending invocation of a component. */
+  @FunctionalInterface
+  interface DeliveryScheduler {
+
+    /**
+     * Schedules the delivery of the pending invocation of a component.
+     *
+     * @param component the component whose client callable was invoked
+     * @param delayMillis the delay before the delivery
+     * @param delivery the delivery, which must run while the session of the component is locked
+     * @param discard discards the pending invocation, if the delivery cannot run
+     * @return {@code false} if the delivery cannot be scheduled, because the component is not
+     *     attached
+     */
+    boolean schedule(Component component, long delayMillis, Command delivery, Runnable discard);
+  }
+
+  // executors of the deliveries, by service
+  private static final Map<VaadinService, ScheduledExecutorService> executors =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  // set while a coalesced invocation is delivered
+  private static final ThreadLocal<Boolean> DELIVERING = new ThreadLocal<>();
+
+  private final Method method;
+
+  private final long windowMillis;
+
+  private final DeliveryScheduler scheduler;
+
+  // the latest arguments of each component with a scheduled delivery
+  private final Map<Component, Object[]> pending =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  ClientCallableCoalescer(Method method, long windowMillis, DeliveryScheduler scheduler) {
+    this.method = method;
+    this.windowMillis = windowMillis;
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Creates the coalescer for a method of an instrumented class. This method is called from the
+   * static initializer of the instrumented class.
+   *
+   * @param instrumentedClass the instrumented class
+   * @param methodName the name of the overridden method
+   * @param windowMillis the value of {@link CoalescedClientCallable#window()}
+   */
+  public static ClientCallableCoalescer create(
+      Class<?> instrumentedClass, String methodName, long windowMillis) {
+    if (windowMillis <= 0) {
+      throw new IllegalArgumentException("window must be positive");
+    }
+    for (Method method : instrumentedClass.getDeclaredMethods()) {
+      if (method.getName().equals(methodName)) {
+        method.setAccessible(true);
+        return new ClientCallableCoalescer(
+            method, windowMillis, ClientCallableCoalescer::scheduleInService);
+      }
+    }
+    throw new IllegalArgumentException(
+        String.format("Method '%s' not found in %s", methodName, instrumentedClass));
+  }
+
+  /**
+   * Submits an invocation of the client callable. If there is no delivery scheduled for the
+   * component, schedules one; otherwise, replaces the arguments of the scheduled delivery.
+   *
+   * @param component the component whose client callable was invoked
+   * @param arguments the arguments of the invocation, before they are converted
+   * @return {@code false} if the invocation must proceed immediately, because it is being delivered
+   *     or the component is not attached
+   */
+  public boolean submit(Component component, Object[] arguments) {
+    if (DELIVERING.get() != null) {
+      return false;
+    }
+    if (pending.put(component, arguments) == null
+        && !scheduler.schedule(
+            component, windowMillis, () -> deliver(component), () -> pending.remove(component))) {
+      pending.remove(component);
+      return false;
+    }
+    return true;
+  }
+
+  private void deliver(Component component) {
+    Object[] arguments = pending.remove(component);
+    if (arguments != null) {
+      invoke(component, arguments);
+    }
+  }
+
+  private static boolean scheduleInService(
+      Component component, long delayMillis, Command delivery, Runnable discard) {
+    Optional<UI> ui = component.getUI();
+    // the service that handles the request in which the client callable was invoked
+    VaadinService service = VaadinService.getCurrent();
+    if (!ui.isPresent() || service == null) {
+      return false;
+    }
+    try {
+      getExecutor(service)
+          .schedule(
+              () -> {
+                try {
+                  ui.get().access(delivery);
+                } catch (UIDetachedException e) {
+                  discard.run();
+                }
+              },
+              delayMillis,
+              TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // the service has been destroyed
+      return false;
+    }
+    return true;
+  }
+
+  // returns the executor of a service, which is shut down when the service is destroyed
+  private static ScheduledExecutorService getExecutor(VaadinService service) {
+    synchronized (executors) {
+      ScheduledExecutorService executor = executors.get(service);
+      if (executor == null) {
+        ScheduledExecutorService newExecutor =
+            Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                  Thread thread = new Thread(runnable, "jsonmigration-coalescer");
+                  thread.setDaemon(true);
+                  return thread;
+                });
+        service.addServiceDestroyListener(
+            event -> {
+              executors.remove(service);
+              newExecutor.shutdownNow();
+            });
+        executors.put(service, newExecutor);
+        executor = newExecutor;
+      }
+      return executor;
+    }
+  }
+
+  @SneakyThrows
+  private void invoke(Component component, Object[] arguments) {
+    DELIVERING.set(Boolean.TRUE);
+    try {
+      method.invoke(component, arguments);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    } finally {
+      DELIVERING.remove();
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonBoolean;
+import elemental.json.JsonNumber;
+import elemental.json.JsonObject;
+import elemental.json.JsonString;
+import elemental.json.JsonValue;
+import java.util.concurrent.CompletableFuture;
+import lombok.experimental.UtilityClass;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.BooleanNode;
+import tools.jackson.databind.node.DoubleNode;
+import tools.jackson.databind.node.ObjectNode;
+import tools.jackson.databind.node.StringNode;
+
+/**
+ * Conversions called by the classes instrumented for Vaadin 25. The instrumentation chooses a
+ * conversion for each argument and result from its declared type, so that client callables do not
+ * go through {@link JsonMigration#convertToJsonValue(Object)}. These methods are public because
+ * instrumented classes may be defined in a different class loader, and they are not intended to
+ * be called by application code.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+@UtilityClass
+public class ClientCallableConversions {
+
+  public static JsonObject toJsonObject(ObjectNode node) {
+    if (node == null) {
+      return null;
+    }
+    return JsonMigrationHelper25.LAZY_JSON_VALUE
+        ? new JsonNodeObjectView(node)
+        : (JsonObject) JsonMigrationHelper25.copyToJsonValue(node);
+  }
+
+  public static JsonArray toJsonArray(ArrayNode node) {
+    if (node == null) {
+      return null;
+    }
+    return JsonMigrationHelper25.LAZY_JSON_VALUE
+        ? new JsonNodeArrayView(node)
+        : (JsonArray) JsonMigrationHelper25.copyToJsonValue(node);
+  }
+
+  public static JsonBoolean toJsonBoolean(BooleanNode node) {
+    return node == null ? null : Json.create(node.asBoolean());
+  }
+
+  public static JsonNumber toJsonNumber(DoubleNode node) {
+    return node == null ? null : Json.create(node.asDouble());
+  }
+
+  public static JsonString toJsonString(StringNode node) {
+    return node == null ? null : Json.create(node.stringValue());
+  }
+
+  public static JsonValue toJsonValue(JsonNode node) {
+    return node == null ? null : JsonMigrationHelper25.convertToJsonValue(node);
+  }
+
+  /**
+   * Converts the elements of an array argument.
+   *
+   * @throws IllegalArgumentException if the array lengths do not match
+   * @throws ArrayStoreException if an element is converted into a type that is not assignable to
+   *     the component type of {@code target}
+   */
+  public static void toJsonValues(JsonNode[] source, JsonValue[] target) {
+    if (source.length != target.length) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Array length mismatch: source.length=%d, target.length=%d",
+              source.length, target.length));
+    }
+    for (int i = 0; i < target.length; i++) {
+      target[i] = toJsonValue(source[i]);
+    }
+  }
+
+  public static JsonValue fromJsonObject(JsonObject value) {
+    return value == null || value instanceof JsonNode ? value : new ElementalObjectNode(value);
+  }
+
+  public static JsonValue fromJsonArray(JsonArray value) {
+    return value == null || value instanceof JsonNode ? value : new ElementalArrayNode(value);
+  }
+
+  public static JsonValue fromJsonBoolean(JsonBoolean value) {
+    return value == null || value instanceof JsonNode
+        ? value
+        : new ElementalBooleanNode(value.getBoolean());
+  }
+
+  public static JsonValue fromJsonNumber(JsonNumber value) {
+    return value == null || value instanceof JsonNode
+        ? value
+        : new ElementalNumberNode(value.getNumber());
+  }
+
+  public static JsonValue fromJsonString(JsonString value) {
+    return value == null || value instanceof JsonNode
+        ? value
+        : new ElementalStringNode(value.getString());
+  }
+
+  public static JsonValue fromJsonValue(JsonValue value) {
+    return JsonMigration.convertToClientCallableResult(value);
+  }
+
+  /**
+   * Converts the value of an asynchronous result when the future completes. The conversion runs in
+   * the thread that completes the future, without holding the session lock.
+   */
+  public static CompletableFuture<JsonValue> fromJsonValueFuture(
+      CompletableFuture<? extends JsonValue> future) {
+    return future == null ? null : future.thenApply(ClientCallableConversions::fromJsonValue);
+  }
+}
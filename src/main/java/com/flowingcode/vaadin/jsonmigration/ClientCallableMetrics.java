@@ -0,0 +1,48 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+/**
+ * Receives the metrics of the client callables of instrumented classes, when the {@code
+ * jsonmigration.instrumentation.metrics} system property is {@code true}.
+ *
+ * <p>Implementations are discovered through {@link java.util.ServiceLoader} when the first metrics
+ * are recorded, and {@link DefaultClientCallableMetrics} is used if there is none. Since {@link
+ * #record} is called on every invocation, implementations should be thread-safe and should not
+ * allocate.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+public interface ClientCallableMetrics {
+
+  /**
+   * Records an invocation of a client callable that completed normally.
+   *
+   * @param callable the client callable
+   * @param argumentConversionNanos the time spent converting the arguments
+   * @param invocationNanos the time spent in the client callable
+   * @param resultConversionNanos the time spent converting the result
+   */
+  void record(
+      InstrumentedCallable callable,
+      long argumentConversionNanos,
+      long invocationNanos,
+      long resultConversionNanos);
+}
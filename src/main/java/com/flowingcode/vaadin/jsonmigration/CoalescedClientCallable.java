@@ -0,0 +1,49 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import com.vaadin.flow.component.ClientCallable;
+import com.vaadin.flow.component.UI;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * When instrumented, coalesces the invocations of a method annotated with {@link ClientCallable}
+ * or {@link LegacyClientCallable}. The first invocation schedules a delivery after {@link
+ * #window()} milliseconds, and the invocations that arrive before the delivery only replace its
+ * arguments. The method is then called once, through {@link UI#access}, with the latest arguments.
+ * The arguments are only converted when they are delivered.
+ *
+ * <p>The annotated method must return {@code void}. If the component is not attached to a UI, the
+ * method is called immediately.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface CoalescedClientCallable {
+
+  /** The time, in milliseconds, during which invocations are coalesced. */
+  long window() default 100;
+}
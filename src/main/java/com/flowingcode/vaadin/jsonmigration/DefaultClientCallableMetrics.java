@@ -0,0 +1,126 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default implementation of {@link ClientCallableMetrics}, which accumulates the metrics of each
+ * client callable in {@link LongAdder} counters.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+public final class DefaultClientCallableMetrics implements ClientCallableMetrics {
+
+  private static final DefaultClientCallableMetrics INSTANCE = new DefaultClientCallableMetrics();
+
+  private final Map<InstrumentedCallable, Statistics> statistics = new ConcurrentHashMap<>();
+
+  private DefaultClientCallableMetrics() {}
+
+  /** Returns the instance that is used if no other implementation is registered. */
+  public static DefaultClientCallableMetrics getInstance() {
+    return INSTANCE;
+  }
+
+  /** Accumulated metrics of a client callable. */
+  public static final class Statistics {
+
+    private final InstrumentedCallable callable;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder argumentConversionNanos = new LongAdder();
+
+    private final LongAdder invocationNanos = new LongAdder();
+
+    private final LongAdder resultConversionNanos = new LongAdder();
+
+    private Statistics(InstrumentedCallable callable) {
+      this.callable = callable;
+    }
+
+    /** Returns the client callable. */
+    public InstrumentedCallable getCallable() {
+      return callable;
+    }
+
+    /** Returns the number of invocations that completed normally. */
+    public long getCount() {
+      return count.sum();
+    }
+
+    /** Returns the total time spent converting the arguments. */
+    public long getArgumentConversionNanos() {
+      return argumentConversionNanos.sum();
+    }
+
+    /** Returns the total time spent in the client callable. */
+    public long getInvocationNanos() {
+      return invocationNanos.sum();
+    }
+
+    /** Returns the total time spent converting the results. */
+    public long getResultConversionNanos() {
+      return resultConversionNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "%s: count=%d, arguments=%dns, invocation=%dns, result=%dns",
+          callable,
+          getCount(),
+          getArgumentConversionNanos(),
+          getInvocationNanos(),
+          getResultConversionNanos());
+    }
+  }
+
+  @Override
+  public void record(
+      InstrumentedCallable callable,
+      long argumentConversionNanos,
+      long invocationNanos,
+      long resultConversionNanos) {
+    Statistics stats = statistics.get(callable);
+    if (stats == null) {
+      stats = statistics.computeIfAbsent(callable, Statistics::new);
+    }
+    stats.count.increment();
+    stats.argumentConversionNanos.add(argumentConversionNanos);
+    stats.invocationNanos.add(invocationNanos);
+    stats.resultConversionNanos.add(resultConversionNanos);
+  }
+
+  /** Returns the metrics of the client callables that have been invoked. */
+  public List<Statistics> getStatistics() {
+    return new ArrayList<>(statistics.values());
+  }
+
+  /** Clears the metrics. */
+  public void reset() {
+    statistics.clear();
+  }
+}
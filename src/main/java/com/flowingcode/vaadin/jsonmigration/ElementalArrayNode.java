@@ -21,18 +21,32 @@ package com.flowingcode.vaadin.jsonmigration;
 
 import elemental.json.JsonArray;
 import elemental.json.JsonType;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import tools.jackson.core.JsonGenerator;
 import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.SerializationContext;
 import tools.jackson.databind.node.ArrayNode;
 import tools.jackson.databind.node.JsonNodeFactory;
 
 @SuppressWarnings("serial")
 class ElementalArrayNode extends ArrayNode implements UnsupportedJsonValueImpl {
 
+  private final LazyChildren lazyChildren;
+
   public ElementalArrayNode(JsonArray a) {
-    super(JsonNodeFactory.instance, children(a));
+    this(a, JsonMigrationHelper25.LAZY_JSON_NODE);
+  }
+
+  ElementalArrayNode(JsonArray a, boolean lazy) {
+    this(lazy ? new LazyChildren(a) : children(a));
+  }
+
+  private ElementalArrayNode(List<JsonNode> children) {
+    super(JsonNodeFactory.instance, children);
+    lazyChildren = children instanceof LazyChildren ? (LazyChildren) children : null;
   }
 
   private static List<JsonNode> children(JsonArray a) {
@@ -54,4 +68,69 @@ class ElementalArrayNode extends ArrayNode implements UnsupportedJsonValueImpl {
   public JsonType getType() {
     return JsonType.ARRAY;
   }
+
+  @Override
+  public void serialize(JsonGenerator g, SerializationContext ctxt) {
+    if (lazyChildren != null && lazyChildren.children == null) {
+      // nothing has been converted yet: write the elemental array directly
+      JacksonJsonSerializer.writeTree(lazyChildren.source, g);
+    } else {
+      super.serialize(g, ctxt);
+    }
+  }
+
+  /** Children of a lazy node, which are converted the first time that they are accessed. */
+  private static final class LazyChildren extends AbstractList<JsonNode> {
+
+    private final JsonArray source;
+
+    private List<JsonNode> children;
+
+    LazyChildren(JsonArray source) {
+      this.source = source;
+    }
+
+    private List<JsonNode> children() {
+      if (children == null) {
+        children = new ArrayList<>(source.length());
+        for (int i = 0, n = source.length(); i < n; i++) {
+          children.add(JsonMigrationHelper25.convertToJsonNode(source.get(i)));
+        }
+      }
+      return children;
+    }
+
+    @Override
+    public int size() {
+      return children == null ? source.length() : children.size();
+    }
+
+    @Override
+    public JsonNode get(int index) {
+      return children().get(index);
+    }
+
+    @Override
+    public JsonNode set(int index, JsonNode element) {
+      return children().set(index, element);
+    }
+
+    @Override
+    public void add(int index, JsonNode element) {
+      children().add(index, element);
+      modCount++;
+    }
+
+    @Override
+    public JsonNode remove(int index) {
+      modCount++;
+      return children().remove(index);
+    }
+
+    @Override
+    public void clear() {
+      children = new ArrayList<>();
+      modCount++;
+    }
+  }
 }
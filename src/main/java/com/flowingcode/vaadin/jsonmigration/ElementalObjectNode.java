@@ -23,18 +23,34 @@ import static com.flowingcode.vaadin.jsonmigration.JsonMigrationHelper25.convert
 
 import elemental.json.JsonObject;
 import elemental.json.JsonType;
+import java.util.AbstractMap;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import tools.jackson.core.JsonGenerator;
 import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.SerializationContext;
 import tools.jackson.databind.node.JsonNodeFactory;
 import tools.jackson.databind.node.ObjectNode;
 
 @SuppressWarnings("serial")
 class ElementalObjectNode extends ObjectNode implements UnsupportedJsonValueImpl {
 
+  private final LazyChildren lazyChildren;
+
   public ElementalObjectNode(JsonObject o) {
-    super(JsonNodeFactory.instance, children(o));
+    this(o, JsonMigrationHelper25.LAZY_JSON_NODE);
+  }
+
+  ElementalObjectNode(JsonObject o, boolean lazy) {
+    this(lazy ? new LazyChildren(o) : children(o));
+  }
+
+  private ElementalObjectNode(Map<String, JsonNode> children) {
+    super(JsonNodeFactory.instance, children);
+    lazyChildren = children instanceof LazyChildren ? (LazyChildren) children : null;
   }
 
   private static Map<String, JsonNode> children(JsonObject o) {
@@ -57,4 +73,82 @@ class ElementalObjectNode extends ObjectNode implements UnsupportedJsonValueImpl
   public JsonType getType() {
     return JsonType.OBJECT;
   }
+
+  @Override
+  public void serialize(JsonGenerator g, SerializationContext ctxt) {
+    if (lazyChildren != null && lazyChildren.children == null) {
+      // nothing has been converted yet: write the elemental object directly
+      JacksonJsonSerializer.writeTree(lazyChildren.source, g);
+    } else {
+      super.serialize(g, ctxt);
+    }
+  }
+
+  /** Children of a lazy node, which are converted the first time that they are accessed. */
+  private static final class LazyChildren extends AbstractMap<String, JsonNode> {
+
+    private final JsonObject source;
+
+    private Map<String, JsonNode> children;
+
+    LazyChildren(JsonObject source) {
+      this.source = source;
+    }
+
+    private Map<String, JsonNode> children() {
+      if (children == null) {
+        String keys[] = source.keys();
+        children = new LinkedHashMap<>(keys.length);
+        for (String key : keys) {
+          children.put(key, convertToJsonNode(source.get(key)));
+        }
+      }
+      return children;
+    }
+
+    @Override
+    public int size() {
+      return children == null ? source.keys().length : children.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return children().containsKey(key);
+    }
+
+    @Override
+    public JsonNode get(Object key) {
+      return children().get(key);
+    }
+
+    @Override
+    public JsonNode put(String key, JsonNode value) {
+      return children().put(key, value);
+    }
+
+    @Override
+    public JsonNode remove(Object key) {
+      return children().remove(key);
+    }
+
+    @Override
+    public void clear() {
+      children = new LinkedHashMap<>();
+    }
+
+    @Override
+    public Set<String> keySet() {
+      return children().keySet();
+    }
+
+    @Override
+    public Collection<JsonNode> values() {
+      return children().values();
+    }
+
+    @Override
+    public Set<Entry<String, JsonNode>> entrySet() {
+      return children().entrySet();
+    }
+  }
 }
@@ -0,0 +1,89 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+/**
+ * JDK Flight Recorder events of the conversions, the instrumentation, {@link JsonSerializer}, and
+ * the decoding of JavaScript results. Each {@code begin} method returns an event, or {@code null}
+ * if the event is disabled, which must be passed to the matching {@code end} method.
+ *
+ * <p>This implementation, which is used on Java 8, does not record any events. On Java 11 and
+ * later, a version of this class in the multi-release jar records them.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+final class FlightRecorderEvents {
+
+  private FlightRecorderEvents() {}
+
+  /** Begins a conversion between elemental values and Jackson nodes. */
+  static Object beginConversion() {
+    return null;
+  }
+
+  /**
+   * Ends a conversion between elemental values and Jackson nodes.
+   *
+   * @param toJsonNode whether elemental values were converted into Jackson nodes
+   * @param nodeCount the number of converted values
+   * @param depth the maximum depth of the converted values
+   */
+  static void endConversion(Object event, boolean toJsonNode, int nodeCount, int depth) {}
+
+  /** Begins the generation (or loading) of an instrumented class. */
+  static Object beginInstrumentation() {
+    return null;
+  }
+
+  /**
+   * Ends the generation (or loading) of an instrumented class.
+   *
+   * @param instrumentedClass the instrumented class
+   * @param source how the bytecode was obtained
+   * @param bytecodeSize the size of the bytecode, or -1 if unknown
+   */
+  static void endInstrumentation(
+      Object event, Class<?> instrumentedClass, String source, int bytecodeSize) {}
+
+  /** Begins an operation of {@link JsonSerializer}, unless it is nested in another operation. */
+  static Object beginSerialization() {
+    return null;
+  }
+
+  /**
+   * Ends an operation of {@link JsonSerializer}.
+   *
+   * @param operation the name of the operation
+   * @param type the type of the converted object, if known
+   */
+  static void endSerialization(Object event, String operation, Class<?> type) {}
+
+  /** Begins the decoding of the result of a JavaScript execution. */
+  static Object beginDecode() {
+    return null;
+  }
+
+  /**
+   * Ends the decoding of the result of a JavaScript execution.
+   *
+   * @param targetType the type the result is decoded as, if any
+   */
+  static void endDecode(Object event, Class<?> targetType) {}
+}
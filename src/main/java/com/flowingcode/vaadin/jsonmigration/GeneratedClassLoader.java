@@ -0,0 +1,55 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Class loader that defines classes generated at runtime. Each generated class is defined at most
+ * once, and it can see all the classes visible from the parent class loader.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+class GeneratedClassLoader extends ClassLoader {
+
+  private final Map<String, Class<?>> generatedClasses = new ConcurrentHashMap<>();
+
+  GeneratedClassLoader(ClassLoader parent) {
+    super(parent);
+  }
+
+  /**
+   * Returns the generated class with the given name, defining it if needed.
+   *
+   * @param className the binary name of the generated class
+   * @param generator a supplier of the bytecode of the class, called at most once
+   * @return the generated class
+   */
+  final Class<?> defineGeneratedClass(String className, Supplier<byte[]> generator) {
+    return generatedClasses.computeIfAbsent(
+        className,
+        name -> {
+          byte[] bytecode = generator.get();
+          return defineClass(name, bytecode, 0, bytecode.length);
+        });
+  }
+}
@@ -0,0 +1,252 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import com.vaadin.flow.component.Component;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Disk cache of the bytecode of instrumented classes, which is enabled by setting the {@code
+ * jsonmigration.instrumentation.cacheDir} system property to a directory.
+ *
+ * <p>Entries are keyed by a SHA-256 digest of the Vaadin major version, the name of the
+ * instrumented class, whether it reports metrics, the version of this library (including the bytes
+ * of the class that generates the bytecode), and the bytes of the parent class and its
+ * superclasses. Each entry also records the name of the instrumented class and a digest of the
+ * bytecode, so that entries that don't match or are corrupted are regenerated. Entries are written
+ * to a temporary file and then moved into place, so that concurrent JVMs sharing the directory
+ * never read a partially written entry.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+final class InstrumentationCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(InstrumentationCache.class);
+
+  private static final String DIRECTORY =
+      System.getProperty("jsonmigration.instrumentation.cacheDir");
+
+  private static final int MAGIC = 0x4A4D4943;
+
+  private static final String SUFFIX = ".instrumented";
+
+  private final Path directory;
+
+  private final int version;
+
+  private final boolean metrics;
+
+  InstrumentationCache(Path directory, int version) {
+    this(directory, version, false);
+  }
+
+  InstrumentationCache(Path directory, int version, boolean metrics) {
+    this.directory = directory;
+    this.version = version;
+    this.metrics = metrics;
+  }
+
+  /** Returns the cache configured through system properties, or null if it is disabled. */
+  static InstrumentationCache forVersion(int version, boolean metrics) {
+    return DIRECTORY == null || DIRECTORY.isEmpty()
+        ? null
+        : new InstrumentationCache(Paths.get(DIRECTORY), version, metrics);
+  }
+
+  /**
+   * Returns the cached bytecode of an instrumented class, or calls {@code generator} and stores its
+   * result if there is no valid entry. Failures to access the cache are logged and fall back to
+   * {@code generator}.
+   *
+   * @param className the binary name of the instrumented class
+   * @param parent the parent class
+   * @param generator a supplier of the bytecode of the instrumented class
+   * @return the bytecode of the instrumented class
+   */
+  byte[] getBytecode(String className, Class<?> parent, Supplier<byte[]> generator) {
+    Path file;
+    try {
+      file = directory.resolve(computeKey(className, parent) + SUFFIX);
+    } catch (IOException e) {
+      logger.debug("Cannot compute the cache key of {}", parent, e);
+      return generator.get();
+    }
+
+    byte[] bytecode = read(file, className);
+    InstrumentationDiagnostics.getInstance().diskCacheAccessed(bytecode != null);
+    if (bytecode == null) {
+      bytecode = generator.get();
+      write(file, className, bytecode);
+    }
+    return bytecode;
+  }
+
+  private String computeKey(String className, Class<?> parent) throws IOException {
+    MessageDigest digest = newDigest();
+    digest.update(Integer.toString(version).getBytes(StandardCharsets.UTF_8));
+    digest.update(className.getBytes(StandardCharsets.UTF_8));
+    if (metrics) {
+      digest.update("metrics".getBytes(StandardCharsets.UTF_8));
+    }
+    String libraryVersion = InstrumentationCache.class.getPackage().getImplementationVersion();
+    if (libraryVersion != null) {
+      digest.update(libraryVersion.getBytes(StandardCharsets.UTF_8));
+    }
+    digest.update(readClassBytes(ClassInstrumentationUtil.class));
+    updateParentDigest(digest, parent);
+    return toHexString(digest.digest());
+  }
+
+  /**
+   * Returns a SHA-256 digest of the names and bytes of {@code parent} and its superclasses, which
+   * identifies the parent from which an instrumented class was generated at build time.
+   *
+   * @throws IOException if the class file of {@code parent} or a superclass cannot be read
+   */
+  static String computeParentDigest(Class<?> parent) throws IOException {
+    MessageDigest digest = newDigest();
+    updateParentDigest(digest, parent);
+    return toHexString(digest.digest());
+  }
+
+  private static void updateParentDigest(MessageDigest digest, Class<?> parent)
+      throws IOException {
+    for (Class<?> c = parent; c != Component.class; c = c.getSuperclass()) {
+      digest.update(c.getName().getBytes(StandardCharsets.UTF_8));
+      digest.update(readClassBytes(c));
+    }
+  }
+
+  private static byte[] readClassBytes(Class<?> type) throws IOException {
+    String resource = type.getName().replace('.', '/') + ".class";
+    ClassLoader classLoader = type.getClassLoader();
+    try (InputStream in =
+        classLoader == null
+            ? ClassLoader.getSystemResourceAsStream(resource)
+            : classLoader.getResourceAsStream(resource)) {
+      if (in == null) {
+        throw new IOException("Class file not found: " + resource);
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int n;
+      while ((n = in.read(buffer)) > 0) {
+        out.write(buffer, 0, n);
+      }
+      return out.toByteArray();
+    }
+  }
+
+  // returns null if the entry does not exist, or if it does not match or is corrupted
+  private byte[] read(Path file, String className) {
+    try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+      if (in.readInt() != MAGIC || !in.readUTF().equals(className)) {
+        logger.debug("Ignoring mismatched cache entry {}", file);
+        return null;
+      }
+      int length = in.readInt();
+      if (length < 0 || length > Files.size(file)) {
+        logger.debug("Ignoring corrupted cache entry {}", file);
+        return null;
+      }
+      byte[] bytecode = new byte[length];
+      in.readFully(bytecode);
+      byte[] checksum = new byte[32];
+      in.readFully(checksum);
+      if (in.read() != -1 || !Arrays.equals(checksum, newDigest().digest(bytecode))) {
+        logger.debug("Ignoring corrupted cache entry {}", file);
+        return null;
+      }
+      logger.debug("Loaded {} from {}", className, file);
+      return bytecode;
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | RuntimeException e) {
+      logger.debug("Ignoring unreadable cache entry {}", file, e);
+      return null;
+    }
+  }
+
+  private void write(Path file, String className, byte[] bytecode) {
+    Path temp = null;
+    try {
+      Files.createDirectories(directory);
+      temp = Files.createTempFile(directory, "entry", ".tmp");
+      try (OutputStream os = Files.newOutputStream(temp);
+          DataOutputStream out = new DataOutputStream(os)) {
+        out.writeInt(MAGIC);
+        out.writeUTF(className);
+        out.writeInt(bytecode.length);
+        out.write(bytecode);
+        out.write(newDigest().digest(bytecode));
+      }
+      try {
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      temp = null;
+    } catch (IOException e) {
+      logger.warn("Cannot write cache entry {}", file, e);
+    } finally {
+      if (temp != null) {
+        try {
+          Files.deleteIfExists(temp);
+        } catch (IOException e) {
+          // ignore
+        }
+      }
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String toHexString(byte[] bytes) {
+    StringBuilder sb = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return sb.toString();
+  }
+}
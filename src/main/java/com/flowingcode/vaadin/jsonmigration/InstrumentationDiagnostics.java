@@ -0,0 +1,157 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import com.vaadin.flow.component.ClientCallable;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the classes instrumented at runtime, with counters of the instrumentation requests.
+ * The registry is available through {@link #getInstance()}, and it is registered in the platform
+ * MBean server as {@value #OBJECT_NAME} when it is first used, unless the {@code
+ * jsonmigration.instrumentation.jmx} system property is {@code false}.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+public final class InstrumentationDiagnostics implements InstrumentationDiagnosticsMXBean {
+
+  /** The object name of the registry in the platform MBean server. */
+  public static final String OBJECT_NAME =
+      "com.flowingcode.vaadin.jsonmigration:type=InstrumentationDiagnostics";
+
+  private static final Logger logger = LoggerFactory.getLogger(InstrumentationDiagnostics.class);
+
+  private static final InstrumentationDiagnostics INSTANCE = new InstrumentationDiagnostics();
+
+  static {
+    if (Boolean.parseBoolean(System.getProperty("jsonmigration.instrumentation.jmx", "true"))) {
+      try {
+        ManagementFactory.getPlatformMBeanServer()
+            .registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+      } catch (JMException | RuntimeException | LinkageError e) {
+        // e.g. already registered by another application in the same server
+        logger.debug("Cannot register {}", OBJECT_NAME, e);
+      }
+    }
+  }
+
+  private final Queue<InstrumentedClassInfo> instrumentedClasses = new ConcurrentLinkedQueue<>();
+
+  private final LongAdder requests = new LongAdder();
+
+  private final LongAdder cacheMisses = new LongAdder();
+
+  private final LongAdder diskCacheHits = new LongAdder();
+
+  private final LongAdder diskCacheMisses = new LongAdder();
+
+  private final LongAdder classLoaders = new LongAdder();
+
+  private InstrumentationDiagnostics() {}
+
+  /** Returns the registry of the classes instrumented at runtime. */
+  public static InstrumentationDiagnostics getInstance() {
+    return INSTANCE;
+  }
+
+  @Override
+  public List<InstrumentedClassInfo> getInstrumentedClasses() {
+    return new ArrayList<>(instrumentedClasses);
+  }
+
+  @Override
+  public long getInstrumentationRequests() {
+    return requests.sum();
+  }
+
+  @Override
+  public long getCacheHits() {
+    return Math.max(0, requests.sum() - cacheMisses.sum());
+  }
+
+  @Override
+  public long getCacheMisses() {
+    return cacheMisses.sum();
+  }
+
+  @Override
+  public long getDiskCacheHits() {
+    return diskCacheHits.sum();
+  }
+
+  @Override
+  public long getDiskCacheMisses() {
+    return diskCacheMisses.sum();
+  }
+
+  @Override
+  public long getClassLoaderCount() {
+    return classLoaders.sum();
+  }
+
+  void instrumentationRequested() {
+    requests.increment();
+  }
+
+  void cacheMissed() {
+    cacheMisses.increment();
+  }
+
+  void diskCacheAccessed(boolean hit) {
+    (hit ? diskCacheHits : diskCacheMisses).increment();
+  }
+
+  void classLoaderCreated() {
+    classLoaders.increment();
+  }
+
+  void classInstrumented(
+      int vaadinVersion,
+      Class<?> instrumentedClass,
+      InstrumentedClassInfo.Source source,
+      int bytecodeSize,
+      long generationTimeNanos) {
+    List<String> overriddenMethods = new ArrayList<>();
+    for (Method method : instrumentedClass.getDeclaredMethods()) {
+      if (method.isAnnotationPresent(ClientCallable.class)) {
+        overriddenMethods.add(method.toString());
+      }
+    }
+    instrumentedClasses.add(
+        new InstrumentedClassInfo(
+            instrumentedClass.getName(),
+            instrumentedClass.getSuperclass().getName(),
+            vaadinVersion,
+            source,
+            overriddenMethods,
+            bytecodeSize,
+            generationTimeNanos));
+  }
+}
@@ -0,0 +1,55 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import java.util.List;
+
+/**
+ * Management interface of {@link InstrumentationDiagnostics}, which is registered in the platform
+ * MBean server as {@value InstrumentationDiagnostics#OBJECT_NAME}.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+public interface InstrumentationDiagnosticsMXBean {
+
+  /** Returns the classes that have been instrumented, in the order they were instrumented. */
+  List<InstrumentedClassInfo> getInstrumentedClasses();
+
+  /** Returns the number of calls to {@link JsonMigration#instrumentClass(Class)}. */
+  long getInstrumentationRequests();
+
+  /** Returns the number of instrumentation requests for classes that were already processed. */
+  long getCacheHits();
+
+  /**
+   * Returns the number of instrumentation requests for classes that were processed for the first
+   * time, including those that didn't need instrumentation.
+   */
+  long getCacheMisses();
+
+  /** Returns the number of instrumented classes whose bytecode was read from the disk cache. */
+  long getDiskCacheHits();
+
+  /** Returns the number of instrumented classes whose bytecode was not found in the disk cache. */
+  long getDiskCacheMisses();
+
+  /** Returns the number of class loaders created for defining instrumented classes. */
+  long getClassLoaderCount();
+}
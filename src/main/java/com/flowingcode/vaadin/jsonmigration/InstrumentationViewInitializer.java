@@ -20,19 +20,45 @@
 package com.flowingcode.vaadin.jsonmigration;
 
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.BeforeEnterListener;
 import com.vaadin.flow.router.RouteConfiguration;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.UIInitEvent;
+import com.vaadin.flow.server.UIInitListener;
 import com.vaadin.flow.server.VaadinServiceInitListener;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Abstract base class for Vaadin service initializers that register instrumented views. Subclasses
  * should implement {@link #serviceInit(com.vaadin.flow.server.ServiceInitEvent)} and call {@link
- * #registerInstrumentedRoute(Class)} to register views with instrumented routes.
+ * #registerInstrumentedRoute(Class)} to register views with instrumented routes. Applications with
+ * many views may call {@link #registerInstrumentedRoutes(Collection, Executor)} instead, which
+ * instruments them in parallel, or {@link #registerLazyInstrumentedRoutes(ServiceInitEvent,
+ * Collection)}, which defers the instrumentation of each view until it is first navigated to.
  *
  * @author Javier Godoy / Flowing Code
  */
 @SuppressWarnings("serial")
 public abstract class InstrumentationViewInitializer implements VaadinServiceInitListener {
 
+  private static final Logger logger =
+      LoggerFactory.getLogger(InstrumentationViewInitializer.class);
+
   /**
    * Registers an instrumented route for the given navigation target. The navigation target must be
    * annotated with {@link InstrumentedRoute} to specify the route path. This method calls {@link
@@ -45,6 +71,134 @@ public abstract class InstrumentationViewInitializer implements VaadinServiceIni
    *     InstrumentedRoute}
    */
   protected final void registerInstrumentedRoute(Class<? extends Component> navigationTarget) {
+    String route = getRoute(navigationTarget);
+    navigationTarget = JsonMigration.instrumentClass(navigationTarget);
+    RouteConfiguration.forApplicationScope().setRoute(route, navigationTarget);
+  }
+
+  /**
+   * Registers instrumented routes for the given navigation targets, instrumenting them in the
+   * common {@link ForkJoinPool}.
+   *
+   * @see #registerInstrumentedRoutes(Collection, Executor)
+   */
+  protected final void registerInstrumentedRoutes(
+      Collection<Class<? extends Component>> navigationTargets) {
+    registerInstrumentedRoutes(navigationTargets, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Registers instrumented routes for the given navigation targets. The navigation targets are
+   * instrumented in parallel, using the given executor, and then all the routes are registered in
+   * a single update of the route configuration. The time spent is logged.
+   *
+   * @param navigationTargets the component classes to instrument and register, which must be
+   *     annotated with {@link InstrumentedRoute}
+   * @param executor the executor where the navigation targets are instrumented
+   * @throws IllegalArgumentException if a navigation target is not annotated with {@link
+   *     InstrumentedRoute}
+   */
+  protected final void registerInstrumentedRoutes(
+      Collection<Class<? extends Component>> navigationTargets, Executor executor) {
+    long start = System.nanoTime();
+
+    List<String> routes = new ArrayList<>(navigationTargets.size());
+    for (Class<? extends Component> navigationTarget : navigationTargets) {
+      routes.add(getRoute(navigationTarget));
+    }
+
+    List<Class<? extends Component>> instrumentedTargets =
+        instrumentAll(navigationTargets, executor, JsonMigration::instrumentClass);
+
+    RouteConfiguration configuration = RouteConfiguration.forApplicationScope();
+    configuration.update(
+        () -> {
+          for (int i = 0; i < routes.size(); i++) {
+            configuration.setRoute(routes.get(i), instrumentedTargets.get(i));
+          }
+        });
+
+    logger.info(
+        "Registered {} instrumented routes in {} ms",
+        routes.size(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  /**
+   * Instruments the given navigation targets in parallel, and returns the instrumented classes in
+   * the same order. If the instrumentation of a target fails, its exception is rethrown.
+   */
+  static List<Class<? extends Component>> instrumentAll(
+      Collection<Class<? extends Component>> navigationTargets,
+      Executor executor,
+      UnaryOperator<Class<? extends Component>> instrumenter) {
+    List<CompletableFuture<Class<? extends Component>>> futures =
+        new ArrayList<>(navigationTargets.size());
+    for (Class<? extends Component> navigationTarget : navigationTargets) {
+      futures.add(
+          CompletableFuture.supplyAsync(() -> instrumenter.apply(navigationTarget), executor));
+    }
+
+    List<Class<? extends Component>> instrumentedTargets = new ArrayList<>(futures.size());
+    for (CompletableFuture<Class<? extends Component>> future : futures) {
+      try {
+        instrumentedTargets.add(future.join());
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+    }
+    return instrumentedTargets;
+  }
+
+  /**
+   * Registers a lazily instrumented route for the given navigation target.
+   *
+   * @see #registerLazyInstrumentedRoutes(ServiceInitEvent, Collection)
+   */
+  protected final void registerLazyInstrumentedRoute(
+      ServiceInitEvent event, Class<? extends Component> navigationTarget) {
+    registerLazyInstrumentedRoutes(event, Collections.singleton(navigationTarget));
+  }
+
+  /**
+   * Registers lazily instrumented routes for the given navigation targets. The routes are
+   * registered immediately, but each navigation target is instrumented only the first time it is
+   * navigated to: then the route is updated with the instrumented class, and the navigation is
+   * rerouted to it. Concurrent navigations to the same target instrument it only once. If the
+   * navigation target does not need instrumentation, the route is left unchanged and the
+   * navigation proceeds.
+   *
+   * <p>Since the navigation is rerouted to the path of the location, the query parameters are not
+   * available to the instrumented view in the first navigation.
+   *
+   * @param event the service initialization event
+   * @param navigationTargets the component classes to register, which must be annotated with
+   *     {@link InstrumentedRoute}
+   * @throws IllegalArgumentException if a navigation target is not annotated with {@link
+   *     InstrumentedRoute}
+   */
+  protected final void registerLazyInstrumentedRoutes(
+      ServiceInitEvent event, Collection<Class<? extends Component>> navigationTargets) {
+    Map<Class<?>, String> routes = new ConcurrentHashMap<>();
+    for (Class<? extends Component> navigationTarget : navigationTargets) {
+      routes.put(navigationTarget, getRoute(navigationTarget));
+    }
+
+    RouteConfiguration configuration = RouteConfiguration.forApplicationScope();
+    configuration.update(
+        () -> {
+          for (Class<? extends Component> navigationTarget : navigationTargets) {
+            configuration.setRoute(routes.get(navigationTarget), navigationTarget);
+          }
+        });
+
+    event.getSource().addUIInitListener(new LazyInstrumentationListener(routes));
+  }
+
+  private static String getRoute(Class<? extends Component> navigationTarget) {
     InstrumentedRoute annotation = navigationTarget.getAnnotation(InstrumentedRoute.class);
     if (annotation == null) {
       throw new IllegalArgumentException(
@@ -52,9 +206,87 @@ public abstract class InstrumentationViewInitializer implements VaadinServiceIni
               + " must be annotated with @"
               + InstrumentedRoute.class.getSimpleName());
     }
+    return annotation.value();
+  }
 
-    String route = annotation.value();
-    navigationTarget = JsonMigration.instrumentClass(navigationTarget);
-    RouteConfiguration.forApplicationScope().setRoute(route, navigationTarget);
+  /**
+   * Instruments each lazily registered navigation target on its first navigation, and reroutes
+   * that navigation to the instrumented class.
+   */
+  static final class LazyInstrumentationListener implements UIInitListener, BeforeEnterListener {
+
+    // navigation targets that have not been instrumented yet, and their routes
+    private final Map<Class<?>, String> routes;
+
+    private final Map<Class<?>, Class<? extends Component>> instrumentedTargets =
+        new ConcurrentHashMap<>();
+
+    private final UnaryOperator<Class<? extends Component>> instrumenter;
+
+    private final BiConsumer<String, Class<? extends Component>> routeUpdater;
+
+    LazyInstrumentationListener(Map<Class<?>, String> routes) {
+      this(routes, JsonMigration::instrumentClass, LazyInstrumentationListener::replaceRoute);
+    }
+
+    LazyInstrumentationListener(
+        Map<Class<?>, String> routes,
+        UnaryOperator<Class<? extends Component>> instrumenter,
+        BiConsumer<String, Class<? extends Component>> routeUpdater) {
+      this.routes = routes;
+      this.instrumenter = instrumenter;
+      this.routeUpdater = routeUpdater;
+    }
+
+    @Override
+    public void uiInit(UIInitEvent event) {
+      event.getUI().addBeforeEnterListener(this);
+    }
+
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+      if (instrument(event.getNavigationTarget())) {
+        event.rerouteTo(event.getLocation().getPath());
+      }
+    }
+
+    /**
+     * Instruments the given navigation target, if it is the first navigation to it.
+     *
+     * @return whether the navigation must be rerouted to the instrumented class
+     */
+    boolean instrument(Class<?> navigationTarget) {
+      Class<? extends Component> instrumentedTarget;
+      if (routes.containsKey(navigationTarget)) {
+        instrumentedTarget =
+            instrumentedTargets.computeIfAbsent(navigationTarget, this::instrumentRoute);
+        // removed after the instrumented target is visible to concurrent navigations
+        routes.remove(navigationTarget);
+      } else {
+        // a concurrent navigation might have resolved the target before its route was replaced
+        instrumentedTarget = instrumentedTargets.get(navigationTarget);
+      }
+      return instrumentedTarget != null && instrumentedTarget != navigationTarget;
+    }
+
+    private Class<? extends Component> instrumentRoute(Class<?> navigationTarget) {
+      String route = routes.get(navigationTarget);
+      Class<? extends Component> instrumentedTarget =
+          instrumenter.apply(navigationTarget.asSubclass(Component.class));
+      if (instrumentedTarget != navigationTarget) {
+        routeUpdater.accept(route, instrumentedTarget);
+        logger.debug("Instrumented route {} on first navigation", route);
+      }
+      return instrumentedTarget;
+    }
+
+    private static void replaceRoute(String route, Class<? extends Component> navigationTarget) {
+      RouteConfiguration configuration = RouteConfiguration.forApplicationScope();
+      configuration.update(
+          () -> {
+            configuration.removeRoute(route);
+            configuration.setRoute(route, navigationTarget);
+          });
+    }
   }
 }
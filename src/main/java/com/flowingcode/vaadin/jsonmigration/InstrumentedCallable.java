@@ -0,0 +1,100 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A client callable of an instrumented class, whose invocations are reported to {@link
+ * ClientCallableMetrics}. Instances are created by the instrumented classes when they are
+ * initialized.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+public final class InstrumentedCallable {
+
+  private static final class MetricsHolder {
+    static final ClientCallableMetrics METRICS = loadMetrics();
+
+    private static ClientCallableMetrics loadMetrics() {
+      try {
+        Iterator<ClientCallableMetrics> it =
+            ServiceLoader.load(
+                    ClientCallableMetrics.class, InstrumentedCallable.class.getClassLoader())
+                .iterator();
+        if (it.hasNext()) {
+          return it.next();
+        }
+      } catch (ServiceConfigurationError e) {
+        LoggerFactory.getLogger(InstrumentedCallable.class)
+            .warn("Failed to load ClientCallableMetrics services", e);
+      }
+      return DefaultClientCallableMetrics.getInstance();
+    }
+  }
+
+  private final String className;
+
+  private final String methodName;
+
+  private InstrumentedCallable(String className, String methodName) {
+    this.className = className;
+    this.methodName = methodName;
+  }
+
+  /**
+   * Creates the callable for a method of an instrumented class. This method is called from the
+   * static initializer of the instrumented class.
+   *
+   * @param className the binary name of the class that declares the method
+   * @param methodName the name of the method
+   */
+  public static InstrumentedCallable create(String className, String methodName) {
+    return new InstrumentedCallable(className, methodName);
+  }
+
+  /** Returns the binary name of the class that declares the client callable. */
+  public String getClassName() {
+    return className;
+  }
+
+  /** Returns the name of the client callable. */
+  public String getMethodName() {
+    return methodName;
+  }
+
+  /**
+   * Reports an invocation of this callable. This method is called from the instrumented class, with
+   * the values of {@link System#nanoTime()} taken before converting the arguments, before and after
+   * invoking the method, and after converting the result.
+   */
+  public void record(long start, long beforeInvocation, long afterInvocation, long end) {
+    MetricsHolder.METRICS.record(
+        this, beforeInvocation - start, afterInvocation - beforeInvocation, end - afterInvocation);
+  }
+
+  @Override
+  public String toString() {
+    return className + "." + methodName;
+  }
+}
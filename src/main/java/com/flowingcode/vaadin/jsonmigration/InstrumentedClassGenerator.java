@@ -0,0 +1,120 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import com.vaadin.flow.component.Component;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates instrumented classes at build time. For each component class that needs
+ * instrumentation, the classes used by Vaadin 24 and Vaadin 25 are written next to the class file
+ * of the component, and {@link ClassInstrumentationUtil#instrumentClass(Class)} loads them instead
+ * of generating them at runtime. Each generated class records a digest of its parent, so that it is
+ * ignored if the parent is recompiled without generating it again.
+ *
+ * <p>This class is called reflectively by {@code json-migration-helper-maven-plugin}, from a class
+ * loader that includes the compiled classes and the compile classpath of the project.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+final class InstrumentedClassGenerator {
+
+  private static final int[] VERSIONS = {24, 25};
+
+  private InstrumentedClassGenerator() {}
+
+  /**
+   * Generates the instrumented classes of the given classes.
+   *
+   * @param outputDirectory the directory where class files are written
+   * @param classNames the binary names of the classes to instrument, which are loaded from the
+   *     class loader of this class. Classes that are not components or cannot be instrumented are
+   *     skipped.
+   * @return the binary names of the generated classes
+   * @throws IOException if a class file cannot be written
+   */
+  static List<String> generate(File outputDirectory, List<String> classNames)
+      throws IOException {
+    ClassLoader classLoader = InstrumentedClassGenerator.class.getClassLoader();
+    List<String> generated = new ArrayList<>();
+    for (String className : classNames) {
+      Class<?> type;
+      try {
+        type = Class.forName(className, false, classLoader);
+        if (!isInstrumentable(type)) {
+          continue;
+        }
+        type.getDeclaredMethods();
+      } catch (ClassNotFoundException | LinkageError e) {
+        // the class depends on something that is not in the compile classpath
+        continue;
+      }
+      String digest = null;
+      for (int version : VERSIONS) {
+        ClassInstrumentationUtil instrumentation = new ClassInstrumentationUtil(version, false);
+        boolean needsInstrumentation;
+        try {
+          needsInstrumentation = instrumentation.needsInstrumentation(type);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+          // the class has invalid callables, which are reported if it is instrumented at runtime
+          break;
+        }
+        if (needsInstrumentation) {
+          String name = instrumentation.getPregeneratedClassName(type);
+          if (digest == null) {
+            digest = InstrumentationCache.computeParentDigest(type);
+          }
+          write(outputDirectory, name, instrumentation.generateBytecode(name, type, digest));
+          generated.add(name);
+        }
+      }
+    }
+    return generated;
+  }
+
+  private static void write(File outputDirectory, String className, byte[] bytecode)
+      throws IOException {
+    Path path = outputDirectory.toPath().resolve(className.replace('.', '/') + ".class");
+    Files.createDirectories(path.getParent());
+    Files.write(path, bytecode);
+  }
+
+  private static boolean isInstrumentable(Class<?> type) {
+    int modifiers = type.getModifiers();
+    if (!Component.class.isAssignableFrom(type)
+        || type.isInterface()
+        || Modifier.isAbstract(modifiers)
+        || Modifier.isFinal(modifiers)) {
+      return false;
+    }
+    try {
+      type.getDeclaredConstructor();
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+}
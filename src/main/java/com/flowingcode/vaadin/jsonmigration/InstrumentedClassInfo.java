@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes a class that was instrumented by {@link JsonMigration#instrumentClass(Class)}.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+public final class InstrumentedClassInfo {
+
+  /** How the bytecode of an instrumented class was obtained. */
+  public enum Source {
+    /** The bytecode was generated at runtime. */
+    GENERATED,
+    /** The bytecode was read from the disk cache. */
+    DISK_CACHE,
+    /** The class was generated at build time. */
+    BUILD_TIME
+  }
+
+  private final String className;
+
+  private final String parentClassName;
+
+  private final int vaadinVersion;
+
+  private final Source source;
+
+  private final List<String> overriddenMethods;
+
+  private final int bytecodeSize;
+
+  private final long generationTimeNanos;
+
+  InstrumentedClassInfo(
+      String className,
+      String parentClassName,
+      int vaadinVersion,
+      Source source,
+      List<String> overriddenMethods,
+      int bytecodeSize,
+      long generationTimeNanos) {
+    this.className = className;
+    this.parentClassName = parentClassName;
+    this.vaadinVersion = vaadinVersion;
+    this.source = source;
+    this.overriddenMethods = Collections.unmodifiableList(overriddenMethods);
+    this.bytecodeSize = bytecodeSize;
+    this.generationTimeNanos = generationTimeNanos;
+  }
+
+  /** Returns the binary name of the instrumented class. */
+  public String getClassName() {
+    return className;
+  }
+
+  /** Returns the binary name of the class that was instrumented. */
+  public String getParentClassName() {
+    return parentClassName;
+  }
+
+  /** Returns the Vaadin major version the class was instrumented for. */
+  public int getVaadinVersion() {
+    return vaadinVersion;
+  }
+
+  /** Returns how the bytecode of the instrumented class was obtained. */
+  public Source getSource() {
+    return source;
+  }
+
+  /** Returns the signatures of the methods that are overridden by the instrumented class. */
+  public List<String> getOverriddenMethods() {
+    return overriddenMethods;
+  }
+
+  /** Returns the size of the bytecode, or -1 if the class was generated at build time. */
+  public int getBytecodeSize() {
+    return bytecodeSize;
+  }
+
+  /** Returns the time spent generating (or loading) and defining the instrumented class. */
+  public long getGenerationTimeNanos() {
+    return generationTimeNanos;
+  }
+
+  @Override
+  public String toString() {
+    return className + " (" + source + ", " + overriddenMethods.size() + " methods)";
+  }
+}
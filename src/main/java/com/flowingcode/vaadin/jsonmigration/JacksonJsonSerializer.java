@@ -0,0 +1,203 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.JsonValue;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Streaming counterpart of {@link JsonSerializer} that writes to a Jackson {@link JsonGenerator},
+ * and binds from a Jackson {@link JsonParser} or {@link JsonNode}. This class requires Jackson 3
+ * (Vaadin 25).
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class JacksonJsonSerializer {
+
+  /**
+   * Writes a Java bean, String, wrapper of primitive type, enum, collection or array to a {@link
+   * JsonGenerator}, following the same rules as {@link JsonSerializer#toJson(Object)}, without
+   * building an intermediate tree.
+   *
+   * @param bean Java object to be written
+   * @param generator the generator where the JSON tokens are written
+   */
+  public static void writeJson(Object bean, JsonGenerator generator) {
+    try {
+      JsonSerializer.writeJson(bean, new GeneratorWriter(generator));
+    } catch (IOException e) {
+      // JsonGenerator does not throw checked exceptions
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // writes an elemental value to a generator, without converting it into a Jackson tree
+  static void writeTree(JsonValue value, JsonGenerator generator) {
+    try {
+      new GeneratorWriter(generator).value(value);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Binds the next value of a {@link JsonParser} into a Java object, following the same rules as
+   * {@link JsonSerializer#toObject(Class, elemental.json.JsonValue)}, without building an
+   * intermediate tree. The parser is left positioned at the last token of the value.
+   *
+   * @param type the type of the Java object to read the json into
+   * @param parser the source of the json tokens
+   * @param <T> the resulting object type
+   * @return the deserialized object, or {@code null} if the json is {@code null}
+   */
+  public static <T> T readJson(Class<T> type, JsonParser parser) {
+    try {
+      return JsonSerializer.readObject(type, null, new JacksonParserTokenReader(parser));
+    } catch (IOException e) {
+      // JsonParser does not throw checked exceptions
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Binds a {@link JsonNode} into a Java object, following the same rules as {@link
+   * JsonSerializer#toObject(Class, elemental.json.JsonValue)}, without copying it into an elemental
+   * tree.
+   *
+   * @param type the type of the Java object to read the json into
+   * @param node the json representation of the object
+   * @param <T> the resulting object type
+   * @return the deserialized object, or {@code null} if the json is {@code null}
+   */
+  public static <T> T readJson(Class<T> type, JsonNode node) {
+    if (node == null) {
+      return null;
+    }
+    try {
+      return JsonSerializer.readObject(type, null, new JsonNodeTokenReader(node));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Binds the items of the next array of a {@link JsonParser} into Java objects, following the
+   * same rules as {@link JsonSerializer#toObjects(Class, elemental.json.JsonArray)}.
+   *
+   * @param type the type of the elements in the array
+   * @param parser the source of the json tokens
+   * @param <T> the resulting objects types
+   * @return a modifiable list of converted objects. Returns an empty list if the json is {@code
+   *     null}
+   */
+  public static <T> List<T> readJsonList(Class<T> type, JsonParser parser) {
+    try {
+      return JsonSerializer.readObjects(type, new JacksonParserTokenReader(parser));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Binds the items of an array {@link JsonNode} into Java objects, following the same rules as
+   * {@link JsonSerializer#toObjects(Class, elemental.json.JsonArray)}.
+   *
+   * @param type the type of the elements in the array
+   * @param node the json representation of the objects
+   * @param <T> the resulting objects types
+   * @return a modifiable list of converted objects. Returns an empty list if the node is {@code
+   *     null}
+   */
+  public static <T> List<T> readJsonList(Class<T> type, JsonNode node) {
+    if (node == null) {
+      return new ArrayList<>(0);
+    }
+    try {
+      return JsonSerializer.readObjects(type, new JsonNodeTokenReader(node));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @RequiredArgsConstructor
+  static final class GeneratorWriter implements JsonTokenWriter {
+
+    private final JsonGenerator generator;
+
+    @Override
+    public void beginObject() {
+      generator.writeStartObject();
+    }
+
+    @Override
+    public void name(String name) {
+      generator.writeName(name);
+    }
+
+    @Override
+    public void endObject() {
+      generator.writeEndObject();
+    }
+
+    @Override
+    public void beginArray() {
+      generator.writeStartArray();
+    }
+
+    @Override
+    public void endArray() {
+      generator.writeEndArray();
+    }
+
+    @Override
+    public void value(String value) {
+      generator.writeString(value);
+    }
+
+    @Override
+    public void value(double value) {
+      if (Double.isInfinite(value) || Double.isNaN(value)) {
+        generator.writeNull();
+      } else {
+        generator.writeNumber(JsonTokenWriter.formatNumber(value));
+      }
+    }
+
+    @Override
+    public void value(boolean value) {
+      generator.writeBoolean(value);
+    }
+
+    @Override
+    public void nullValue() {
+      generator.writeNull();
+    }
+  }
+}
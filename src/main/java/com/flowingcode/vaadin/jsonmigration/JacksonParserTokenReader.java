@@ -0,0 +1,145 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.JsonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+
+/**
+ * Adapts a Jackson {@link JsonParser} as a {@link JsonTokenReader}. The parser is advanced lazily,
+ * so that it remains positioned at the last token of the value that has been read.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+final class JacksonParserTokenReader implements JsonTokenReader {
+
+  private final JsonParser parser;
+
+  private boolean consumed;
+
+  JacksonParserTokenReader(JsonParser parser) {
+    this.parser = parser;
+    consumed = parser.currentToken() == null;
+  }
+
+  private JsonToken current() {
+    if (consumed) {
+      parser.nextToken();
+      consumed = false;
+    }
+    return parser.currentToken();
+  }
+
+  @Override
+  public Token peek() {
+    JsonToken token = current();
+    if (token == null) {
+      return Token.END_DOCUMENT;
+    }
+    switch (token) {
+      case START_OBJECT:
+        return Token.BEGIN_OBJECT;
+      case END_OBJECT:
+        return Token.END_OBJECT;
+      case START_ARRAY:
+        return Token.BEGIN_ARRAY;
+      case END_ARRAY:
+        return Token.END_ARRAY;
+      case PROPERTY_NAME:
+        return Token.NAME;
+      case VALUE_STRING:
+        return Token.STRING;
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return Token.NUMBER;
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        return Token.BOOLEAN;
+      case VALUE_NULL:
+        return Token.NULL;
+      default:
+        throw new JsonException("Unsupported token " + token);
+    }
+  }
+
+  private void expect(Token token) {
+    if (peek() != token) {
+      throw new JsonException("Expected " + token + " but was " + peek());
+    }
+    consumed = true;
+  }
+
+  @Override
+  public void beginObject() {
+    expect(Token.BEGIN_OBJECT);
+  }
+
+  @Override
+  public void endObject() {
+    expect(Token.END_OBJECT);
+  }
+
+  @Override
+  public void beginArray() {
+    expect(Token.BEGIN_ARRAY);
+  }
+
+  @Override
+  public void endArray() {
+    expect(Token.END_ARRAY);
+  }
+
+  @Override
+  public String nextName() {
+    expect(Token.NAME);
+    return parser.currentName();
+  }
+
+  @Override
+  public String nextString() {
+    expect(Token.STRING);
+    return parser.getString();
+  }
+
+  @Override
+  public double nextNumber() {
+    expect(Token.NUMBER);
+    return parser.getDoubleValue();
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    expect(Token.BOOLEAN);
+    return parser.currentToken() == JsonToken.VALUE_TRUE;
+  }
+
+  @Override
+  public void nextNull() {
+    expect(Token.NULL);
+  }
+
+  @Override
+  public void skipValue() {
+    current();
+    parser.skipChildren();
+    consumed = true;
+  }
+}
@@ -0,0 +1,161 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.Json;
+import elemental.json.JsonNull;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+import java.util.Collection;
+
+/**
+ * Converts instances of a bean or record type to and from {@link JsonObject}, with the same
+ * semantics as {@link JsonSerializer}.
+ *
+ * <p>Implementations are generated by {@link JsonMigrationCodecProcessor} for classes annotated
+ * with {@link JsonMigrationCodec}, and registered as services of this class, so that {@link
+ * JsonSerializer} uses them instead of introspection.
+ *
+ * @param <T> the type of the converted objects
+ * @author Javier Godoy / Flowing Code
+ */
+public abstract class JsonBeanCodec<T> {
+
+  private final Class<T> type;
+
+  protected JsonBeanCodec(Class<T> type) {
+    this.type = type;
+  }
+
+  /**
+   * Returns the type converted by this codec.
+   *
+   * @return the type converted by this codec
+   */
+  public final Class<T> getType() {
+    return type;
+  }
+
+  /**
+   * Converts an object to a {@link JsonObject}.
+   *
+   * @param bean the object to be converted
+   * @return the json representation of the object, or {@link JsonNull} if the object is {@code
+   *     null}
+   */
+  public final JsonValue toJson(T bean) {
+    if (bean == null) {
+      return Json.createNull();
+    }
+    JsonObject json = Json.createObject();
+    write(bean, json);
+    return json;
+  }
+
+  /**
+   * Converts a {@link JsonObject} to an object.
+   *
+   * @param json the json representation of the object
+   * @return the deserialized object, or {@code null} if the input json is {@code null}
+   */
+  public final T toObject(JsonValue json) {
+    if (json == null || json instanceof JsonNull) {
+      return null;
+    }
+    return read((JsonObject) json);
+  }
+
+  /**
+   * Puts the properties of an object into a {@link JsonObject}.
+   *
+   * @param bean the object to be converted
+   * @param json the json object where the properties are put
+   */
+  protected abstract void write(T bean, JsonObject json);
+
+  /**
+   * Creates an object from the properties of a {@link JsonObject}.
+   *
+   * @param json the json representation of the object
+   * @return the deserialized object
+   */
+  protected abstract T read(JsonObject json);
+
+  /**
+   * Converts a property value to a {@link JsonValue}, as {@link JsonSerializer#toJson(Object)}.
+   *
+   * @param value the property value
+   * @return the json representation of the value
+   */
+  protected static JsonValue serialize(Object value) {
+    return JsonSerializer.toJson(value);
+  }
+
+  /**
+   * Converts a {@link JsonValue} to a property value, as {@link JsonSerializer#toObject(Class,
+   * JsonValue)}.
+   *
+   * @param type the type of the property
+   * @param json the json representation of the value
+   * @param <V> the type of the property
+   * @return the property value
+   */
+  protected static <V> V deserialize(Class<V> type, JsonValue json) {
+    return JsonSerializer.toObject(type, null, json);
+  }
+
+  /**
+   * Converts a {@link JsonValue} to the value of a property of primitive type, as {@link
+   * JsonSerializer#toObject(Class, JsonValue)}.
+   *
+   * @param type the primitive type of the property
+   * @param name the name of the property
+   * @param json the json representation of the value
+   * @param <V> the wrapper of the primitive type
+   * @return the property value
+   * @throws IllegalArgumentException if the json value is {@code null} or {@link JsonNull}
+   */
+  protected static <V> V deserializePrimitive(Class<V> type, String name, JsonValue json) {
+    V value = deserialize(type, json);
+    if (value == null) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Cannot assign null to property '%s' of primitive type %s", name, type.getName()));
+    }
+    return value;
+  }
+
+  /**
+   * Converts a {@link JsonValue} to the value of a collection property.
+   *
+   * @param type the type of the collection
+   * @param elementType the type of the elements in the collection
+   * @param json the json representation of the collection
+   * @param <C> the type of the collection
+   * @return the collection, or {@code null} if the input json is {@code null} or not an array
+   */
+  protected static <C extends Collection<?>> C deserializeCollection(
+      Class<C> type, Class<?> elementType, JsonValue json) {
+    if (json == null || json instanceof JsonNull) {
+      return null;
+    }
+    return JsonSerializer.toCollection(type, elementType, json);
+  }
+}
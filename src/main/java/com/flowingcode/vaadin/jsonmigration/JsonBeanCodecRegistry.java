@@ -0,0 +1,122 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lookup of the {@link JsonBeanCodec} services registered in each class loader.
+ *
+ * <p>The codec of each type is held in a {@link ClassValue}, so that it does not prevent the class
+ * loader of the type from being collected.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+final class JsonBeanCodecRegistry {
+
+  private static final Logger logger = LoggerFactory.getLogger(JsonBeanCodecRegistry.class);
+
+  // The codecs and types of a class loader would keep the key reachable, so the services of each
+  // class loader are only weakly held while they are distributed to the per-type cache.
+  private static final Map<ClassLoader, WeakReference<Map<Class<?>, JsonBeanCodec<?>>>>
+      codecsByLoader = new WeakHashMap<>();
+
+  private static volatile ClassValue<Optional<JsonBeanCodec<?>>> cache = newCache();
+
+  private JsonBeanCodecRegistry() {}
+
+  private static ClassValue<Optional<JsonBeanCodec<?>>> newCache() {
+    return new ClassValue<Optional<JsonBeanCodec<?>>>() {
+      @Override
+      protected Optional<JsonBeanCodec<?>> computeValue(Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader();
+        if (classLoader == null) {
+          return Optional.empty();
+        }
+        return Optional.ofNullable(getCodecs(classLoader).get(type));
+      }
+    };
+  }
+
+  /**
+   * Returns the codec registered for the given type.
+   *
+   * @param type a bean or record class
+   * @return the codec of {@code type}, or {@code null} if no codec was registered
+   */
+  @SuppressWarnings("unchecked")
+  static <T> JsonBeanCodec<T> lookup(Class<T> type) {
+    return (JsonBeanCodec<T>) cache.get(type).orElse(null);
+  }
+
+  /** Discards the codec cached for the given type. */
+  static void invalidate(Class<?> type) {
+    cache.remove(type);
+  }
+
+  /** Discards all the cached codecs. */
+  static void invalidateAll() {
+    synchronized (codecsByLoader) {
+      codecsByLoader.clear();
+    }
+    cache = newCache();
+  }
+
+  private static Map<Class<?>, JsonBeanCodec<?>> getCodecs(ClassLoader classLoader) {
+    synchronized (codecsByLoader) {
+      WeakReference<Map<Class<?>, JsonBeanCodec<?>>> ref = codecsByLoader.get(classLoader);
+      Map<Class<?>, JsonBeanCodec<?>> codecs = ref != null ? ref.get() : null;
+      if (codecs == null) {
+        codecs = loadCodecs(classLoader);
+        codecsByLoader.put(classLoader, new WeakReference<>(codecs));
+      }
+      return codecs;
+    }
+  }
+
+  @SuppressWarnings("rawtypes")
+  private static Map<Class<?>, JsonBeanCodec<?>> loadCodecs(ClassLoader classLoader) {
+    Map<Class<?>, JsonBeanCodec<?>> codecs = new HashMap<>();
+    Iterator<JsonBeanCodec> it = ServiceLoader.load(JsonBeanCodec.class, classLoader).iterator();
+    while (true) {
+      // a provider that cannot be loaded does not prevent loading the other providers
+      try {
+        if (!it.hasNext()) {
+          break;
+        }
+        JsonBeanCodec codec = it.next();
+        codecs.putIfAbsent(codec.getType(), codec);
+      } catch (ServiceConfigurationError e) {
+        logger.warn("Failed to load a JsonBeanCodec service", e);
+      }
+    }
+    return Collections.unmodifiableMap(codecs);
+  }
+}
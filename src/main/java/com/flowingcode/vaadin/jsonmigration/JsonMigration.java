@@ -28,6 +28,9 @@ import com.vaadin.flow.server.Version;
 import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
@@ -117,54 +120,66 @@ public class JsonMigration {
     }
   }
 
+  // binds a Vaadin method, adapting it to a version-independent type
   @SneakyThrows
-  private static Object invoke(Method method, Object instance, Object... args) {
-    return helper.invoke(method, instance, args);
+  private static MethodHandle bind(Method method, MethodType type) {
+    return helper.adaptMethodHandle(MethodHandles.publicLookup().unreflect(method), type);
   }
 
-  private static Method Element_setPropertyJson = lookup_setPropertyJson();
+  private static final MethodHandle Element_setPropertyJson = lookup_setPropertyJson();
 
   @SneakyThrows
-  private static Method lookup_setPropertyJson() {
+  private static MethodHandle lookup_setPropertyJson() {
+    Method method;
     if (Version.getMajorVersion() > 24) {
-      return Element.class.getMethod("setPropertyJson", String.class, BASE_JSON_NODE);
+      method = Element.class.getMethod("setPropertyJson", String.class, BASE_JSON_NODE);
     } else {
-      return Element.class.getMethod("setPropertyJson", String.class, JsonValue.class);
+      method = Element.class.getMethod("setPropertyJson", String.class, JsonValue.class);
     }
+    return bind(
+        method, MethodType.methodType(void.class, Element.class, String.class, JsonValue.class));
   }
 
-  private static Method DomEvent_getEventData = lookup_getEventData();
+  private static final MethodHandle DomEvent_getEventData = lookup_getEventData();
 
   @SneakyThrows
-  private static Method lookup_getEventData() {
-    return DomEvent.class.getMethod("getEventData");
+  private static MethodHandle lookup_getEventData() {
+    return bind(
+        DomEvent.class.getMethod("getEventData"),
+        MethodType.methodType(JsonObject.class, DomEvent.class));
   }
 
   /**
    * Sets a JSON-valued property on a given {@code Element}, transparently handling version-specific
    * method signatures.
    *
-   * <p>This method uses reflection to call the appropriate {@code setPropertyJson} method on the
-   * {@code Element} class, which has a different signature for its JSON parameter in library
-   * versions before and after Vaadin 25.
+   * <p>This method calls the appropriate {@code setPropertyJson} method on the {@code Element}
+   * class, which has a different signature for its JSON parameter in library versions before and
+   * after Vaadin 25, through a method handle that is bound when this class is initialized.
    *
    * @param element the {@code Element} on which to set the property
    * @param name the name of the property to set
    * @param json the {@code JsonValue} to be set as the property's value
    */
+  @SneakyThrows
   public static void setPropertyJson(Element element, String name, JsonValue json) {
-    invoke(Element_setPropertyJson, element, name, json);
+    Element_setPropertyJson.invokeExact(element, name, json);
   }
 
-  private static Method Element_executeJs = lookup_executeJs();
+  private static final MethodHandle Element_executeJs = lookup_executeJs();
 
   @SneakyThrows
-  private static Method lookup_executeJs() {
+  private static MethodHandle lookup_executeJs() {
+    Method method;
     if (Version.getMajorVersion() > 24) {
-      return Element.class.getMethod("executeJs", String.class, Object[].class);
+      method = Element.class.getMethod("executeJs", String.class, Object[].class);
     } else {
-      return Element.class.getMethod("executeJs", String.class, Serializable[].class);
+      method = Element.class.getMethod("executeJs", String.class, Serializable[].class);
     }
+    return bind(
+        method,
+        MethodType.methodType(
+            PendingJavaScriptResult.class, Element.class, String.class, Serializable[].class));
   }
 
   /**
@@ -177,10 +192,11 @@ public class JsonMigration {
    * @return a pending result that can be used to get a value returned from the expression
    * @see Element#executeJs(String, Serializable...)
    */
+  @SneakyThrows
   public static ElementalPendingJavaScriptResult executeJs(
       Element element, String expression, Serializable... parameters) {
     PendingJavaScriptResult result =
-        (PendingJavaScriptResult) invoke(Element_executeJs, element, expression, parameters);
+        (PendingJavaScriptResult) Element_executeJs.invokeExact(element, expression, parameters);
     return helper.convertPendingJavaScriptResult(result);
   }
 
@@ -191,8 +207,9 @@ public class JsonMigration {
    * @return a JSON object containing event data, never <code>null</code>
    * @see DomEvent#getEventData()
    */
+  @SneakyThrows
   public static JsonObject getEventData(DomEvent event) {
-    return (JsonObject) convertToJsonValue(invoke(DomEvent_getEventData, event));
+    return (JsonObject) DomEvent_getEventData.invokeExact(event);
   }
 
   /**
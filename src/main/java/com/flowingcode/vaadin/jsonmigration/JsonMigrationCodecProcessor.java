@@ -0,0 +1,479 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import java.beans.Introspector;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that generates a {@link JsonBeanCodec} for each class annotated with {@link
+ * JsonMigrationCodec}, and registers the generated codecs in {@code
+ * META-INF/services/com.flowingcode.vaadin.jsonmigration.JsonBeanCodec}.
+ *
+ * <p>Bean properties are discovered following the same conventions as {@link Introspector}: public
+ * {@code getX}/{@code isX} methods without parameters, and public {@code setX} methods with one
+ * parameter and returning {@code void}. Records are converted through their components and
+ * canonical constructor.
+ *
+ * <p>Since this processor is registered as a service, it runs in every compilation that has this
+ * library in the classpath. It therefore avoids the APIs introduced after Java 8 (such as {@code
+ * ElementKind.RECORD} and {@code RecordComponentElement}).
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+@SupportedAnnotationTypes("com.flowingcode.vaadin.jsonmigration.JsonMigrationCodec")
+public class JsonMigrationCodecProcessor extends AbstractProcessor {
+
+  private static final String SERVICE_FILE =
+      "META-INF/services/com.flowingcode.vaadin.jsonmigration.JsonBeanCodec";
+
+  private static final String CODEC_SUFFIX = "_JsonCodec";
+
+  private final Set<String> codecs = new TreeSet<>();
+
+  private Elements elements;
+
+  private Types types;
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public synchronized void init(ProcessingEnvironment processingEnv) {
+    super.init(processingEnv);
+    elements = processingEnv.getElementUtils();
+    types = processingEnv.getTypeUtils();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      if (!codecs.isEmpty()) {
+        writeServiceFile();
+      }
+      return false;
+    }
+
+    for (Element element : roundEnv.getElementsAnnotatedWith(JsonMigrationCodec.class)) {
+      try {
+        codecs.add(generateCodec((TypeElement) element));
+      } catch (CodecGenerationException e) {
+        processingEnv.getMessager().printMessage(Kind.ERROR, e.getMessage(), e.getElement());
+      } catch (IOException e) {
+        processingEnv
+            .getMessager()
+            .printMessage(Kind.ERROR, "Could not write JSON codec: " + e.getMessage(), element);
+      }
+    }
+    return true;
+  }
+
+  private static final class CodecGenerationException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Element element;
+
+    CodecGenerationException(String message, Element element) {
+      super(message);
+      this.element = element;
+    }
+
+    Element getElement() {
+      return element;
+    }
+  }
+
+  private static final class PropertyInfo {
+    String name;
+    ExecutableElement reader;
+    ExecutableElement writer;
+    TypeMirror type;
+  }
+
+  private String generateCodec(TypeElement type) throws CodecGenerationException, IOException {
+    validate(type);
+
+    String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+    String beanName = types.erasure(type.asType()).toString();
+    String codecSimpleName = getFlatName(type) + CODEC_SUFFIX;
+    String codecName =
+        packageName.isEmpty() ? codecSimpleName : packageName + "." + codecSimpleName;
+
+    StringBuilder sb = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      sb.append("package ").append(packageName).append(";\n\n");
+    }
+    if (elements.getTypeElement("javax.annotation.processing.Generated") != null) {
+      sb.append("@javax.annotation.processing.Generated(\"")
+          .append(JsonMigrationCodecProcessor.class.getName())
+          .append("\")\n");
+    }
+    sb.append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n");
+    sb.append("public final class ")
+        .append(codecSimpleName)
+        .append("\n    extends com.flowingcode.vaadin.jsonmigration.JsonBeanCodec<")
+        .append(beanName)
+        .append("> {\n\n");
+    sb.append("  public ").append(codecSimpleName).append("() {\n");
+    sb.append("    super(").append(beanName).append(".class);\n");
+    sb.append("  }\n\n");
+
+    if (isRecord(type)) {
+      generateRecordMethods(sb, type, beanName);
+    } else {
+      generateBeanMethods(sb, type, beanName);
+    }
+    sb.append("}\n");
+
+    try (Writer writer = processingEnv.getFiler().createSourceFile(codecName, type).openWriter()) {
+      writer.write(sb.toString());
+    }
+    return codecName;
+  }
+
+  private void validate(TypeElement type) throws CodecGenerationException {
+    if (type.getKind() != ElementKind.CLASS && !isRecord(type)) {
+      throw new CodecGenerationException(
+          "@JsonMigrationCodec can only be applied to classes and records", type);
+    }
+    if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+      throw new CodecGenerationException(
+          "@JsonMigrationCodec cannot be applied to abstract classes", type);
+    }
+
+    for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+      if (!e.getModifiers().contains(Modifier.PUBLIC)) {
+        throw new CodecGenerationException(
+            "@JsonMigrationCodec requires " + e + " to be public", type);
+      }
+      if (e.getEnclosingElement() instanceof TypeElement
+          && !e.getModifiers().contains(Modifier.STATIC)) {
+        throw new CodecGenerationException(
+            "@JsonMigrationCodec requires " + e + " to be static", type);
+      }
+    }
+
+    if (type.getKind() == ElementKind.CLASS
+        && ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+            .noneMatch(
+                c -> c.getModifiers().contains(Modifier.PUBLIC) && c.getParameters().isEmpty())) {
+      throw new CodecGenerationException(
+          "@JsonMigrationCodec requires a public constructor without parameters", type);
+    }
+  }
+
+  // ElementKind.RECORD is not available before Java 16
+  private static boolean isRecord(TypeElement type) {
+    return type.getKind().name().equals("RECORD");
+  }
+
+  // the record components, in declaration order (RecordComponentElement is not available before
+  // Java 16, but each component has a private instance field with the same name and type)
+  private static List<VariableElement> getRecordComponents(TypeElement type) {
+    List<VariableElement> components = new ArrayList<>();
+    for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+      if (!field.getModifiers().contains(Modifier.STATIC)) {
+        components.add(field);
+      }
+    }
+    return components;
+  }
+
+  private static String getFlatName(TypeElement type) {
+    String name = type.getSimpleName().toString();
+    for (Element e = type.getEnclosingElement();
+        e instanceof TypeElement;
+        e = e.getEnclosingElement()) {
+      name = e.getSimpleName() + "_" + name;
+    }
+    return name;
+  }
+
+  private void generateRecordMethods(StringBuilder sb, TypeElement type, String beanName)
+      throws CodecGenerationException {
+    List<VariableElement> components = getRecordComponents(type);
+
+    sb.append("  @Override\n");
+    sb.append("  protected void write(")
+        .append(beanName)
+        .append(" bean, elemental.json.JsonObject json) {\n");
+    for (VariableElement component : components) {
+      String name = component.getSimpleName().toString();
+      appendPut(sb, name, component.asType(), "bean." + name + "()");
+    }
+    sb.append("  }\n\n");
+
+    sb.append("  @Override\n");
+    sb.append("  protected ")
+        .append(beanName)
+        .append(" read(elemental.json.JsonObject json) {\n");
+    sb.append("    return new ").append(beanName).append("(");
+    for (int i = 0; i < components.size(); i++) {
+      VariableElement component = components.get(i);
+      String name = component.getSimpleName().toString();
+      sb.append(i == 0 ? "\n        " : ",\n        ");
+      sb.append(
+          getReadExpression(component.asType(), name, "json.get(\"" + name + "\")", component));
+    }
+    sb.append(");\n");
+    sb.append("  }\n");
+  }
+
+  private void generateBeanMethods(StringBuilder sb, TypeElement type, String beanName)
+      throws CodecGenerationException {
+    Map<String, PropertyInfo> properties = getBeanProperties(type);
+
+    sb.append("  @Override\n");
+    sb.append("  protected void write(")
+        .append(beanName)
+        .append(" bean, elemental.json.JsonObject json) {\n");
+    for (PropertyInfo property : properties.values()) {
+      if (property.reader != null) {
+        String getter = "bean." + property.reader.getSimpleName() + "()";
+        appendPut(sb, property.name, property.type, getter);
+      }
+    }
+    sb.append("  }\n\n");
+
+    sb.append("  @Override\n");
+    sb.append("  protected ")
+        .append(beanName)
+        .append(" read(elemental.json.JsonObject json) {\n");
+    sb.append("    ")
+        .append(beanName)
+        .append(" bean = new ")
+        .append(beanName)
+        .append("();\n");
+    for (PropertyInfo property : properties.values()) {
+      if (property.writer != null) {
+        String key = "\"" + property.name + "\"";
+        sb.append("    if (json.hasKey(").append(key).append(")) {\n");
+        sb.append("      bean.")
+            .append(property.writer.getSimpleName())
+            .append("(")
+            .append(
+                getReadExpression(
+                    property.type, property.name, "json.get(" + key + ")", property.writer))
+            .append(");\n");
+        sb.append("    }\n");
+      }
+    }
+    sb.append("    return bean;\n");
+    sb.append("  }\n");
+  }
+
+  private Map<String, PropertyInfo> getBeanProperties(TypeElement type) {
+    DeclaredType declaredType = (DeclaredType) type.asType();
+    Map<String, ExecutableElement> getters = new TreeMap<>();
+    Map<String, ExecutableElement> isGetters = new TreeMap<>();
+    Map<String, List<ExecutableElement>> setters = new TreeMap<>();
+
+    for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+      Set<Modifier> modifiers = method.getModifiers();
+      if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)) {
+        continue;
+      }
+      if (((TypeElement) method.getEnclosingElement())
+          .getQualifiedName()
+          .contentEquals(Object.class.getName())) {
+        continue;
+      }
+
+      String name = method.getSimpleName().toString();
+      int parameterCount = method.getParameters().size();
+      TypeKind returnKind = method.getReturnType().getKind();
+      if (parameterCount == 0 && name.length() > 3 && name.startsWith("get")) {
+        if (returnKind != TypeKind.VOID) {
+          getters.put(Introspector.decapitalize(name.substring(3)), method);
+        }
+      } else if (parameterCount == 0 && name.length() > 2 && name.startsWith("is")) {
+        if (returnKind == TypeKind.BOOLEAN) {
+          isGetters.put(Introspector.decapitalize(name.substring(2)), method);
+        }
+      } else if (parameterCount == 1 && name.length() > 3 && name.startsWith("set")) {
+        if (returnKind == TypeKind.VOID) {
+          setters
+              .computeIfAbsent(Introspector.decapitalize(name.substring(3)), k -> new ArrayList<>())
+              .add(method);
+        }
+      }
+    }
+    getters.putAll(isGetters);
+
+    Map<String, PropertyInfo> properties = new TreeMap<>();
+    for (Map.Entry<String, ExecutableElement> entry : getters.entrySet()) {
+      PropertyInfo property = new PropertyInfo();
+      property.name = entry.getKey();
+      property.reader = entry.getValue();
+      property.type = asMemberOf(declaredType, property.reader).getReturnType();
+      for (ExecutableElement setter :
+          setters.getOrDefault(property.name, Collections.emptyList())) {
+        TypeMirror parameterType = asMemberOf(declaredType, setter).getParameterTypes().get(0);
+        if (types.isSameType(parameterType, property.type)) {
+          property.writer = setter;
+        }
+      }
+      properties.put(property.name, property);
+    }
+
+    for (Map.Entry<String, List<ExecutableElement>> entry : setters.entrySet()) {
+      if (!properties.containsKey(entry.getKey()) && entry.getValue().size() == 1) {
+        PropertyInfo property = new PropertyInfo();
+        property.name = entry.getKey();
+        property.writer = entry.getValue().get(0);
+        property.type = asMemberOf(declaredType, property.writer).getParameterTypes().get(0);
+        properties.put(property.name, property);
+      }
+    }
+    return properties;
+  }
+
+  private ExecutableType asMemberOf(DeclaredType declaredType, ExecutableElement method) {
+    return (ExecutableType) types.asMemberOf(declaredType, method);
+  }
+
+  private static void appendPut(StringBuilder sb, String name, TypeMirror type, String getter) {
+    sb.append("    json.put(\"").append(name).append("\", ");
+    switch (type.getKind()) {
+      case BOOLEAN:
+        sb.append("elemental.json.Json.create(").append(getter).append(")");
+        break;
+      case CHAR:
+        sb.append("elemental.json.Json.create(java.lang.Character.toString(")
+            .append(getter)
+            .append("))");
+        break;
+      case BYTE:
+      case SHORT:
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+        sb.append("elemental.json.Json.create((double) ").append(getter).append(")");
+        break;
+      default:
+        sb.append("serialize(").append(getter).append(")");
+    }
+    sb.append(");\n");
+  }
+
+  private String getReadExpression(TypeMirror type, String name, String json, Element element)
+      throws CodecGenerationException {
+    if (type.getKind().isPrimitive()) {
+      return "deserializePrimitive(" + type + ".class, \"" + name + "\", " + json + ")";
+    }
+
+    TypeMirror erasure = types.erasure(type);
+    TypeMirror collection = types.erasure(elements.getTypeElement("java.util.Collection").asType());
+    if (!types.isAssignable(erasure, collection)) {
+      return "deserialize(" + erasure + ".class, " + json + ")";
+    }
+
+    List<? extends TypeMirror> typeArguments =
+        type.getKind() == TypeKind.DECLARED
+            ? ((DeclaredType) type).getTypeArguments()
+            : Collections.emptyList();
+    if (typeArguments.isEmpty()
+        || typeArguments.get(0).getKind() != TypeKind.DECLARED
+        || !((DeclaredType) typeArguments.get(0)).getTypeArguments().isEmpty()) {
+      throw new CodecGenerationException(
+          "Could not infer the element type of the collection " + type, element);
+    }
+    return "deserializeCollection("
+        + erasure
+        + ".class, "
+        + typeArguments.get(0)
+        + ".class, "
+        + json
+        + ")";
+  }
+
+  private void writeServiceFile() {
+    Set<String> services = new TreeSet<>(codecs);
+    try {
+      FileObject existing =
+          processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+      try (BufferedReader reader =
+          new BufferedReader(
+              new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          line = line.trim();
+          if (!line.isEmpty() && !line.startsWith("#")) {
+            services.add(line);
+          }
+        }
+      }
+    } catch (IOException e) {
+      // there is no service file from a previous compilation
+    }
+
+    try {
+      FileObject file =
+          processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+      try (PrintWriter writer =
+          new PrintWriter(
+              new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8))) {
+        services.forEach(writer::println);
+      }
+    } catch (IOException e) {
+      processingEnv
+          .getMessager()
+          .printMessage(Kind.ERROR, "Could not write " + SERVICE_FILE + ": " + e.getMessage());
+    }
+  }
+}
@@ -22,7 +22,8 @@ package com.flowingcode.vaadin.jsonmigration;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.page.PendingJavaScriptResult;
 import elemental.json.JsonValue;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 
 interface JsonMigrationHelper {
 
@@ -30,7 +31,11 @@ interface JsonMigrationHelper {
 
   <T extends JsonValue> T convertToClientCallableResult(T object);
 
-  Object invoke(Method method, Object instance, Object... args);
+  /**
+   * Adapts a handle to a Vaadin method whose signature depends on the Vaadin version, so that it
+   * can be invoked with the given elemental-based type.
+   */
+  MethodHandle adaptMethodHandle(MethodHandle handle, MethodType type);
 
   ElementalPendingJavaScriptResult convertPendingJavaScriptResult(PendingJavaScriptResult result);
 
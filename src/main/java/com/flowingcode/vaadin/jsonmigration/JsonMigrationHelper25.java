@@ -25,10 +25,16 @@ import com.vaadin.flow.function.SerializableConsumer;
 import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import elemental.json.JsonValue;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
-import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
@@ -44,6 +50,14 @@ class JsonMigrationHelper25 implements JsonMigrationHelper {
 
   private static final ClassInstrumentationUtil instrumentation = new ClassInstrumentationUtil(25);
 
+  // whether values received from the client are adapted as views, instead of being copied
+  static final boolean LAZY_JSON_VALUE =
+      Boolean.parseBoolean(System.getProperty("jsonmigration.jsonvalue.lazy", "true"));
+
+  // whether values returned to the client are adapted as views, instead of being copied
+  static final boolean LAZY_JSON_NODE =
+      Boolean.parseBoolean(System.getProperty("jsonmigration.jsonnode.lazy", "false"));
+
   @Override
   public <T extends Component> Class<? extends T> instrumentClass(Class<T> clazz) {
     return instrumentation.instrumentClass(clazz);
@@ -88,38 +102,69 @@ class JsonMigrationHelper25 implements JsonMigrationHelper {
     }
   }
 
-  @Override
+  private static final MethodHandle TO_JSON_NODE =
+      lookupStatic("toJsonNode", BaseJsonNode.class, JsonValue.class);
+
+  private static final MethodHandle TO_JSON_VALUE =
+      lookupStatic("toJsonValue", JsonValue.class, JsonNode.class);
+
+  private static final MethodHandle CONVERT_ARGUMENTS =
+      lookupStatic("convertArguments", Object[].class, Object[].class);
+
   @SneakyThrows
-  public Object invoke(Method method, Object instance, Object... args) {
-    Object[] convertedArgs = null;
-
-    int j = args.length - 1;
-    Class<?> parameterTypes[] = method.getParameterTypes();
-    if (args.length == parameterTypes.length) {
-      if (method.isVarArgs() && args[j] instanceof Object[]) {
-        Object[] convertedArray =
-            convertArray((Object[]) args[j], parameterTypes[j].getComponentType());
-        if (convertedArray != null) {
-          convertedArgs = Arrays.copyOf(args, args.length);
-          convertedArgs[j] = convertedArray;
-        }
-      }
+  private static MethodHandle lookupStatic(String name, Class<?> rtype, Class<?> ptype) {
+    return MethodHandles.lookup()
+        .findStatic(JsonMigrationHelper25.class, name, MethodType.methodType(rtype, ptype));
+  }
 
-      for (int i = 0; i < parameterTypes.length; i++) {
-        if (args[i] instanceof JsonValue && parameterTypes[i] == BaseJsonNode.class) {
+  @Override
+  public MethodHandle adaptMethodHandle(MethodHandle handle, MethodType type) {
+    boolean varargs = handle.isVarargsCollector();
+    handle = handle.asFixedArity();
 
-          if (convertedArgs == null) {
-            convertedArgs = Arrays.copyOf(args, args.length);
-          }
-          convertedArgs[i] = convertToJsonNode((JsonValue) args[i]);
-        }
+    MethodType handleType = handle.type();
+    int last = handleType.parameterCount() - 1;
+    for (int i = 0; i <= last; i++) {
+      Class<?> parameterType = handleType.parameterType(i);
+      if (parameterType == BaseJsonNode.class) {
+        handle = MethodHandles.filterArguments(handle, i, TO_JSON_NODE);
+      } else if (varargs && i == last && parameterType == Object[].class) {
+        handle = MethodHandles.filterArguments(handle, i, CONVERT_ARGUMENTS);
       }
     }
 
-    if (convertedArgs == null) {
-      convertedArgs = args;
+    Class<?> returnType = handleType.returnType();
+    if (JsonNode.class.isAssignableFrom(returnType)) {
+      MethodHandle filter =
+          TO_JSON_VALUE.asType(MethodType.methodType(JsonValue.class, returnType));
+      handle = MethodHandles.filterReturnValue(handle, filter);
+    }
+
+    return handle.asType(type);
+  }
+
+  private static BaseJsonNode toJsonNode(JsonValue value) {
+    if (value == null || value instanceof BaseJsonNode) {
+      return (BaseJsonNode) value;
+    } else {
+      return convertToJsonNode(value);
+    }
+  }
+
+  private static JsonValue toJsonValue(JsonNode node) {
+    if (node == null || node instanceof JsonValue) {
+      return (JsonValue) node;
+    } else {
+      return convertToJsonValue(node);
     }
-    return method.invoke(instance, convertedArgs);
+  }
+
+  private static Object[] convertArguments(Object[] args) {
+    if (args == null) {
+      return null;
+    }
+    Object[] convertedArgs = convertArray(args, Object.class);
+    return convertedArgs != null ? convertedArgs : args;
   }
 
   private static <T> T[] convertArray(Object[] array, Class<? extends T> newType) {
@@ -139,7 +184,7 @@ class JsonMigrationHelper25 implements JsonMigrationHelper {
             convertedArray = copy;
           }
           @SuppressWarnings("unchecked")
-          T t = (T) convertToJsonNode((JsonValue) array[i]);
+          T t = (T) toJsonNode((JsonValue) array[i]);
           convertedArray[i] = t;
         } else if (convertedArray != null) {
           convertedArray[i] = newType.cast(array[i]);
@@ -149,21 +194,119 @@ class JsonMigrationHelper25 implements JsonMigrationHelper {
     return convertedArray;
   }
 
-  private static JsonValue convertToJsonValue(JsonNode jsonNode) {
+  /**
+   * Converts a Jackson node into an elemental value. Unless disabled through the {@code
+   * jsonmigration.jsonvalue.lazy} system property, objects and arrays are returned as views that
+   * convert their children on first access.
+   */
+  static JsonValue convertToJsonValue(JsonNode jsonNode) {
+    return LAZY_JSON_VALUE ? toJsonValueView(jsonNode) : copyToJsonValue(jsonNode);
+  }
+
+  /** Adapts a Jackson object or array as an elemental view. Other values are copied. */
+  static JsonValue toJsonValueView(JsonNode jsonNode) {
     switch (jsonNode.getNodeType()) {
       case OBJECT:
-        JsonObject jsonObject = Json.createObject();
-        ObjectNode source = (ObjectNode) jsonNode;
-        for (String key : source.propertyNames()) {
-          jsonObject.put(key, convertToJsonValue(source.get(key)));
-        }
-        return jsonObject;
+        return new JsonNodeObjectView((ObjectNode) jsonNode);
       case ARRAY:
-        JsonArray jsonArray = Json.createArray();
-        for (int i = 0; i < jsonNode.size(); i++) {
-          jsonArray.set(i, convertToJsonValue(jsonNode.get(i)));
-        }
-        return jsonArray;
+        return new JsonNodeArrayView((ArrayNode) jsonNode);
+      default:
+        return copyToJsonValue(jsonNode);
+    }
+  }
+
+  /** Position within the children of a Jackson object or array. */
+  private static final class JsonNodeCursor {
+
+    private final Iterator<Map.Entry<String, JsonNode>> properties;
+
+    private final JsonNode array;
+
+    private int index;
+
+    private String name;
+
+    final JsonValue target;
+
+    JsonNodeCursor(JsonNode container, JsonValue target) {
+      this.target = target;
+      if (container.isObject()) {
+        properties = container.properties().iterator();
+        array = null;
+      } else {
+        properties = null;
+        array = container;
+      }
+    }
+
+    boolean hasNext() {
+      return properties != null ? properties.hasNext() : index < array.size();
+    }
+
+    JsonNode next() {
+      if (properties != null) {
+        Map.Entry<String, JsonNode> entry = properties.next();
+        name = entry.getKey();
+        return entry.getValue();
+      } else {
+        return array.get(index++);
+      }
+    }
+  }
+
+  /**
+   * Converts a Jackson node into an elemental value, including all its descendants. The tree is
+   * traversed with an explicit stack, whose depth is limited by {@link NestingDepth}.
+   */
+  static JsonValue copyToJsonValue(JsonNode jsonNode) {
+    // only record conversions of containers, since views convert their children one by one
+    Object event =
+        jsonNode.isObject() || jsonNode.isArray() ? FlightRecorderEvents.beginConversion() : null;
+    int nodeCount = 1;
+    int depth = 0;
+
+    JsonValue root = createJsonValue(jsonNode);
+    Deque<JsonNodeCursor> stack = new ArrayDeque<>();
+    pushCursor(stack, jsonNode, root);
+    while (!stack.isEmpty()) {
+      depth = Math.max(depth, stack.size());
+      JsonNodeCursor cursor = stack.peek();
+      if (!cursor.hasNext()) {
+        stack.pop();
+        continue;
+      }
+      JsonNode child = cursor.next();
+      JsonValue value = createJsonValue(child);
+      nodeCount++;
+      if (cursor.properties != null) {
+        ((JsonObject) cursor.target).put(cursor.name, value);
+      } else {
+        ((JsonArray) cursor.target).set(cursor.index - 1, value);
+      }
+      pushCursor(stack, child, value);
+    }
+
+    FlightRecorderEvents.endConversion(event, false, nodeCount, depth);
+    return root;
+  }
+
+  private static void pushCursor(Deque<JsonNodeCursor> stack, JsonNode node, JsonValue value) {
+    // empty containers count towards the depth, as they do in the other conversions
+    if (node.isObject() || node.isArray()) {
+      NestingDepth.check(stack.size() + 1);
+      if (node.size() > 0) {
+        stack.push(new JsonNodeCursor(node, value));
+      }
+    }
+  }
+
+  // creates an elemental value, without the children of objects and arrays
+  private static JsonValue createJsonValue(JsonNode jsonNode) {
+    switch (jsonNode.getNodeType()) {
+      case OBJECT:
+        return Json.createObject();
+      case ARRAY:
+        return Json.createArray();
       case STRING:
         return Json.create(jsonNode.asText());
       case NUMBER:
@@ -177,25 +320,88 @@ class JsonMigrationHelper25 implements JsonMigrationHelper {
     }
   }
 
+  /** Replaces a view created by {@link #convertToJsonValue(JsonNode)} with an elemental copy. */
+  static JsonValue materialize(JsonValue jsonValue) {
+    if (jsonValue instanceof JsonNodeObjectView) {
+      return ((JsonNodeObjectView) jsonValue).materialize();
+    } else if (jsonValue instanceof JsonNodeArrayView) {
+      return ((JsonNodeArrayView) jsonValue).materialize();
+    } else {
+      return jsonValue;
+    }
+  }
+
   private static final JsonNodeFactory nodeFactory = JsonNodeFactory.instance;
 
+  /**
+   * Converts an elemental value into a Jackson node, including all its descendants. The tree is
+   * traversed with an explicit stack, whose depth is limited by {@link NestingDepth}.
+   */
   static BaseJsonNode convertToJsonNode(JsonValue jsonValue) {
+    // only record conversions of containers, since lazy nodes convert their children one by one
+    JsonType type = jsonValue.getType();
+    Object event =
+        type == JsonType.OBJECT || type == JsonType.ARRAY
+            ? FlightRecorderEvents.beginConversion()
+            : null;
+    int nodeCount = 1;
+    int depth = 0;
+
+    BaseJsonNode root = createJsonNode(jsonValue);
+    Deque<JsonValueCursor<BaseJsonNode>> stack = new ArrayDeque<>();
+    pushCursor(stack, jsonValue, root);
+    while (!stack.isEmpty()) {
+      depth = Math.max(depth, stack.size());
+      JsonValueCursor<BaseJsonNode> cursor = stack.peek();
+      if (!cursor.hasNext()) {
+        stack.pop();
+        continue;
+      }
+      JsonValue child = cursor.next();
+      BaseJsonNode node = createJsonNode(child);
+      nodeCount++;
+      if (cursor.isObject()) {
+        ((ObjectNode) cursor.target).set(cursor.name(), node);
+      } else {
+        ((ArrayNode) cursor.target).add(node);
+      }
+      pushCursor(stack, child, node);
+    }
+
+    FlightRecorderEvents.endConversion(event, true, nodeCount, depth);
+    return root;
+  }
+
+  private static void pushCursor(
+      Deque<JsonValueCursor<BaseJsonNode>> stack, JsonValue value, BaseJsonNode node) {
+    // the node is empty unless it was copied from a view, and then it is already complete
+    if ((node instanceof ObjectNode || node instanceof ArrayNode) && node.size() == 0) {
+      NestingDepth.check(stack.size() + 1);
+      stack.push(new JsonValueCursor<>(value, node));
+    }
+  }
+
+  // creates a Jackson node, without the children of objects and arrays
+  private static BaseJsonNode createJsonNode(JsonValue jsonValue) {
     switch (jsonValue.getType()) {
       case OBJECT:
-        JsonObject jsonObject = (JsonObject) jsonValue;
-        ObjectNode objectNode = nodeFactory.objectNode();
-        for (String key : jsonObject.keys()) {
-          objectNode.set(key, convertToJsonNode(jsonObject.get(key)));
+        if (jsonValue instanceof JsonNodeObjectView) {
+          // a view that has not been modified is copied from the node that it wraps
+          ObjectNode node = ((JsonNodeObjectView) jsonValue).getNode();
+          if (node != null) {
+            return node.deepCopy();
+          }
         }
-        return objectNode;
+        return nodeFactory.objectNode();
 
       case ARRAY:
-        JsonArray jsonArray = (JsonArray) jsonValue;
-        ArrayNode arrayNode = nodeFactory.arrayNode(jsonArray.length());
-        for (int i = 0; i < jsonArray.length(); i++) {
-          arrayNode.add(convertToJsonNode(jsonArray.get(i)));
+        if (jsonValue instanceof JsonNodeArrayView) {
+          ArrayNode node = ((JsonNodeArrayView) jsonValue).getNode();
+          if (node != null) {
+            return node.deepCopy();
+          }
         }
-        return arrayNode;
+        return nodeFactory.arrayNode(((JsonArray) jsonValue).length());
 
       case STRING:
         return nodeFactory.textNode(jsonValue.asString());
@@ -229,12 +435,20 @@ class JsonMigrationHelper25 implements JsonMigrationHelper {
     @SuppressWarnings("rawtypes")
     private static SerializableConsumer wrap(SerializableConsumer<JsonValue> resultHandler) {
       return (SerializableConsumer<JsonNode>)
-          node -> resultHandler.accept(convertToJsonValue(node));
+          node -> {
+            Object event = FlightRecorderEvents.beginDecode();
+            JsonValue value = convertToJsonValue(node);
+            FlightRecorderEvents.endDecode(event, null);
+            resultHandler.accept(value);
+          };
     }
     ;
 
     private static <T> T decodeAs(JsonNode node, Class<T> type) {
-      return JsonCodec.decodeAs(convertToJsonValue(node), type);
+      Object event = FlightRecorderEvents.beginDecode();
+      T value = JsonCodec.decodeAs(convertToJsonValue(node), type);
+      FlightRecorderEvents.endDecode(event, type);
+      return value;
     }
 
     @Override
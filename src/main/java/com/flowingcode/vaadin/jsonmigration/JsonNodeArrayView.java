@@ -0,0 +1,217 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonBoolean;
+import elemental.json.JsonNumber;
+import elemental.json.JsonObject;
+import elemental.json.JsonString;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+import elemental.json.impl.JreJsonArray;
+import elemental.json.impl.JreJsonValue;
+import tools.jackson.databind.node.ArrayNode;
+
+/**
+ * A {@link JsonArray} backed by a Jackson {@link ArrayNode}. Items are converted on first access,
+ * and the node is copied into an elemental array the first time the view is modified, so that the
+ * wrapped node is never changed. Operations on the whole value (such as {@link #toJson()}) are
+ * performed on a materialized elemental copy.
+ *
+ * <p>The view extends the elemental implementation class, so that it can be put into other
+ * elemental values, and compared through {@link #jsEquals(JsonValue)} in either direction.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+@SuppressWarnings("serial")
+final class JsonNodeArrayView extends JreJsonArray {
+
+  private final ArrayNode node;
+
+  // items that have been converted, or null if none has been accessed yet
+  private JsonValue[] children;
+
+  // the elemental copy that replaces the node after a modification
+  private JsonArray delegate;
+
+  JsonNodeArrayView(ArrayNode node) {
+    super(Json.instance());
+    this.node = node;
+  }
+
+  /**
+   * Returns the wrapped node, or {@code null} if the view has been modified or any of its
+   * items has been accessed (since nested views might have been modified).
+   */
+  ArrayNode getNode() {
+    return delegate == null && children == null ? node : null;
+  }
+
+  @Override
+  public JsonValue get(int index) {
+    if (delegate != null) {
+      return delegate.get(index);
+    }
+    int length = node.size();
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + length);
+    }
+    if (children == null) {
+      children = new JsonValue[length];
+    }
+    JsonValue value = children[index];
+    if (value == null) {
+      value = JsonMigrationHelper25.convertToJsonValue(node.get(index));
+      children[index] = value;
+    }
+    return value;
+  }
+
+  @Override
+  public JsonArray getArray(int index) {
+    return (JsonArray) get(index);
+  }
+
+  @Override
+  public boolean getBoolean(int index) {
+    return ((JsonBoolean) get(index)).getBoolean();
+  }
+
+  @Override
+  public double getNumber(int index) {
+    return ((JsonNumber) get(index)).getNumber();
+  }
+
+  @Override
+  public JsonObject getObject(int index) {
+    return (JsonObject) get(index);
+  }
+
+  @Override
+  public String getString(int index) {
+    return ((JsonString) get(index)).getString();
+  }
+
+  @Override
+  public int length() {
+    return delegate != null ? delegate.length() : node.size();
+  }
+
+  @Override
+  public void remove(int index) {
+    modify().remove(index);
+  }
+
+  @Override
+  public void set(int index, JsonValue value) {
+    modify().set(index, value);
+  }
+
+  @Override
+  public void set(int index, String string) {
+    modify().set(index, string);
+  }
+
+  @Override
+  public void set(int index, double number) {
+    modify().set(index, number);
+  }
+
+  @Override
+  public void set(int index, boolean bool) {
+    modify().set(index, bool);
+  }
+
+  @Override
+  public JsonType getType() {
+    return JsonType.ARRAY;
+  }
+
+  @Override
+  public boolean asBoolean() {
+    return materialize().asBoolean();
+  }
+
+  @Override
+  public double asNumber() {
+    return materialize().asNumber();
+  }
+
+  @Override
+  public String asString() {
+    return materialize().asString();
+  }
+
+  @Override
+  public String toJson() {
+    return materialize().toJson();
+  }
+
+  @Override
+  public boolean jsEquals(JsonValue value) {
+    return value == this || materialize().jsEquals(value);
+  }
+
+  // compared by the jsEquals method of the elemental implementation classes
+  @Override
+  public Object getObject() {
+    return ((JreJsonValue) materialize()).getObject();
+  }
+
+  @Override
+  public Object toNative() {
+    return materialize().toNative();
+  }
+
+  @Override
+  public String toString() {
+    return toJson();
+  }
+
+  private JsonArray modify() {
+    if (delegate == null) {
+      JsonArray array = Json.createArray();
+      for (int i = 0, n = node.size(); i < n; i++) {
+        array.set(i, get(i));
+      }
+      delegate = array;
+      children = null;
+    }
+    return delegate;
+  }
+
+  /** Returns an elemental copy of this array, where nested views are also copied. */
+  JsonArray materialize() {
+    if (getNode() != null) {
+      return (JsonArray) JsonMigrationHelper25.copyToJsonValue(node);
+    }
+    JsonArray array = Json.createArray();
+    for (int i = 0, n = length(); i < n; i++) {
+      array.set(i, JsonMigrationHelper25.materialize(get(i)));
+    }
+    return array;
+  }
+
+  private Object writeReplace() {
+    return materialize();
+  }
+}
@@ -0,0 +1,225 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonBoolean;
+import elemental.json.JsonNumber;
+import elemental.json.JsonObject;
+import elemental.json.JsonString;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+import elemental.json.impl.JreJsonObject;
+import elemental.json.impl.JreJsonValue;
+import java.util.HashMap;
+import java.util.Map;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * A {@link JsonObject} backed by a Jackson {@link ObjectNode}. Properties are converted on first
+ * access, and the node is copied into an elemental object the first time the view is modified, so
+ * that the wrapped node is never changed. Operations on the whole value (such as {@link #toJson()})
+ * are performed on a materialized elemental copy.
+ *
+ * <p>The view extends the elemental implementation class, so that it can be put into other
+ * elemental values, and compared through {@link #jsEquals(JsonValue)} in either direction.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+@SuppressWarnings("serial")
+final class JsonNodeObjectView extends JreJsonObject {
+
+  private final ObjectNode node;
+
+  // properties that have been converted, or null if none has been accessed yet
+  private Map<String, JsonValue> children;
+
+  // the elemental copy that replaces the node after a modification
+  private JsonObject delegate;
+
+  JsonNodeObjectView(ObjectNode node) {
+    super(Json.instance());
+    this.node = node;
+  }
+
+  /**
+   * Returns the wrapped node, or {@code null} if the view has been modified or any of its
+   * properties has been accessed (since nested views might have been modified).
+   */
+  ObjectNode getNode() {
+    return delegate == null && children == null ? node : null;
+  }
+
+  @Override
+  public JsonValue get(String key) {
+    if (delegate != null) {
+      return delegate.get(key);
+    }
+    JsonValue value = children == null ? null : children.get(key);
+    if (value == null && node.has(key)) {
+      if (children == null) {
+        children = new HashMap<>();
+      }
+      value = JsonMigrationHelper25.convertToJsonValue(node.get(key));
+      children.put(key, value);
+    }
+    return value;
+  }
+
+  @Override
+  public JsonArray getArray(String key) {
+    return (JsonArray) get(key);
+  }
+
+  @Override
+  public boolean getBoolean(String key) {
+    return ((JsonBoolean) get(key)).getBoolean();
+  }
+
+  @Override
+  public double getNumber(String key) {
+    return ((JsonNumber) get(key)).getNumber();
+  }
+
+  @Override
+  public JsonObject getObject(String key) {
+    return (JsonObject) get(key);
+  }
+
+  @Override
+  public String getString(String key) {
+    return ((JsonString) get(key)).getString();
+  }
+
+  @Override
+  public boolean hasKey(String key) {
+    return delegate != null ? delegate.hasKey(key) : node.has(key);
+  }
+
+  @Override
+  public String[] keys() {
+    return delegate != null ? delegate.keys() : node.propertyNames().toArray(new String[0]);
+  }
+
+  @Override
+  public void put(String key, JsonValue value) {
+    modify().put(key, value);
+  }
+
+  @Override
+  public void put(String key, String value) {
+    modify().put(key, value);
+  }
+
+  @Override
+  public void put(String key, double value) {
+    modify().put(key, value);
+  }
+
+  @Override
+  public void put(String key, boolean bool) {
+    modify().put(key, bool);
+  }
+
+  @Override
+  public void set(String key, JsonValue value) {
+    modify().put(key, value);
+  }
+
+  @Override
+  public void remove(String key) {
+    modify().remove(key);
+  }
+
+  @Override
+  public JsonType getType() {
+    return JsonType.OBJECT;
+  }
+
+  @Override
+  public boolean asBoolean() {
+    return materialize().asBoolean();
+  }
+
+  @Override
+  public double asNumber() {
+    return materialize().asNumber();
+  }
+
+  @Override
+  public String asString() {
+    return materialize().asString();
+  }
+
+  @Override
+  public String toJson() {
+    return materialize().toJson();
+  }
+
+  @Override
+  public boolean jsEquals(JsonValue value) {
+    return value == this || materialize().jsEquals(value);
+  }
+
+  // compared by the jsEquals method of the elemental implementation classes
+  @Override
+  public Object getObject() {
+    return ((JreJsonValue) materialize()).getObject();
+  }
+
+  @Override
+  public Object toNative() {
+    return materialize().toNative();
+  }
+
+  @Override
+  public String toString() {
+    return toJson();
+  }
+
+  private JsonObject modify() {
+    if (delegate == null) {
+      JsonObject object = Json.createObject();
+      for (String key : node.propertyNames()) {
+        object.put(key, get(key));
+      }
+      delegate = object;
+      children = null;
+    }
+    return delegate;
+  }
+
+  /** Returns an elemental copy of this object, where nested views are also copied. */
+  JsonObject materialize() {
+    if (getNode() != null) {
+      return (JsonObject) JsonMigrationHelper25.copyToJsonValue(node);
+    }
+    JsonObject object = Json.createObject();
+    for (String key : keys()) {
+      object.put(key, JsonMigrationHelper25.materialize(get(key)));
+    }
+    return object;
+  }
+
+  private Object writeReplace() {
+    return materialize();
+  }
+}
@@ -0,0 +1,201 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.JsonException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Walks a Jackson {@link JsonNode} tree as a {@link JsonTokenReader}, without copying it into an
+ * elemental tree.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+final class JsonNodeTokenReader implements JsonTokenReader {
+
+  /** An object or array node whose children are being read. */
+  private static final class Frame {
+    final Iterator<Map.Entry<String, JsonNode>> properties;
+    final JsonNode array;
+    int index;
+
+    Frame(JsonNode node) {
+      if (node.isObject()) {
+        properties = node.properties().iterator();
+        array = null;
+      } else {
+        properties = null;
+        array = node;
+      }
+    }
+  }
+
+  private final Deque<Frame> stack = new ArrayDeque<>();
+
+  // the node whose tokens are pending, or null if the next token closes the current container
+  private JsonNode node;
+
+  private String name;
+
+  JsonNodeTokenReader(JsonNode root) {
+    node = root;
+  }
+
+  @Override
+  public Token peek() {
+    if (name != null) {
+      return Token.NAME;
+    }
+    if (node == null) {
+      Frame frame = stack.peek();
+      if (frame == null) {
+        return Token.END_DOCUMENT;
+      }
+      return frame.array == null ? Token.END_OBJECT : Token.END_ARRAY;
+    }
+    switch (node.getNodeType()) {
+      case OBJECT:
+        return Token.BEGIN_OBJECT;
+      case ARRAY:
+        return Token.BEGIN_ARRAY;
+      case STRING:
+        return Token.STRING;
+      case NUMBER:
+        return Token.NUMBER;
+      case BOOLEAN:
+        return Token.BOOLEAN;
+      case NULL:
+        return Token.NULL;
+      default:
+        throw new IllegalArgumentException("Unsupported JsonNode type: " + node.getNodeType());
+    }
+  }
+
+  private void expect(Token token) {
+    if (peek() != token) {
+      throw new JsonException("Expected " + token + " but was " + peek());
+    }
+  }
+
+  // moves to the next child of the current container, or to its end
+  private void advance() {
+    Frame frame = stack.peek();
+    node = null;
+    if (frame == null) {
+      return;
+    }
+    if (frame.array == null) {
+      if (frame.properties.hasNext()) {
+        Map.Entry<String, JsonNode> entry = frame.properties.next();
+        name = entry.getKey();
+        node = entry.getValue();
+      }
+    } else if (frame.index < frame.array.size()) {
+      node = frame.array.get(frame.index++);
+    }
+  }
+
+  private void begin() {
+    stack.push(new Frame(node));
+    advance();
+  }
+
+  private void end() {
+    stack.pop();
+    advance();
+  }
+
+  @Override
+  public void beginObject() {
+    expect(Token.BEGIN_OBJECT);
+    begin();
+  }
+
+  @Override
+  public void endObject() {
+    expect(Token.END_OBJECT);
+    end();
+  }
+
+  @Override
+  public void beginArray() {
+    expect(Token.BEGIN_ARRAY);
+    begin();
+  }
+
+  @Override
+  public void endArray() {
+    expect(Token.END_ARRAY);
+    end();
+  }
+
+  @Override
+  public String nextName() {
+    expect(Token.NAME);
+    String result = name;
+    name = null;
+    return result;
+  }
+
+  @Override
+  public String nextString() {
+    expect(Token.STRING);
+    String result = node.stringValue();
+    advance();
+    return result;
+  }
+
+  @Override
+  public double nextNumber() {
+    expect(Token.NUMBER);
+    double result = node.asDouble();
+    advance();
+    return result;
+  }
+
+  @Override
+  public boolean nextBoolean() {
+    expect(Token.BOOLEAN);
+    boolean result = node.asBoolean();
+    advance();
+    return result;
+  }
+
+  @Override
+  public void nextNull() {
+    expect(Token.NULL);
+    advance();
+  }
+
+  @Override
+  public void skipValue() {
+    if (name != null) {
+      name = null;
+    } else if (node != null) {
+      advance();
+    } else {
+      throw new JsonException("Expected a value but was " + peek());
+    }
+  }
+}
@@ -37,37 +37,75 @@ package com.flowingcode.vaadin.jsonmigration;
 
 import elemental.json.Json;
 import elemental.json.JsonArray;
+import elemental.json.JsonException;
 import elemental.json.JsonNull;
 import elemental.json.JsonObject;
 import elemental.json.JsonType;
 import elemental.json.JsonValue;
-import java.beans.BeanInfo;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
+import com.flowingcode.vaadin.jsonmigration.BeanMetadata.Codec;
+import com.flowingcode.vaadin.jsonmigration.BeanMetadata.Property;
+import com.flowingcode.vaadin.jsonmigration.JsonTokenReader.Token;
+import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Array;
-import java.lang.reflect.Method;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * General-purpose serializer of Java objects to {@link JsonValue} and deserializer of JsonValue to
  * Java objects.
  *
+ * <p>When ASM is available, the properties of public bean classes are accessed through bytecode
+ * generated at runtime instead of reflection. This can be disabled by setting the system property
+ * {@code jsonmigration.serializer.bytecode} to {@code false}.
+ *
+ * <p>{@link #writeJson(Object, Appendable)} writes JSON text directly from the object graph,
+ * without building a JsonValue tree. Conversely, {@link #readJson(Class, Reader)} binds JSON text
+ * into objects without parsing it into a JsonValue tree. See also {@link JacksonJsonSerializer}.
+ * Beans that have a codec (see below) are still written and read through a JsonValue, so that
+ * the codec is used instead of reflection.
+ *
+ * <p>Codecs generated at compile time for classes annotated with {@link JsonMigrationCodec} are
+ * preferred over introspection.
+ *
  * @since 1.0
  */
 public final class JsonSerializer {
 
+  private static final boolean BYTECODE_ENABLED =
+      Boolean.parseBoolean(System.getProperty("jsonmigration.serializer.bytecode", "true"));
+
   private JsonSerializer() {}
 
+  private static Codec getCodec(BeanMetadata metadata) {
+    Codec codec = metadata.getCodec();
+    if (codec == null) {
+      if (BYTECODE_ENABLED && ClassInstrumentationUtil.IS_ASM_PRESENT) {
+        codec = BeanCodecGenerator.createCodec(metadata, JsonSerializer::createReader);
+      } else {
+        codec = Codec.REFLECTIVE;
+      }
+      metadata.setCodec(codec);
+    }
+    return codec;
+  }
+
+  private static Function<JsonValue, Object> createReader(Property property) {
+    Class<?> type = property.getType();
+    Type genericType = property.getGenericType();
+    return json -> toObject(type, genericType, json);
+  }
+
   /**
    * Converts a Java bean, String, wrapper of primitive type or enum to a {@link JsonValue}.
    *
@@ -77,11 +115,18 @@ public final class JsonSerializer {
    * @return the json representation of the Java object
    */
   public static JsonValue toJson(Object bean) {
+    Object event = FlightRecorderEvents.beginSerialization();
+    JsonValue json = convertToJson(bean);
+    FlightRecorderEvents.endSerialization(event, "toJson", bean == null ? null : bean.getClass());
+    return json;
+  }
+
+  private static JsonValue convertToJson(Object bean) {
     if (bean == null) {
       return Json.createNull();
     }
     if (bean instanceof Collection) {
-      return toJson((Collection<?>) bean);
+      return convertToJson((Collection<?>) bean);
     }
     if (bean.getClass().isArray()) {
       return toJsonArray(bean);
@@ -92,31 +137,34 @@ public final class JsonSerializer {
       return simpleType.get();
     }
 
+    @SuppressWarnings("unchecked")
+    JsonBeanCodec<Object> codec =
+        (JsonBeanCodec<Object>) JsonBeanCodecRegistry.lookup(bean.getClass());
+
+    NestingDepth.enter(bean);
     try {
-      JsonObject json = Json.createObject();
-      Class<?> type = bean.getClass();
+      if (codec != null) {
+        return codec.toJson(bean);
+      }
 
-      if (type.isRecord()) {
-        for (RecordComponent rc : type.getRecordComponents()) {
-          json.put(rc.getName(), toJson(rc.getAccessor().invoke(bean)));
-        }
-      } else {
-        BeanInfo info = Introspector.getBeanInfo(type);
-        for (PropertyDescriptor pd : info.getPropertyDescriptors()) {
-          if ("class".equals(pd.getName())) {
-            continue;
-          }
-          Method reader = pd.getReadMethod();
-          if (reader != null) {
-            json.put(pd.getName(), toJson(reader.invoke(bean)));
-          }
-        }
+      BeanMetadata metadata = BeanMetadata.of(bean.getClass());
+      Function<Object, JsonValue> serializer = getCodec(metadata).getSerializer();
+      if (serializer != null) {
+        return serializer.apply(bean);
       }
 
+      JsonObject json = Json.createObject();
+      for (Property property : metadata.getReaders()) {
+        json.put(property.getName(), toJson(property.getMethod().invoke(bean)));
+      }
       return json;
+    } catch (NestingDepth.ExceededException e) {
+      throw e;
     } catch (Exception e) {
       throw new IllegalArgumentException(
           "Could not serialize object of type " + bean.getClass() + " to JsonValue", e);
+    } finally {
+      NestingDepth.exit();
     }
   }
 
@@ -129,26 +177,245 @@ public final class JsonSerializer {
    *     the input collections is <code>null</code>
    */
   public static JsonArray toJson(Collection<?> beans) {
+    Object event = FlightRecorderEvents.beginSerialization();
+    JsonArray json = convertToJson(beans);
+    FlightRecorderEvents.endSerialization(event, "toJson", Collection.class);
+    return json;
+  }
+
+  private static JsonArray convertToJson(Collection<?> beans) {
     JsonArray array = Json.createArray();
     if (beans == null) {
       return array;
     }
 
-    beans.stream()
-        .map(JsonSerializer::toJson)
-        .forEachOrdered(json -> array.set(array.length(), json));
+    NestingDepth.enter(beans);
+    try {
+      int i = 0;
+      for (Object bean : beans) {
+        if (bean instanceof Number) {
+          array.set(i++, ((Number) bean).doubleValue());
+        } else {
+          array.set(i++, toJson(bean));
+        }
+      }
+    } finally {
+      NestingDepth.exit();
+    }
     return array;
   }
 
   private static JsonArray toJsonArray(Object javaArray) {
-    int length = Array.getLength(javaArray);
     JsonArray array = Json.createArray();
-    for (int i = 0; i < length; i++) {
-      array.set(i, toJson(Array.get(javaArray, i)));
+    Class<?> componentType = javaArray.getClass().getComponentType();
+    if (componentType == double.class) {
+      double[] values = (double[]) javaArray;
+      for (int i = 0; i < values.length; i++) {
+        array.set(i, values[i]);
+      }
+    } else if (componentType == int.class) {
+      int[] values = (int[]) javaArray;
+      for (int i = 0; i < values.length; i++) {
+        array.set(i, values[i]);
+      }
+    } else if (componentType == long.class) {
+      long[] values = (long[]) javaArray;
+      for (int i = 0; i < values.length; i++) {
+        array.set(i, values[i]);
+      }
+    } else if (componentType == float.class) {
+      float[] values = (float[]) javaArray;
+      for (int i = 0; i < values.length; i++) {
+        array.set(i, values[i]);
+      }
+    } else if (componentType == short.class) {
+      short[] values = (short[]) javaArray;
+      for (int i = 0; i < values.length; i++) {
+        array.set(i, values[i]);
+      }
+    } else if (componentType == byte.class) {
+      byte[] values = (byte[]) javaArray;
+      for (int i = 0; i < values.length; i++) {
+        array.set(i, values[i]);
+      }
+    } else if (componentType == char.class) {
+      char[] values = (char[]) javaArray;
+      for (int i = 0; i < values.length; i++) {
+        array.set(i, Character.toString(values[i]));
+      }
+    } else if (componentType == boolean.class) {
+      boolean[] values = (boolean[]) javaArray;
+      for (int i = 0; i < values.length; i++) {
+        array.set(i, values[i]);
+      }
+    } else {
+      Object[] values = (Object[]) javaArray;
+      NestingDepth.enter(javaArray);
+      try {
+        for (int i = 0; i < values.length; i++) {
+          array.set(i, toJson(values[i]));
+        }
+      } finally {
+        NestingDepth.exit();
+      }
     }
     return array;
   }
 
+  /**
+   * Writes a Java bean, String, wrapper of primitive type, enum, collection or array as JSON text,
+   * following the same rules as {@link #toJson(Object)}, without building an intermediate {@link
+   * JsonValue} tree. The output is the same as {@code toJson(bean).toJson()}.
+   *
+   * @param bean Java object to be written
+   * @param out the destination of the JSON text
+   * @throws IOException if an I/O error occurs while appending to {@code out}
+   */
+  public static void writeJson(Object bean, Appendable out) throws IOException {
+    Object event = FlightRecorderEvents.beginSerialization();
+    writeJson(bean, new AppendableJsonWriter(out));
+    FlightRecorderEvents.endSerialization(
+        event, "writeJson", bean == null ? null : bean.getClass());
+  }
+
+  static void writeJson(Object bean, JsonTokenWriter writer) throws IOException {
+    if (bean == null) {
+      writer.nullValue();
+      return;
+    }
+    if (tryToWriteSimpleType(bean, writer)) {
+      return;
+    }
+
+    NestingDepth.enter(bean);
+    try {
+      writeContainer(bean, writer);
+    } finally {
+      NestingDepth.exit();
+    }
+  }
+
+  private static void writeContainer(Object bean, JsonTokenWriter writer) throws IOException {
+    if (bean instanceof Collection) {
+      writer.beginArray();
+      for (Object item : (Collection<?>) bean) {
+        writeJson(item, writer);
+      }
+      writer.endArray();
+      return;
+    }
+    if (bean.getClass().isArray()) {
+      writer.beginArray();
+      if (bean instanceof Object[]) {
+        for (Object item : (Object[]) bean) {
+          writeJson(item, writer);
+        }
+      } else {
+        writePrimitiveArray(bean, writer);
+      }
+      writer.endArray();
+      return;
+    }
+
+    JsonValue json = tryToConvertWithCodec(bean);
+    if (json != null) {
+      writer.value(json);
+      return;
+    }
+
+    BeanMetadata metadata = BeanMetadata.of(bean.getClass());
+    writer.beginObject();
+    for (Property property : metadata.getReaders()) {
+      Object value;
+      try {
+        value = property.getMethod().invoke(bean);
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalArgumentException(
+            "Could not serialize object of type " + bean.getClass() + " to JsonValue", e);
+      }
+      writer.name(property.getName());
+      writeJson(value, writer);
+    }
+    writer.endObject();
+  }
+
+  // converts a bean that has a compile-time or bytecode codec, or returns null
+  private static JsonValue tryToConvertWithCodec(Object bean) {
+    @SuppressWarnings("unchecked")
+    JsonBeanCodec<Object> codec =
+        (JsonBeanCodec<Object>) JsonBeanCodecRegistry.lookup(bean.getClass());
+    try {
+      if (codec != null) {
+        return codec.toJson(bean);
+      }
+      Function<Object, JsonValue> serializer =
+          getCodec(BeanMetadata.of(bean.getClass())).getSerializer();
+      return serializer != null ? serializer.apply(bean) : null;
+    } catch (NestingDepth.ExceededException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+          "Could not serialize object of type " + bean.getClass() + " to JsonValue", e);
+    }
+  }
+
+  private static void writePrimitiveArray(Object javaArray, JsonTokenWriter writer)
+      throws IOException {
+    if (javaArray instanceof double[]) {
+      for (double value : (double[]) javaArray) {
+        writer.value(value);
+      }
+    } else if (javaArray instanceof int[]) {
+      for (int value : (int[]) javaArray) {
+        writer.value(value);
+      }
+    } else if (javaArray instanceof long[]) {
+      for (long value : (long[]) javaArray) {
+        writer.value(value);
+      }
+    } else if (javaArray instanceof float[]) {
+      for (float value : (float[]) javaArray) {
+        writer.value(value);
+      }
+    } else if (javaArray instanceof short[]) {
+      for (short value : (short[]) javaArray) {
+        writer.value(value);
+      }
+    } else if (javaArray instanceof byte[]) {
+      for (byte value : (byte[]) javaArray) {
+        writer.value(value);
+      }
+    } else if (javaArray instanceof char[]) {
+      for (char value : (char[]) javaArray) {
+        writer.value(Character.toString(value));
+      }
+    } else {
+      for (boolean value : (boolean[]) javaArray) {
+        writer.value(value);
+      }
+    }
+  }
+
+  private static boolean tryToWriteSimpleType(Object bean, JsonTokenWriter writer)
+      throws IOException {
+    if (bean instanceof String) {
+      writer.value((String) bean);
+    } else if (bean instanceof Number) {
+      writer.value(((Number) bean).doubleValue());
+    } else if (bean instanceof Boolean) {
+      writer.value((boolean) (Boolean) bean);
+    } else if (bean instanceof Character) {
+      writer.value(Character.toString((char) bean));
+    } else if (bean instanceof Enum) {
+      writer.value(((Enum<?>) bean).name());
+    } else if (bean instanceof JsonValue) {
+      writer.value((JsonValue) bean);
+    } else {
+      return false;
+    }
+    return true;
+  }
+
   private static Optional<JsonValue> tryToConvertToSimpleType(Object bean) {
     if (bean instanceof String) {
       return Optional.of(Json.create((String) bean));
@@ -173,7 +440,8 @@ public final class JsonSerializer {
 
   /**
    * Converts a JsonValue to the corresponding Java object. The Java object can be a Java bean,
-   * String, wrapper of primitive types or an enum.
+   * String, wrapper of primitive types, an enum, or an array of any of them (including arrays of
+   * primitive types).
    *
    * @param type the type of the Java object convert the json to
    * @param json the json representation of the object
@@ -181,11 +449,14 @@ public final class JsonSerializer {
    * @return the deserialized object, or <code>null</code> if the input json is <code>null</code>
    */
   public static <T> T toObject(Class<T> type, JsonValue json) {
-    return toObject(type, null, json);
+    Object event = FlightRecorderEvents.beginSerialization();
+    T result = toObject(type, null, json);
+    FlightRecorderEvents.endSerialization(event, "toObject", type);
+    return result;
   }
 
   @SuppressWarnings("unchecked")
-  private static <T> T toObject(Class<T> type, Type genericType, JsonValue json) {
+  static <T> T toObject(Class<T> type, Type genericType, JsonValue json) {
     if (json == null || json instanceof JsonNull) {
       return null;
     }
@@ -195,10 +466,24 @@ public final class JsonSerializer {
       return (T) simpleType.get();
     }
 
+    if (type.isArray()) {
+      return toArray(type, genericType, json);
+    }
+
     if (Collection.class.isAssignableFrom(type)) {
       return toCollection(type, genericType, json);
     }
 
+    JsonBeanCodec<T> codec = JsonBeanCodecRegistry.lookup(type);
+    if (codec != null) {
+      try {
+        return codec.toObject(json);
+      } catch (Exception e) {
+        throw new IllegalArgumentException(
+            "Could not deserialize object of type " + type + " from JsonValue", e);
+      }
+    }
+
     if (type.isRecord()) {
       return toRecord(type, json);
     }
@@ -222,24 +507,19 @@ public final class JsonSerializer {
         return instance;
       }
 
-      BeanInfo info = Introspector.getBeanInfo(type);
-      Map<String, Method> writers = new HashMap<>();
-
-      for (PropertyDescriptor pd : info.getPropertyDescriptors()) {
-        Method writer = pd.getWriteMethod();
-        if (writer != null) {
-          writers.put(pd.getName(), writer);
-        }
+      BeanMetadata metadata = BeanMetadata.of(type);
+      BiConsumer<Object, JsonObject> deserializer = getCodec(metadata).getDeserializer();
+      if (deserializer != null) {
+        deserializer.accept(instance, jsonObject);
+        return instance;
       }
+
       for (String key : keys) {
-        JsonValue jsonValue = jsonObject.get(key);
-
-        Method method = writers.get(key);
-        if (method != null) {
-          Class<?> parameterType = method.getParameterTypes()[0];
-          Type genericParameterType = method.getGenericParameterTypes()[0];
-          Object value = toObject(parameterType, genericParameterType, jsonValue);
-          method.invoke(instance, value);
+        Property writer = metadata.getWriter(key);
+        if (writer != null) {
+          JsonValue jsonValue = jsonObject.get(key);
+          Object value = toObject(writer.getType(), writer.getGenericType(), jsonValue);
+          writer.getMethod().invoke(instance, value);
         }
       }
 
@@ -250,18 +530,23 @@ public final class JsonSerializer {
     }
   }
 
+  @SuppressWarnings("unchecked")
   private static <T> T toRecord(Class<T> type, JsonValue json) {
     try {
-      RecordComponent[] components = type.getRecordComponents();
-      Class<?>[] componentTypes = new Class<?>[components.length];
-      Object[] values = new Object[components.length];
+      BeanMetadata metadata = BeanMetadata.of(type);
+      List<Property> components = metadata.getReaders();
+      Object[] values = new Object[components.size()];
 
-      for (int i = 0; i < components.length; i++) {
-        componentTypes[i] = components[i].getType();
-        values[i] = toObject(componentTypes[i], ((JsonObject) json).get(components[i].getName()));
+      for (int i = 0; i < values.length; i++) {
+        Property component = components.get(i);
+        values[i] =
+            toObject(
+                component.getType(),
+                component.getGenericType(),
+                ((JsonObject) json).get(component.getName()));
       }
 
-      return type.getDeclaredConstructor(componentTypes).newInstance(values);
+      return (T) metadata.getCanonicalConstructor().newInstance(values);
     } catch (Exception e) {
       throw new IllegalArgumentException(
           "Could not deserialize record of type " + type + " from JsonValue", e);
@@ -279,16 +564,107 @@ public final class JsonSerializer {
               + ". The type is no subclass of ParameterizedType: "
               + genericType);
     }
+    ParameterizedType parameterizedType = (ParameterizedType) genericType;
+    Class<?> parameterizedClass = (Class<?>) parameterizedType.getActualTypeArguments()[0];
+    return toCollection(type, parameterizedClass, json);
+  }
+
+  static <T> T toCollection(Class<T> type, Class<?> elementType, JsonValue json) {
+    if (json.getType() != JsonType.ARRAY) {
+      return null;
+    }
     JsonArray array = (JsonArray) json;
     Collection<?> collection = tryToCreateCollection(type, array.length());
     if (array.length() > 0) {
-      ParameterizedType parameterizedType = (ParameterizedType) genericType;
-      Class<?> parameterizedClass = (Class<?>) parameterizedType.getActualTypeArguments()[0];
-      collection.addAll((List) toObjects(parameterizedClass, (JsonArray) json));
+      collection.addAll((List) toObjects(elementType, array));
     }
     return (T) collection;
   }
 
+  @SuppressWarnings("unchecked")
+  private static <T> T toArray(Class<T> type, Type genericType, JsonValue json) {
+    if (json.getType() != JsonType.ARRAY) {
+      return null;
+    }
+    JsonArray array = (JsonArray) json;
+    Class<?> componentType = type.getComponentType();
+    if (componentType.isPrimitive()) {
+      return (T) toPrimitiveArray(componentType, array);
+    }
+
+    Type genericComponentType =
+        genericType instanceof GenericArrayType
+            ? ((GenericArrayType) genericType).getGenericComponentType()
+            : null;
+    Object[] result = (Object[]) Array.newInstance(componentType, array.length());
+    for (int i = 0; i < result.length; i++) {
+      result[i] = toObject(componentType, genericComponentType, array.get(i));
+    }
+    return (T) result;
+  }
+
+  private static Object toPrimitiveArray(Class<?> componentType, JsonArray array) {
+    int length = array.length();
+    if (componentType == double.class) {
+      double[] result = new double[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = getPrimitive(array, i).asNumber();
+      }
+      return result;
+    } else if (componentType == int.class) {
+      int[] result = new int[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = (int) getPrimitive(array, i).asNumber();
+      }
+      return result;
+    } else if (componentType == long.class) {
+      long[] result = new long[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = (long) getPrimitive(array, i).asNumber();
+      }
+      return result;
+    } else if (componentType == float.class) {
+      float[] result = new float[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = (float) getPrimitive(array, i).asNumber();
+      }
+      return result;
+    } else if (componentType == short.class) {
+      short[] result = new short[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = (short) getPrimitive(array, i).asNumber();
+      }
+      return result;
+    } else if (componentType == byte.class) {
+      byte[] result = new byte[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = (byte) getPrimitive(array, i).asNumber();
+      }
+      return result;
+    } else if (componentType == char.class) {
+      char[] result = new char[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = getPrimitive(array, i).asString().charAt(0);
+      }
+      return result;
+    } else {
+      boolean[] result = new boolean[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = getPrimitive(array, i).asBoolean();
+      }
+      return result;
+    }
+  }
+
+  private static JsonValue getPrimitive(JsonArray array, int index) {
+    JsonValue value = array.get(index);
+    if (value == null || value.getType() == JsonType.NULL) {
+      throw new IllegalArgumentException(
+          "Could not convert null at index " + index + " to a primitive value");
+    }
+    return value;
+  }
+
   /**
    * Converts a JsonArray into a collection of Java objects. The Java objects can be Java beans,
    * Strings, wrappers of primitive types or enums.
@@ -300,48 +676,369 @@ public final class JsonSerializer {
    *     <code>null</code>
    */
   public static <T> List<T> toObjects(Class<T> type, JsonArray json) {
+    Object event = FlightRecorderEvents.beginSerialization();
+    List<T> list = convertToObjects(type, json);
+    FlightRecorderEvents.endSerialization(event, "toObjects", type);
+    return list;
+  }
+
+  private static <T> List<T> convertToObjects(Class<T> type, JsonArray json) {
     if (json == null) {
       return new ArrayList<>(0);
     }
-    List<T> list = new ArrayList<>(json.length());
-    for (int i = 0; i < json.length(); i++) {
-      list.add(JsonSerializer.toObject(type, json.get(i)));
+    int length = json.length();
+    List<T> list = new ArrayList<>(length);
+    @SuppressWarnings("unchecked")
+    Function<JsonValue, T> converter = (Function<JsonValue, T>) getSimpleTypeConverter(type);
+    if (converter != null) {
+      for (int i = 0; i < length; i++) {
+        JsonValue item = json.get(i);
+        list.add(item == null || item instanceof JsonNull ? null : converter.apply(item));
+      }
+    } else {
+      for (int i = 0; i < length; i++) {
+        list.add(toObject(type, null, json.get(i)));
+      }
+    }
+    return list;
+  }
+
+  /**
+   * Reads JSON text and binds it into a Java bean, String, wrapper of primitive type, enum, record
+   * or collection, following the same rules as {@link #toObject(Class, JsonValue)}, without
+   * building an intermediate {@link JsonValue} tree.
+   *
+   * @param type the type of the Java object to read the json into
+   * @param reader the source of the json text
+   * @param <T> the resulting object type
+   * @return the deserialized object, or <code>null</code> if the json is <code>null</code>
+   * @throws IOException if an I/O error occurs while reading
+   * @throws JsonException if the json text is malformed
+   */
+  public static <T> T readJson(Class<T> type, Reader reader) throws IOException {
+    Object event = FlightRecorderEvents.beginSerialization();
+    JsonTextReader tokens = new JsonTextReader(reader);
+    T result = readObject(type, null, tokens);
+    tokens.peek();
+    FlightRecorderEvents.endSerialization(event, "readJson", type);
+    return result;
+  }
+
+  /**
+   * Reads a JSON array and binds each of its items into a Java object, following the same rules as
+   * {@link #toObjects(Class, JsonArray)}, without building an intermediate {@link JsonValue} tree.
+   *
+   * @param type the type of the elements in the array
+   * @param reader the source of the json text
+   * @param <T> the resulting objects types
+   * @return a modifiable list of converted objects. Returns an empty list if the json is <code>null
+   *     </code>
+   * @throws IOException if an I/O error occurs while reading
+   * @throws JsonException if the json text is malformed
+   */
+  public static <T> List<T> readJsonList(Class<T> type, Reader reader) throws IOException {
+    Object event = FlightRecorderEvents.beginSerialization();
+    JsonTextReader tokens = new JsonTextReader(reader);
+    List<T> result = readObjects(type, tokens);
+    tokens.peek();
+    FlightRecorderEvents.endSerialization(event, "readJsonList", type);
+    return result;
+  }
+
+  static <T> List<T> readObjects(Class<T> type, JsonTokenReader reader) throws IOException {
+    if (reader.peek() == Token.NULL) {
+      reader.nextNull();
+      return new ArrayList<>(0);
+    }
+    List<T> list = new ArrayList<>();
+    reader.beginArray();
+    while (reader.peek() != Token.END_ARRAY) {
+      list.add(readObject(type, null, reader));
     }
+    reader.endArray();
     return list;
   }
 
+  @SuppressWarnings("unchecked")
+  static <T> T readObject(Class<T> type, Type genericType, JsonTokenReader reader)
+      throws IOException {
+    Token token = reader.peek();
+    if (token == Token.NULL) {
+      reader.nextNull();
+      return null;
+    }
+
+    Function<JsonValue, ?> converter = getSimpleTypeConverter(type);
+    if (converter != null) {
+      return (T) converter.apply(reader.readTree());
+    }
+
+    if (token != Token.BEGIN_OBJECT && token != Token.BEGIN_ARRAY) {
+      // same outcome as binding the scalar value
+      return toObject(type, genericType, reader.readTree());
+    }
+
+    if (type.isArray()) {
+      return readArray(type, genericType, reader);
+    }
+
+    if (Collection.class.isAssignableFrom(type)) {
+      return readCollection(type, genericType, reader);
+    }
+
+    if (token != Token.BEGIN_OBJECT) {
+      throw new IllegalArgumentException(
+          "Could not deserialize object of type " + type + " from a JSON array");
+    }
+
+    if (hasCodec(type)) {
+      // the codec reads the properties from a tree, as toObject does
+      return toObject(type, genericType, reader.readTree());
+    }
+
+    if (type.isRecord()) {
+      return readRecord(type, reader);
+    }
+
+    T instance;
+    try {
+      instance = type.newInstance();
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+          "Could not create an instance of type "
+              + type
+              + ". Make sure it contains a default public constructor and the class is accessible.",
+          e);
+    }
+
+    BeanMetadata metadata = BeanMetadata.of(type);
+    reader.beginObject();
+    while (reader.peek() != Token.END_OBJECT) {
+      Property writer = metadata.getWriter(reader.nextName());
+      if (writer == null) {
+        reader.skipValue();
+        continue;
+      }
+      Object value = readObject(writer.getType(), writer.getGenericType(), reader);
+      try {
+        writer.getMethod().invoke(instance, value);
+      } catch (Exception e) {
+        throw new IllegalArgumentException(
+            "Could not deserialize object of type " + type + " from JsonValue", e);
+      }
+    }
+    reader.endObject();
+    return instance;
+  }
+
+  private static boolean hasCodec(Class<?> type) {
+    if (JsonBeanCodecRegistry.lookup(type) != null) {
+      return true;
+    }
+    return !type.isRecord() && getCodec(BeanMetadata.of(type)).getDeserializer() != null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T readRecord(Class<T> type, JsonTokenReader reader) throws IOException {
+    BeanMetadata metadata = BeanMetadata.of(type);
+    List<Property> components = metadata.getReaders();
+    Object[] values = new Object[components.size()];
+
+    reader.beginObject();
+    while (reader.peek() != Token.END_OBJECT) {
+      String name = reader.nextName();
+      int index = 0;
+      while (index < values.length && !components.get(index).getName().equals(name)) {
+        index++;
+      }
+      if (index == values.length) {
+        reader.skipValue();
+      } else {
+        Property component = components.get(index);
+        values[index] = readObject(component.getType(), component.getGenericType(), reader);
+      }
+    }
+    reader.endObject();
+
+    try {
+      return (T) metadata.getCanonicalConstructor().newInstance(values);
+    } catch (Exception e) {
+      throw new IllegalArgumentException(
+          "Could not deserialize record of type " + type + " from JsonValue", e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T readArray(Class<T> type, Type genericType, JsonTokenReader reader)
+      throws IOException {
+    if (reader.peek() != Token.BEGIN_ARRAY) {
+      reader.skipValue();
+      return null;
+    }
+
+    Class<?> componentType = type.getComponentType();
+    if (componentType == boolean.class || componentType == char.class) {
+      return (T) toPrimitiveArray(componentType, (JsonArray) reader.readTree());
+    }
+    if (componentType.isPrimitive()) {
+      return (T) readNumericArray(componentType, reader);
+    }
+
+    Type genericComponentType =
+        genericType instanceof GenericArrayType
+            ? ((GenericArrayType) genericType).getGenericComponentType()
+            : null;
+    List<Object> items = new ArrayList<>();
+    reader.beginArray();
+    while (reader.peek() != Token.END_ARRAY) {
+      items.add(readObject(componentType, genericComponentType, reader));
+    }
+    reader.endArray();
+    return (T) items.toArray((Object[]) Array.newInstance(componentType, items.size()));
+  }
+
+  private static Object readNumericArray(Class<?> componentType, JsonTokenReader reader)
+      throws IOException {
+    double[] buffer = new double[16];
+    int length = 0;
+    reader.beginArray();
+    while (reader.peek() != Token.END_ARRAY) {
+      if (length == buffer.length) {
+        buffer = Arrays.copyOf(buffer, length * 2);
+      }
+      if (reader.peek() == Token.NUMBER) {
+        buffer[length] = reader.nextNumber();
+      } else {
+        JsonValue value = reader.readTree();
+        if (value.getType() == JsonType.NULL) {
+          throw new IllegalArgumentException(
+              "Could not convert null at index " + length + " to a primitive value");
+        }
+        buffer[length] = value.asNumber();
+      }
+      length++;
+    }
+    reader.endArray();
+
+    if (componentType == double.class) {
+      return Arrays.copyOf(buffer, length);
+    } else if (componentType == int.class) {
+      int[] result = new int[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = (int) buffer[i];
+      }
+      return result;
+    } else if (componentType == long.class) {
+      long[] result = new long[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = (long) buffer[i];
+      }
+      return result;
+    } else if (componentType == float.class) {
+      float[] result = new float[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = (float) buffer[i];
+      }
+      return result;
+    } else if (componentType == short.class) {
+      short[] result = new short[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = (short) buffer[i];
+      }
+      return result;
+    } else {
+      byte[] result = new byte[length];
+      for (int i = 0; i < length; i++) {
+        result[i] = (byte) buffer[i];
+      }
+      return result;
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <T> T readCollection(Class<T> type, Type genericType, JsonTokenReader reader)
+      throws IOException {
+    if (reader.peek() != Token.BEGIN_ARRAY) {
+      reader.skipValue();
+      return null;
+    }
+    if (!(genericType instanceof ParameterizedType)) {
+      throw new IllegalArgumentException(
+          "Could not infer the generic parameterized type of the collection of class: "
+              + type.getName()
+              + ". The type is no subclass of ParameterizedType: "
+              + genericType);
+    }
+    Class<?> parameterizedClass =
+        (Class<?>) ((ParameterizedType) genericType).getActualTypeArguments()[0];
+    List<?> items = readObjects(parameterizedClass, reader);
+    Collection collection = tryToCreateCollection(type, items.size());
+    collection.addAll(items);
+    return (T) collection;
+  }
+
+  /**
+   * Discards the introspection results cached for the given type. This method should be called
+   * when a class that was serialized or deserialized is about to be redefined or unloaded.
+   *
+   * @param type the type whose cached metadata is discarded
+   */
+  public static void clearCache(Class<?> type) {
+    BeanMetadata.invalidate(type);
+    JsonBeanCodecRegistry.invalidate(type);
+  }
+
+  /**
+   * Discards all the introspection results cached by this serializer. This method should be called
+   * when the application class loader is discarded (e.g. on redeploy), unless this library is
+   * loaded by that same class loader.
+   */
+  public static void clearCache() {
+    BeanMetadata.invalidateAll();
+    JsonBeanCodecRegistry.invalidateAll();
+  }
+
   private static Optional<?> tryToConvertFromSimpleType(Class<?> type, JsonValue json) {
+    Function<JsonValue, ?> converter = getSimpleTypeConverter(type);
+    return converter == null ? Optional.empty() : Optional.of(converter.apply(json));
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Function<JsonValue, ?> getSimpleTypeConverter(Class<?> type) {
     if (type.isAssignableFrom(String.class)) {
-      return Optional.of(json.asString());
+      return JsonValue::asString;
     }
     if (type.isAssignableFrom(int.class) || type.isAssignableFrom(Integer.class)) {
-      return Optional.of((int) json.asNumber());
+      return json -> (int) json.asNumber();
     }
     if (type.isAssignableFrom(double.class) || type.isAssignableFrom(Double.class)) {
-      return Optional.of(json.asNumber());
+      return JsonValue::asNumber;
     }
     if (type.isAssignableFrom(long.class) || type.isAssignableFrom(Long.class)) {
-      return Optional.of((long) json.asNumber());
+      return json -> (long) json.asNumber();
     }
     if (type.isAssignableFrom(short.class) || type.isAssignableFrom(Short.class)) {
-      return Optional.of((short) json.asNumber());
+      return json -> (short) json.asNumber();
     }
     if (type.isAssignableFrom(byte.class) || type.isAssignableFrom(Byte.class)) {
-      return Optional.of((byte) json.asNumber());
+      return json -> (byte) json.asNumber();
+    }
+    if (type.isAssignableFrom(float.class) || type.isAssignableFrom(Float.class)) {
+      return json -> (float) json.asNumber();
     }
     if (type.isAssignableFrom(char.class) || type.isAssignableFrom(Character.class)) {
-      return Optional.of(json.asString().charAt(0));
+      return json -> json.asString().charAt(0);
     }
     if (type.isAssignableFrom(Boolean.class) || type.isAssignableFrom(boolean.class)) {
-      return Optional.of(json.asBoolean());
+      return JsonValue::asBoolean;
     }
     if (type.isEnum()) {
-      return Optional.of(Enum.valueOf((Class<? extends Enum>) type, json.asString()));
+      return json -> Enum.valueOf((Class<? extends Enum>) type, json.asString());
     }
     if (JsonValue.class.isAssignableFrom(type)) {
-      return Optional.of(json);
+      return Function.identity();
     }
-    return Optional.empty();
+    return null;
   }
 
   private static Collection<?> tryToCreateCollection(Class<?> collectionType, int initialCapacity) {
@@ -0,0 +1,338 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.JsonException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Pull parser of JSON text read from a {@link Reader}.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+final class JsonTextReader implements JsonTokenReader {
+
+  private static final int EMPTY_DOCUMENT = 0;
+  private static final int NONEMPTY_DOCUMENT = 1;
+  private static final int EMPTY_OBJECT = 2;
+  private static final int NONEMPTY_OBJECT = 3;
+  private static final int DANGLING_NAME = 4;
+  private static final int EMPTY_ARRAY = 5;
+  private static final int NONEMPTY_ARRAY = 6;
+
+  private final Reader in;
+
+  private final char[] buffer = new char[1024];
+
+  private int pos;
+
+  private int limit;
+
+  private int[] stack = new int[32];
+
+  private int stackSize = 1;
+
+  private Token peeked;
+
+  private String peekedString;
+
+  private double peekedNumber;
+
+  private boolean peekedBoolean;
+
+  private final StringBuilder sb = new StringBuilder();
+
+  JsonTextReader(Reader in) {
+    this.in = in;
+    stack[0] = EMPTY_DOCUMENT;
+  }
+
+  @Override
+  public Token peek() throws IOException {
+    if (peeked == null) {
+      peeked = doPeek();
+    }
+    return peeked;
+  }
+
+  private Token doPeek() throws IOException {
+    int context = stack[stackSize - 1];
+    int c;
+    switch (context) {
+      case EMPTY_ARRAY:
+        stack[stackSize - 1] = NONEMPTY_ARRAY;
+        c = nextNonWhitespace();
+        if (c == ']') {
+          return Token.END_ARRAY;
+        }
+        if (c == -1) {
+          throw syntaxError("Unexpected end of input");
+        }
+        pos--;
+        break;
+      case NONEMPTY_ARRAY:
+        c = nextNonWhitespace();
+        if (c == ']') {
+          return Token.END_ARRAY;
+        }
+        if (c != ',') {
+          throw syntaxError("Expected ',' or ']'");
+        }
+        break;
+      case EMPTY_OBJECT:
+      case NONEMPTY_OBJECT:
+        c = nextNonWhitespace();
+        if (c == '}') {
+          return Token.END_OBJECT;
+        }
+        if (context == NONEMPTY_OBJECT) {
+          if (c != ',') {
+            throw syntaxError("Expected ',' or '}'");
+          }
+          c = nextNonWhitespace();
+        }
+        if (c != '"') {
+          throw syntaxError("Expected a name");
+        }
+        stack[stackSize - 1] = DANGLING_NAME;
+        peekedString = readString();
+        return Token.NAME;
+      case DANGLING_NAME:
+        if (nextNonWhitespace() != ':') {
+          throw syntaxError("Expected ':'");
+        }
+        stack[stackSize - 1] = NONEMPTY_OBJECT;
+        break;
+      case EMPTY_DOCUMENT:
+        stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+        break;
+      default:
+        if (nextNonWhitespace() != -1) {
+          throw syntaxError("Unexpected content after the end of the document");
+        }
+        return Token.END_DOCUMENT;
+    }
+
+    c = nextNonWhitespace();
+    switch (c) {
+      case '{':
+        return Token.BEGIN_OBJECT;
+      case '[':
+        return Token.BEGIN_ARRAY;
+      case '"':
+        peekedString = readString();
+        return Token.STRING;
+      case 't':
+        readLiteral("rue");
+        peekedBoolean = true;
+        return Token.BOOLEAN;
+      case 'f':
+        readLiteral("alse");
+        peekedBoolean = false;
+        return Token.BOOLEAN;
+      case 'n':
+        readLiteral("ull");
+        return Token.NULL;
+      case -1:
+        throw syntaxError("Unexpected end of input");
+      default:
+        if (c == '-' || (c >= '0' && c <= '9')) {
+          pos--;
+          peekedNumber = readNumber();
+          return Token.NUMBER;
+        }
+        throw syntaxError("Unexpected character '" + (char) c + "'");
+    }
+  }
+
+  private void expect(Token token) throws IOException {
+    if (peek() != token) {
+      throw unexpectedToken(token.toString());
+    }
+    peeked = null;
+  }
+
+  private void push(int context) {
+    if (stackSize == stack.length) {
+      stack = Arrays.copyOf(stack, stackSize * 2);
+    }
+    stack[stackSize++] = context;
+  }
+
+  @Override
+  public void beginObject() throws IOException {
+    expect(Token.BEGIN_OBJECT);
+    push(EMPTY_OBJECT);
+  }
+
+  @Override
+  public void endObject() throws IOException {
+    expect(Token.END_OBJECT);
+    stackSize--;
+  }
+
+  @Override
+  public void beginArray() throws IOException {
+    expect(Token.BEGIN_ARRAY);
+    push(EMPTY_ARRAY);
+  }
+
+  @Override
+  public void endArray() throws IOException {
+    expect(Token.END_ARRAY);
+    stackSize--;
+  }
+
+  @Override
+  public String nextName() throws IOException {
+    expect(Token.NAME);
+    return peekedString;
+  }
+
+  @Override
+  public String nextString() throws IOException {
+    expect(Token.STRING);
+    return peekedString;
+  }
+
+  @Override
+  public double nextNumber() throws IOException {
+    expect(Token.NUMBER);
+    return peekedNumber;
+  }
+
+  @Override
+  public boolean nextBoolean() throws IOException {
+    expect(Token.BOOLEAN);
+    return peekedBoolean;
+  }
+
+  @Override
+  public void nextNull() throws IOException {
+    expect(Token.NULL);
+  }
+
+  private int read() throws IOException {
+    if (pos == limit) {
+      limit = in.read(buffer, 0, buffer.length);
+      pos = 0;
+      if (limit <= 0) {
+        limit = 0;
+        return -1;
+      }
+    }
+    return buffer[pos++];
+  }
+
+  private int nextNonWhitespace() throws IOException {
+    int c;
+    do {
+      c = read();
+    } while (c == ' ' || c == '\t' || c == '\n' || c == '\r');
+    return c;
+  }
+
+  private void readLiteral(String rest) throws IOException {
+    for (int i = 0; i < rest.length(); i++) {
+      if (read() != rest.charAt(i)) {
+        throw syntaxError("Invalid literal");
+      }
+    }
+  }
+
+  private double readNumber() throws IOException {
+    sb.setLength(0);
+    int c;
+    while ((c = read()) != -1) {
+      if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+        sb.append((char) c);
+      } else {
+        pos--;
+        break;
+      }
+    }
+    try {
+      return Double.parseDouble(sb.toString());
+    } catch (NumberFormatException e) {
+      throw syntaxError("Invalid number " + sb);
+    }
+  }
+
+  private String readString() throws IOException {
+    sb.setLength(0);
+    while (true) {
+      int start = pos;
+      while (pos < limit) {
+        char c = buffer[pos++];
+        if (c == '"') {
+          sb.append(buffer, start, pos - start - 1);
+          return sb.toString();
+        } else if (c == '\\') {
+          sb.append(buffer, start, pos - start - 1);
+          sb.append(readEscape());
+          start = pos;
+        }
+      }
+      sb.append(buffer, start, pos - start);
+      if (read() == -1) {
+        throw syntaxError("Unterminated string");
+      }
+      pos--;
+    }
+  }
+
+  private char readEscape() throws IOException {
+    int c = read();
+    switch (c) {
+      case '"':
+      case '\\':
+      case '/':
+        return (char) c;
+      case 'b':
+        return '\b';
+      case 'f':
+        return '\f';
+      case 'n':
+        return '\n';
+      case 'r':
+        return '\r';
+      case 't':
+        return '\t';
+      case 'u':
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+          int digit = Character.digit(read(), 16);
+          if (digit < 0) {
+            throw syntaxError("Invalid unicode escape");
+          }
+          value = (value << 4) | digit;
+        }
+        return (char) value;
+      default:
+        throw syntaxError("Invalid escape sequence");
+    }
+  }
+
+  private JsonException syntaxError(String message) {
+    return new JsonException(message);
+  }
+}
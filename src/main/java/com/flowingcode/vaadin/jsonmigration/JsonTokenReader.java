@@ -0,0 +1,186 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Source of JSON tokens, used by {@link JsonSerializer} to bind JSON into Java objects without
+ * building a {@link JsonValue} tree.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+interface JsonTokenReader {
+
+  enum Token {
+    BEGIN_OBJECT,
+    END_OBJECT,
+    BEGIN_ARRAY,
+    END_ARRAY,
+    NAME,
+    STRING,
+    NUMBER,
+    BOOLEAN,
+    NULL,
+    END_DOCUMENT
+  }
+
+  /** Returns the type of the next token, without consuming it. */
+  Token peek() throws IOException;
+
+  void beginObject() throws IOException;
+
+  void endObject() throws IOException;
+
+  void beginArray() throws IOException;
+
+  void endArray() throws IOException;
+
+  String nextName() throws IOException;
+
+  String nextString() throws IOException;
+
+  double nextNumber() throws IOException;
+
+  boolean nextBoolean() throws IOException;
+
+  void nextNull() throws IOException;
+
+  /** Consumes the next value, including its nested values. */
+  default void skipValue() throws IOException {
+    int depth = 0;
+    do {
+      switch (peek()) {
+        case BEGIN_OBJECT:
+          beginObject();
+          depth++;
+          break;
+        case BEGIN_ARRAY:
+          beginArray();
+          depth++;
+          break;
+        case END_OBJECT:
+          endObject();
+          depth--;
+          break;
+        case END_ARRAY:
+          endArray();
+          depth--;
+          break;
+        case NAME:
+          nextName();
+          break;
+        case STRING:
+          nextString();
+          break;
+        case NUMBER:
+          nextNumber();
+          break;
+        case BOOLEAN:
+          nextBoolean();
+          break;
+        case NULL:
+          nextNull();
+          break;
+        default:
+          throw unexpectedToken("a value");
+      }
+    } while (depth > 0);
+  }
+
+  /**
+   * Consumes the next value and returns it as an elemental tree. The tree is built with an explicit
+   * stack, whose depth is limited by {@link NestingDepth}.
+   */
+  default JsonValue readTree() throws IOException {
+    // the objects and arrays that have been opened, innermost first
+    Deque<JsonValue> stack = new ArrayDeque<>();
+    JsonValue root = null;
+    do {
+      JsonValue container = stack.peek();
+      String name = null;
+      if (container instanceof JsonObject) {
+        if (peek() == Token.END_OBJECT) {
+          endObject();
+          stack.pop();
+          continue;
+        }
+        name = nextName();
+      } else if (container != null && peek() == Token.END_ARRAY) {
+        endArray();
+        stack.pop();
+        continue;
+      }
+
+      JsonValue value;
+      switch (peek()) {
+        case BEGIN_OBJECT:
+          beginObject();
+          value = Json.createObject();
+          break;
+        case BEGIN_ARRAY:
+          beginArray();
+          value = Json.createArray();
+          break;
+        case STRING:
+          value = Json.create(nextString());
+          break;
+        case NUMBER:
+          value = Json.create(nextNumber());
+          break;
+        case BOOLEAN:
+          value = Json.create(nextBoolean());
+          break;
+        case NULL:
+          nextNull();
+          value = Json.createNull();
+          break;
+        default:
+          throw unexpectedToken("a value");
+      }
+
+      if (container == null) {
+        root = value;
+      } else if (name != null) {
+        ((JsonObject) container).put(name, value);
+      } else {
+        JsonArray array = (JsonArray) container;
+        array.set(array.length(), value);
+      }
+
+      if (value instanceof JsonObject || value instanceof JsonArray) {
+        NestingDepth.check(stack.size() + 1);
+        stack.push(value);
+      }
+    } while (!stack.isEmpty());
+    return root;
+  }
+
+  default JsonException unexpectedToken(String expected) throws IOException {
+    return new JsonException("Expected " + expected + " but was " + peek());
+  }
+}
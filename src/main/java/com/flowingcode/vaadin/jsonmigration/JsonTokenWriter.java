@@ -0,0 +1,120 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.JsonValue;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Sink of JSON tokens, used by {@link JsonSerializer} to write JSON without building a {@link
+ * JsonValue} tree.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+interface JsonTokenWriter {
+
+  void beginObject() throws IOException;
+
+  void name(String name) throws IOException;
+
+  void endObject() throws IOException;
+
+  void beginArray() throws IOException;
+
+  void endArray() throws IOException;
+
+  void value(String value) throws IOException;
+
+  void value(double value) throws IOException;
+
+  void value(boolean value) throws IOException;
+
+  void nullValue() throws IOException;
+
+  /**
+   * Writes the tokens of an elemental value. The tree is traversed with an explicit stack, whose
+   * depth is limited by {@link NestingDepth}.
+   */
+  default void value(JsonValue value) throws IOException {
+    Deque<JsonValueCursor<Void>> stack = new ArrayDeque<>();
+    JsonValue next = value;
+    while (true) {
+      switch (next.getType()) {
+        case OBJECT:
+          beginObject();
+          NestingDepth.check(stack.size() + 1);
+          stack.push(new JsonValueCursor<>(next, null));
+          break;
+        case ARRAY:
+          beginArray();
+          NestingDepth.check(stack.size() + 1);
+          stack.push(new JsonValueCursor<>(next, null));
+          break;
+        case STRING:
+          value(next.asString());
+          break;
+        case NUMBER:
+          value(next.asNumber());
+          break;
+        case BOOLEAN:
+          value(next.asBoolean());
+          break;
+        default:
+          nullValue();
+      }
+
+      // close the containers whose children have been written
+      JsonValueCursor<Void> cursor;
+      while ((cursor = stack.peek()) != null && !cursor.hasNext()) {
+        stack.pop();
+        if (cursor.isObject()) {
+          endObject();
+        } else {
+          endArray();
+        }
+      }
+      if (cursor == null) {
+        return;
+      }
+
+      next = cursor.next();
+      if (cursor.isObject()) {
+        name(cursor.name());
+      }
+    }
+  }
+
+  /**
+   * Formats a number in the same way as {@code elemental.json}, i.e. integral values are written
+   * without fraction, and non-finite values are written as {@code null}.
+   */
+  static String formatNumber(double value) {
+    if (Double.isInfinite(value) || Double.isNaN(value)) {
+      return "null";
+    }
+    String s = String.valueOf(value);
+    if (s.endsWith(".0")) {
+      s = s.substring(0, s.length() - 2);
+    }
+    return s;
+  }
+}
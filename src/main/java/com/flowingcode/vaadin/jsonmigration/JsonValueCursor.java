@@ -0,0 +1,82 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+
+/**
+ * Position within the children of an elemental object or array. Iterative converters keep a stack
+ * of cursors, one for each container that is being visited.
+ *
+ * @param <T> the type of the value that is built from the container
+ * @author Javier Godoy / Flowing Code
+ */
+final class JsonValueCursor<T> {
+
+  private final JsonValue container;
+
+  private final String[] keys;
+
+  private final int length;
+
+  private int index;
+
+  /** The value that is built from the container. */
+  final T target;
+
+  JsonValueCursor(JsonValue container, T target) {
+    this.container = container;
+    this.target = target;
+    if (container.getType() == JsonType.OBJECT) {
+      keys = ((JsonObject) container).keys();
+      length = keys.length;
+    } else {
+      keys = null;
+      length = ((JsonArray) container).length();
+    }
+  }
+
+  /** Returns whether the container is an object (otherwise it is an array). */
+  boolean isObject() {
+    return keys != null;
+  }
+
+  boolean hasNext() {
+    return index < length;
+  }
+
+  /** Advances to the next child and returns it. */
+  JsonValue next() {
+    int i = index++;
+    if (keys != null) {
+      return ((JsonObject) container).get(keys[i]);
+    } else {
+      return ((JsonArray) container).get(i);
+    }
+  }
+
+  /** Returns the key of the current child, if the container is an object. */
+  String name() {
+    return keys[index - 1];
+  }
+}
@@ -22,10 +22,10 @@ package com.flowingcode.vaadin.jsonmigration;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.page.PendingJavaScriptResult;
 import elemental.json.JsonValue;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.experimental.Delegate;
 
 @NoArgsConstructor
@@ -54,9 +54,8 @@ class LegacyJsonMigrationHelper implements JsonMigrationHelper {
   }
 
   @Override
-  @SneakyThrows
-  public Object invoke(Method method, Object instance, Object... args) {
-    return method.invoke(instance, args);
+  public MethodHandle adaptMethodHandle(MethodHandle handle, MethodType type) {
+    return handle.asFixedArity().asType(type);
   }
 
   @Override
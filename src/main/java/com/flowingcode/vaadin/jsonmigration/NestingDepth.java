@@ -0,0 +1,86 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+/**
+ * Depth budget of the JSON documents and object graphs that are converted. The maximum depth is
+ * given by the {@code jsonmigration.maxDepth} system property (1000 by default).
+ *
+ * <p>Conversions between JSON trees use an explicit stack and call {@link #check(int)} when a
+ * nested container is pushed. Conversions of object graphs, which recurse through generated codecs,
+ * track their depth per thread through {@link #enter(Object)} and {@link #exit()}.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+final class NestingDepth {
+
+  static final int MAX_DEPTH = Integer.getInteger("jsonmigration.maxDepth", 1000);
+
+  // nesting depth of the object graph being converted by the current thread
+  private static final ThreadLocal<int[]> current = ThreadLocal.withInitial(() -> new int[1]);
+
+  private NestingDepth() {}
+
+  /** Thrown when a document or object graph is nested deeper than the maximum depth. */
+  @SuppressWarnings("serial")
+  static final class ExceededException extends IllegalArgumentException {
+    ExceededException(String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * Checks the depth of a container that is about to be converted.
+   *
+   * @throws IllegalArgumentException if {@code depth} exceeds the maximum depth
+   */
+  static void check(int depth) {
+    if (depth > MAX_DEPTH) {
+      throw new ExceededException("Maximum nesting depth of " + MAX_DEPTH + " exceeded");
+    }
+  }
+
+  /**
+   * Increments the depth of the current thread, before converting the properties or items of an
+   * object. Each call must be paired with {@link #exit()}.
+   *
+   * @throws IllegalArgumentException if the maximum depth is exceeded
+   */
+  static void enter(Object object) {
+    int[] depth = current.get();
+    if (depth[0] >= MAX_DEPTH) {
+      throw new ExceededException(
+          "Maximum nesting depth of "
+              + MAX_DEPTH
+              + " exceeded while converting "
+              + object.getClass());
+    }
+    depth[0]++;
+  }
+
+  static void exit() {
+    current.get()[0]--;
+  }
+
+  /** Returns whether the current thread is converting the properties or items of an object. */
+  static boolean isNested() {
+    return current.get()[0] > 0;
+  }
+}
@@ -0,0 +1,198 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events of the conversions, the instrumentation, {@link JsonSerializer}, and
+ * the decoding of JavaScript results. Each {@code begin} method returns an event, or {@code null}
+ * if the event is disabled, which must be passed to the matching {@code end} method.
+ *
+ * <p>This implementation is used on Java 11 and later.
+ *
+ * @author Javier Godoy / Flowing Code
+ */
+final class FlightRecorderEvents {
+
+  private static final String CATEGORY = "JSON Migration Helper";
+
+  @Name("com.flowingcode.jsonmigration.Conversion")
+  @Label("JSON Conversion")
+  @Description("Conversion between elemental values and Jackson nodes")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  static final class ConversionEvent extends Event {
+
+    @Label("Direction")
+    String direction;
+
+    @Label("Node Count")
+    int nodeCount;
+
+    @Label("Depth")
+    int depth;
+  }
+
+  @Name("com.flowingcode.jsonmigration.Instrumentation")
+  @Label("Class Instrumentation")
+  @Description("Generation or loading of an instrumented class")
+  @Category(CATEGORY)
+  static final class InstrumentationEvent extends Event {
+
+    @Label("Instrumented Class")
+    Class<?> instrumentedClass;
+
+    @Label("Source")
+    String source;
+
+    @Label("Bytecode Size")
+    @DataAmount
+    int bytecodeSize;
+  }
+
+  @Name("com.flowingcode.jsonmigration.Serialization")
+  @Label("JSON Serialization")
+  @Description("Operation of JsonSerializer")
+  @Category(CATEGORY)
+  static final class SerializationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Type")
+    Class<?> type;
+  }
+
+  @Name("com.flowingcode.jsonmigration.JavaScriptResultDecode")
+  @Label("JavaScript Result Decode")
+  @Description("Conversion of the result of a JavaScript execution")
+  @Category(CATEGORY)
+  @StackTrace(false)
+  static final class DecodeEvent extends Event {
+
+    @Label("Target Type")
+    Class<?> targetType;
+  }
+
+  private static final EventType CONVERSION = EventType.getEventType(ConversionEvent.class);
+
+  private static final EventType INSTRUMENTATION =
+      EventType.getEventType(InstrumentationEvent.class);
+
+  private static final EventType SERIALIZATION = EventType.getEventType(SerializationEvent.class);
+
+  private static final EventType DECODE = EventType.getEventType(DecodeEvent.class);
+
+  private FlightRecorderEvents() {}
+
+  static Object beginConversion() {
+    if (!CONVERSION.isEnabled()) {
+      return null;
+    }
+    ConversionEvent event = new ConversionEvent();
+    event.begin();
+    return event;
+  }
+
+  static void endConversion(Object event, boolean toJsonNode, int nodeCount, int depth) {
+    if (event != null) {
+      ConversionEvent conversion = (ConversionEvent) event;
+      conversion.end();
+      if (conversion.shouldCommit()) {
+        conversion.direction = toJsonNode ? "JsonValue to JsonNode" : "JsonNode to JsonValue";
+        conversion.nodeCount = nodeCount;
+        conversion.depth = depth;
+        conversion.commit();
+      }
+    }
+  }
+
+  static Object beginInstrumentation() {
+    if (!INSTRUMENTATION.isEnabled()) {
+      return null;
+    }
+    InstrumentationEvent event = new InstrumentationEvent();
+    event.begin();
+    return event;
+  }
+
+  static void endInstrumentation(
+      Object event, Class<?> instrumentedClass, String source, int bytecodeSize) {
+    if (event != null) {
+      InstrumentationEvent instrumentation = (InstrumentationEvent) event;
+      instrumentation.end();
+      if (instrumentation.shouldCommit()) {
+        instrumentation.instrumentedClass = instrumentedClass;
+        instrumentation.source = source;
+        instrumentation.bytecodeSize = bytecodeSize;
+        instrumentation.commit();
+      }
+    }
+  }
+
+  static Object beginSerialization() {
+    if (!SERIALIZATION.isEnabled() || NestingDepth.isNested()) {
+      return null;
+    }
+    SerializationEvent event = new SerializationEvent();
+    event.begin();
+    return event;
+  }
+
+  static void endSerialization(Object event, String operation, Class<?> type) {
+    if (event != null) {
+      SerializationEvent serialization = (SerializationEvent) event;
+      serialization.end();
+      if (serialization.shouldCommit()) {
+        serialization.operation = operation;
+        serialization.type = type;
+        serialization.commit();
+      }
+    }
+  }
+
+  static Object beginDecode() {
+    if (!DECODE.isEnabled()) {
+      return null;
+    }
+    DecodeEvent event = new DecodeEvent();
+    event.begin();
+    return event;
+  }
+
+  static void endDecode(Object event, Class<?> targetType) {
+    if (event != null) {
+      DecodeEvent decode = (DecodeEvent) event;
+      decode.end();
+      if (decode.shouldCommit()) {
+        decode.targetType = targetType;
+        decode.commit();
+      }
+    }
+  }
+}
@@ -0,0 +1,270 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.flowingcode.vaadin.jsonmigration.BeanMetadata.Codec;
+import elemental.json.Json;
+import elemental.json.JsonValue;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+
+public class BeanCodecGeneratorTest {
+
+  public static class Primitives {
+    private int i;
+    private long l;
+    private double d;
+    private float f;
+    private short s;
+    private byte b;
+    private boolean z;
+    private char c;
+    private Integer boxed;
+    private String string;
+    private List<String> list;
+
+    public int getI() {
+      return i;
+    }
+
+    public void setI(int i) {
+      this.i = i;
+    }
+
+    public long getL() {
+      return l;
+    }
+
+    public void setL(long l) {
+      this.l = l;
+    }
+
+    public double getD() {
+      return d;
+    }
+
+    public void setD(double d) {
+      this.d = d;
+    }
+
+    public float getF() {
+      return f;
+    }
+
+    public void setF(float f) {
+      this.f = f;
+    }
+
+    public short getS() {
+      return s;
+    }
+
+    public void setS(short s) {
+      this.s = s;
+    }
+
+    public byte getB() {
+      return b;
+    }
+
+    public void setB(byte b) {
+      this.b = b;
+    }
+
+    public boolean isZ() {
+      return z;
+    }
+
+    public void setZ(boolean z) {
+      this.z = z;
+    }
+
+    public char getC() {
+      return c;
+    }
+
+    public void setC(char c) {
+      this.c = c;
+    }
+
+    public Integer getBoxed() {
+      return boxed;
+    }
+
+    public void setBoxed(Integer boxed) {
+      this.boxed = boxed;
+    }
+
+    public String getString() {
+      return string;
+    }
+
+    public void setString(String string) {
+      this.string = string;
+    }
+
+    public List<String> getList() {
+      return list;
+    }
+
+    public void setList(List<String> list) {
+      this.list = list;
+    }
+
+    @Override
+    public String toString() {
+      return Arrays.asList(i, l, d, f, s, b, z, (int) c, boxed, string, list).toString();
+    }
+  }
+
+  enum Color {
+    RED,
+    GREEN
+  }
+
+  public static class HiddenPropertyType {
+    private Color color;
+
+    public Color getColor() {
+      return color;
+    }
+
+    public void setColor(Color color) {
+      this.color = color;
+    }
+  }
+
+  @After
+  public void clearCache() {
+    JsonSerializer.clearCache(Primitives.class);
+    JsonSerializer.clearCache(HiddenPropertyType.class);
+  }
+
+  private static void useCodec(boolean generated) {
+    JsonSerializer.clearCache(Primitives.class);
+    if (!generated) {
+      BeanMetadata.of(Primitives.class).setCodec(Codec.REFLECTIVE);
+    }
+  }
+
+  // returns the deserialized bean, or the exception thrown
+  private static String deserialize(String json, boolean generated) {
+    useCodec(generated);
+    try {
+      return JsonSerializer.toObject(Primitives.class, Json.parse(json)).toString();
+    } catch (IllegalArgumentException e) {
+      return e + " caused by " + e.getCause().getClass().getName();
+    } finally {
+      if (generated) {
+        assertNotNull(BeanMetadata.of(Primitives.class).getCodec().getDeserializer());
+      } else {
+        assertNull(BeanMetadata.of(Primitives.class).getCodec().getDeserializer());
+      }
+    }
+  }
+
+  private static void assertSameResult(String json) {
+    assertEquals(json, deserialize(json, false), deserialize(json, true));
+  }
+
+  @Test
+  public void testDeserializeValues() {
+    String json =
+        "{'i':1,'l':2,'d':1.5,'f':2.5,'s':3,'b':4,'z':true,'c':'x',"
+            + "'boxed':5,'string':'str','list':['a','b'],'unknown':1}";
+    json = json.replace('\'', '"');
+    assertSameResult(json);
+    assertEquals("[1, 2, 1.5, 2.5, 3, 4, true, 120, 5, str, [a, b]]", deserialize(json, true));
+  }
+
+  @Test
+  public void testDeserializeNarrowing() {
+    assertSameResult("{\"i\":1.9,\"l\":-2.5,\"s\":70000,\"b\":300,\"f\":1e300}");
+    assertSameResult("{\"i\":1e20,\"l\":1e20}");
+  }
+
+  @Test
+  public void testDeserializeNull() {
+    assertSameResult("{\"boxed\":null,\"string\":null,\"list\":null}");
+    for (String name : new String[] {"i", "l", "d", "f", "s", "b", "z", "c"}) {
+      String json = "{\"" + name + "\":null}";
+      assertSameResult(json);
+      assertEquals(
+          IllegalArgumentException.class.getName(),
+          deserialize(json, true).replaceAll(":.*", ""));
+    }
+  }
+
+  @Test
+  public void testDeserializeTypeMismatch() {
+    assertSameResult("{\"i\":\"12\",\"d\":\"x\",\"z\":\"false\"}");
+    assertSameResult("{\"z\":1,\"string\":2}");
+    assertSameResult("{\"c\":\"\"}");
+    assertSameResult("{\"c\":\"xyz\"}");
+    assertSameResult("{\"i\":true}");
+    assertSameResult("{\"list\":\"x\"}");
+  }
+
+  private static String serialize(Primitives bean, boolean generated) {
+    useCodec(generated);
+    JsonValue json = JsonSerializer.toJson(bean);
+    if (generated) {
+      assertNotNull(BeanMetadata.of(Primitives.class).getCodec().getSerializer());
+    } else {
+      assertNull(BeanMetadata.of(Primitives.class).getCodec().getSerializer());
+    }
+    return json.toJson();
+  }
+
+  @Test
+  public void testSerialize() {
+    Primitives bean = new Primitives();
+    assertEquals(serialize(bean, false), serialize(bean, true));
+
+    bean.setI(Integer.MIN_VALUE);
+    bean.setL(Long.MAX_VALUE);
+    bean.setD(Double.NaN);
+    bean.setF(Float.POSITIVE_INFINITY);
+    bean.setS(Short.MIN_VALUE);
+    bean.setB(Byte.MAX_VALUE);
+    bean.setZ(true);
+    bean.setC('é');
+    bean.setBoxed(7);
+    bean.setString("str");
+    bean.setList(Arrays.asList("a", null));
+    assertEquals(serialize(bean, false), serialize(bean, true));
+  }
+
+  @Test
+  public void testNonPublicPropertyType() {
+    HiddenPropertyType bean =
+        JsonSerializer.toObject(HiddenPropertyType.class, Json.parse("{\"color\":\"GREEN\"}"));
+    assertEquals(Color.GREEN, bean.getColor());
+    assertEquals("{\"color\":\"GREEN\"}", JsonSerializer.toJson(bean).toJson());
+    assertSame(Codec.REFLECTIVE, BeanMetadata.of(HiddenPropertyType.class).getCodec());
+  }
+}
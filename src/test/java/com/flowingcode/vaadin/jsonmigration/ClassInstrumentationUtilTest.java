@@ -0,0 +1,72 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class ClassInstrumentationUtilTest {
+
+  @Test
+  public void testInstrumentClassIsCached() {
+    ClassInstrumentationUtil instrumentation = new ClassInstrumentationUtil(24);
+    Class<?> type = instrumentation.instrumentClass(LegacyClientCallable_JsonObject__V.class);
+    assertNotSame(LegacyClientCallable_JsonObject__V.class, type);
+    assertSame(type, instrumentation.instrumentClass(LegacyClientCallable_JsonObject__V.class));
+  }
+
+  @Test
+  public void testInstrumentClassInNewInstance() {
+    Class<?> type =
+        new ClassInstrumentationUtil(24).instrumentClass(LegacyClientCallable_JsonNumber__V.class);
+    assertSame(
+        type,
+        new ClassInstrumentationUtil(24).instrumentClass(LegacyClientCallable_JsonNumber__V.class));
+  }
+
+  @Test
+  public void testInstrumentClassConcurrently() throws Exception {
+    ClassInstrumentationUtil instrumentation = new ClassInstrumentationUtil(24);
+    Callable<Class<?>> task =
+        () -> instrumentation.instrumentClass(LegacyClientCallable_JsonString__V.class);
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Class<?>>> results = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        results.add(executor.submit(task));
+      }
+      Class<?> type = results.get(0).get();
+      for (Future<Class<?>> result : results) {
+        assertSame(type, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
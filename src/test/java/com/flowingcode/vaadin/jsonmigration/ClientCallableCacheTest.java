@@ -0,0 +1,102 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.vaadin.flow.component.ClientCallable;
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import java.lang.reflect.Method;
+import org.junit.Test;
+
+public class ClientCallableCacheTest {
+
+  public static class Cached extends BaseClientCallable {
+
+    int invocations;
+
+    @ClientCallable
+    @CachedClientCallable(maxEntries = 2)
+    public String test(String arg, int i) {
+      invocations++;
+      return arg + i;
+    }
+
+    @LegacyClientCallable
+    @CachedClientCallable
+    private JsonObject lookup(JsonObject arg) {
+      invocations++;
+      JsonObject result = Json.createObject();
+      result.put("value", arg.getString("key"));
+      return result;
+    }
+  }
+
+  private static JsonObject createObject(String value) {
+    JsonObject json = Json.createObject();
+    json.put("key", value);
+    return json;
+  }
+
+  @Test
+  public void testCacheResults() throws Exception {
+    Class<?> type = new ClassInstrumentationUtil(24, false).instrumentClass(Cached.class);
+    Cached instance = (Cached) type.getDeclaredConstructor().newInstance();
+    Method test = type.getDeclaredMethod("test", String.class, int.class);
+
+    assertEquals("a1", test.invoke(instance, "a", 1));
+    assertEquals("a1", test.invoke(instance, "a", 1));
+    assertEquals(1, instance.invocations);
+
+    assertEquals("a2", test.invoke(instance, "a", 2));
+    assertEquals("b1", test.invoke(instance, "b", 1));
+    assertEquals(3, instance.invocations);
+
+    // the least recently used result was evicted
+    assertEquals("a1", test.invoke(instance, "a", 1));
+    assertEquals(4, instance.invocations);
+
+    // each component has its own cache
+    Cached other = (Cached) type.getDeclaredConstructor().newInstance();
+    assertEquals("a1", test.invoke(other, "a", 1));
+    assertEquals(1, other.invocations);
+  }
+
+  @Test
+  public void testCacheByStructure() throws Exception {
+    Class<?> type = new ClassInstrumentationUtil(24, false).instrumentClass(Cached.class);
+    Cached instance = (Cached) type.getDeclaredConstructor().newInstance();
+    Method lookup = type.getDeclaredMethod("lookup", JsonObject.class);
+    lookup.setAccessible(true);
+
+    Object result = lookup.invoke(instance, createObject("x"));
+    assertSame(result, lookup.invoke(instance, createObject("x")));
+    assertEquals(1, instance.invocations);
+    lookup.invoke(instance, createObject("y"));
+    assertEquals(2, instance.invocations);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMaxEntries() {
+    ClientCallableCache.create(0, 0);
+  }
+}
@@ -0,0 +1,152 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.vaadin.flow.component.ClientCallable;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.server.Command;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClientCallableCoalescerTest {
+
+  public static class Coalesced extends BaseClientCallable {
+
+    final List<String> invocations = new ArrayList<>();
+
+    @ClientCallable
+    @CoalescedClientCallable(window = 50)
+    public void test(String arg, int i) {
+      invocations.add(arg + i);
+    }
+  }
+
+  // keeps the scheduled deliveries until the test runs them
+  private static final class ManualScheduler
+      implements ClientCallableCoalescer.DeliveryScheduler {
+
+    final List<Command> deliveries = new ArrayList<>();
+
+    final List<Runnable> discards = new ArrayList<>();
+
+    boolean attached = true;
+
+    long delayMillis;
+
+    @Override
+    public boolean schedule(
+        Component component, long delayMillis, Command delivery, Runnable discard) {
+      if (!attached) {
+        return false;
+      }
+      this.delayMillis = delayMillis;
+      deliveries.add(delivery);
+      discards.add(discard);
+      return true;
+    }
+  }
+
+  private ManualScheduler scheduler;
+
+  private ClientCallableCoalescer coalescer;
+
+  private Coalesced instance;
+
+  @Before
+  public void setup() throws Exception {
+    scheduler = new ManualScheduler();
+    Method method = Coalesced.class.getMethod("test", String.class, int.class);
+    coalescer = new ClientCallableCoalescer(method, 50, scheduler);
+    instance = new Coalesced();
+  }
+
+  @Test
+  public void testCoalesceInvocations() {
+    assertTrue(coalescer.submit(instance, new Object[] {"a", 1}));
+    assertTrue(coalescer.submit(instance, new Object[] {"a", 2}));
+    assertTrue(coalescer.submit(instance, new Object[] {"a", 3}));
+    assertEquals(1, scheduler.deliveries.size());
+    assertEquals(50, scheduler.delayMillis);
+    assertTrue(instance.invocations.isEmpty());
+
+    scheduler.deliveries.get(0).execute();
+    assertEquals(Arrays.asList("a3"), instance.invocations);
+
+    assertTrue(coalescer.submit(instance, new Object[] {"b", 1}));
+    assertEquals(2, scheduler.deliveries.size());
+    scheduler.deliveries.get(1).execute();
+    assertEquals(Arrays.asList("a3", "b1"), instance.invocations);
+  }
+
+  @Test
+  public void testCoalescePerComponent() {
+    Coalesced other = new Coalesced();
+    assertTrue(coalescer.submit(instance, new Object[] {"a", 1}));
+    assertTrue(coalescer.submit(other, new Object[] {"b", 1}));
+    assertTrue(coalescer.submit(instance, new Object[] {"a", 2}));
+    assertEquals(2, scheduler.deliveries.size());
+
+    scheduler.deliveries.forEach(Command::execute);
+    assertEquals(Arrays.asList("a2"), instance.invocations);
+    assertEquals(Arrays.asList("b1"), other.invocations);
+  }
+
+  @Test
+  public void testDiscardPendingInvocation() {
+    assertTrue(coalescer.submit(instance, new Object[] {"a", 1}));
+    scheduler.discards.get(0).run();
+    scheduler.deliveries.get(0).execute();
+    assertTrue(instance.invocations.isEmpty());
+
+    // the discarded invocation does not prevent scheduling a new delivery
+    assertTrue(coalescer.submit(instance, new Object[] {"a", 2}));
+    assertEquals(2, scheduler.deliveries.size());
+    scheduler.deliveries.get(1).execute();
+    assertEquals(Arrays.asList("a2"), instance.invocations);
+  }
+
+  @Test
+  public void testNotScheduled() {
+    scheduler.attached = false;
+    assertFalse(coalescer.submit(instance, new Object[] {"a", 1}));
+
+    scheduler.attached = true;
+    assertTrue(coalescer.submit(instance, new Object[] {"a", 2}));
+    assertEquals(1, scheduler.deliveries.size());
+  }
+
+  @Test
+  public void testDetachedComponent() throws Exception {
+    Class<?> type = new ClassInstrumentationUtil(24, false).instrumentClass(Coalesced.class);
+    Coalesced component = (Coalesced) type.getDeclaredConstructor().newInstance();
+    Method test = type.getDeclaredMethod("test", String.class, int.class);
+
+    test.invoke(component, "a", 1);
+    assertEquals(Arrays.asList("a1"), component.invocations);
+  }
+}
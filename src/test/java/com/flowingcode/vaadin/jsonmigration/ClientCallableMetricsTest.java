@@ -0,0 +1,73 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import java.lang.reflect.Method;
+import org.junit.Test;
+
+public class ClientCallableMetricsTest {
+
+  public static class Measured extends BaseClientCallable {
+
+    @LegacyClientCallable
+    public double test(JsonObject arg, double d) {
+      trace();
+      return d * 2;
+    }
+
+    @LegacyClientCallable
+    private void hidden(long arg) {
+      trace();
+    }
+  }
+
+  private static DefaultClientCallableMetrics.Statistics getStatistics(String methodName) {
+    return DefaultClientCallableMetrics.getInstance().getStatistics().stream()
+        .filter(stats -> stats.getCallable().getClassName().equals(Measured.class.getName()))
+        .filter(stats -> stats.getCallable().getMethodName().equals(methodName))
+        .findFirst()
+        .orElseThrow(AssertionError::new);
+  }
+
+  @Test
+  public void testRecordMetrics() throws Exception {
+    Class<?> type = new ClassInstrumentationUtil(24, true).instrumentClass(Measured.class);
+    Measured instance = (Measured) type.getDeclaredConstructor().newInstance();
+
+    Method test = type.getDeclaredMethod("test", JsonObject.class, double.class);
+    assertEquals(4.0, test.invoke(instance, Json.createObject(), 2.0));
+    assertEquals(3.0, test.invoke(instance, Json.createObject(), 1.5));
+
+    Method hidden = type.getDeclaredMethod("hidden", long.class);
+    hidden.setAccessible(true);
+    hidden.invoke(instance, 1L);
+
+    assertTrue(instance.hasBeenTraced());
+    DefaultClientCallableMetrics.Statistics stats = getStatistics("test");
+    assertEquals(2, stats.getCount());
+    assertTrue(stats.getInvocationNanos() >= 0);
+    assertEquals(1, getStatistics("hidden").getCount());
+  }
+}
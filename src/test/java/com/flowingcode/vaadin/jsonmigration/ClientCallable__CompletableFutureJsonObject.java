@@ -0,0 +1,39 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import com.vaadin.flow.component.ClientCallable;
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import java.util.concurrent.CompletableFuture;
+
+public class ClientCallable__CompletableFutureJsonObject extends BaseClientCallable {
+
+  @ClientCallable
+  public CompletableFuture<JsonObject> test() {
+    trace();
+    return CompletableFuture.supplyAsync(
+        () -> {
+          JsonObject json = Json.createObject();
+          json.put("async", true);
+          return json;
+        });
+  }
+}
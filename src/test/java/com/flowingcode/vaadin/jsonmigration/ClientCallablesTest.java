@@ -20,12 +20,15 @@
 package com.flowingcode.vaadin.jsonmigration;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
 
 import com.vaadin.flow.component.ClientCallable;
 import com.vaadin.flow.component.Component;
 import elemental.json.JsonValue;
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
 import org.junit.Test;
 
 public abstract class ClientCallablesTest {
@@ -229,6 +232,46 @@ public abstract class ClientCallablesTest {
     assertEquals(nonInstrumented.test().toJson(), result.toJson());
   }
 
+  /**
+   * Returns whether Flow accepts a client callable that returns {@code CompletableFuture}. Older
+   * versions of Flow reject it when the component is created.
+   */
+  private static boolean isCompletableFutureSupported() {
+    try {
+      new ClientCallable__CompletableFutureJsonObject();
+      return true;
+    } catch (IllegalStateException e) {
+      return false;
+    }
+  }
+
+  @Test
+  public void test__CompletableFutureJsonObject_signature() throws Exception {
+    Method testMethod =
+        getClientCallableTestMethod(
+            instrumentClass(ClientCallable__CompletableFutureJsonObject.class));
+    assertNotNull(MESSAGE, testMethod);
+    assertEquals(
+        ClientCallable__CompletableFutureJsonObject.class.getMethod("test").getGenericReturnType(),
+        testMethod.getGenericReturnType());
+  }
+
+  @Test
+  public void test__CompletableFutureJsonObject() throws Exception {
+    assumeTrue(
+        "Flow does not support CompletableFuture return types",
+        isCompletableFutureSupported());
+    ClientCallable__CompletableFutureJsonObject instrumented =
+        instrumentClass(ClientCallable__CompletableFutureJsonObject.class)
+            .getDeclaredConstructor()
+            .newInstance();
+    ClientCallable__CompletableFutureJsonObject nonInstrumented =
+        new ClientCallable__CompletableFutureJsonObject();
+    CompletableFuture<?> result = (CompletableFuture<?>) invokeTestMethod(instrumented);
+    assertTrue(instrumented.hasBeenTraced());
+    assertEquals(nonInstrumented.test().get().toJson(), ((JsonValue) result.get()).toJson());
+  }
+
   @Test
   public void test_JsonValue__V() throws Exception {
     ClientCallable_JsonValue__V instrumented =
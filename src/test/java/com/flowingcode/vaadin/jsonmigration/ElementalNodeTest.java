@@ -0,0 +1,175 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.JsonNodeFactory;
+import tools.jackson.databind.node.ObjectNode;
+
+public class ElementalNodeTest {
+
+  private static JsonObject createObject() {
+    JsonArray tags = Json.createArray();
+    tags.set(0, "a");
+    tags.set(1, "b");
+    JsonObject object = Json.createObject();
+    object.put("name", "node");
+    object.put("count", 42);
+    object.put("tags", tags);
+    return object;
+  }
+
+  @Test
+  public void testLazyObjectNode() {
+    ObjectNode node = new ElementalObjectNode(createObject(), true);
+    assertEquals(3, node.size());
+    assertEquals("node", node.get("name").stringValue());
+    assertEquals(42, node.get("count").asInt());
+    assertEquals(2, node.get("tags").size());
+    assertEquals("b", node.get("tags").get(1).stringValue());
+  }
+
+  @Test
+  public void testLazyArrayNode() {
+    ArrayNode node = new ElementalArrayNode(createObject().getArray("tags"), true);
+    assertEquals(2, node.size());
+    assertEquals("a", node.get(0).stringValue());
+    node.add("c");
+    assertEquals(3, node.size());
+    assertEquals("c", node.get(2).stringValue());
+  }
+
+  @Test
+  public void testSerializeLazyNode() {
+    ObjectNode node = new ElementalObjectNode(createObject(), true);
+    assertEquals(
+        "{\"name\":\"node\",\"count\":42,\"tags\":[\"a\",\"b\"]}",
+        new JsonMapper().writeValueAsString(node));
+  }
+
+  @Test
+  public void testSerializeModifiedLazyNode() {
+    ObjectNode node = new ElementalObjectNode(createObject(), true);
+    node.remove("tags");
+    node.put("name", "changed");
+    assertEquals(
+        "{\"name\":\"changed\",\"count\":42.0}", new JsonMapper().writeValueAsString(node));
+  }
+
+  private static JsonArray createDeepArray(int depth) {
+    JsonArray root = Json.createArray();
+    JsonArray array = root;
+    for (int i = 1; i < depth; i++) {
+      JsonArray child = Json.createArray();
+      array.set(0, child);
+      array = child;
+    }
+    return root;
+  }
+
+  @Test
+  public void testConvertDeepArray() {
+    JsonArray json = createDeepArray(NestingDepth.MAX_DEPTH);
+    JsonNode node = JsonMigrationHelper25.convertToJsonNode(json);
+    assertEquals(json.toJson(), JsonMigrationHelper25.copyToJsonValue(node).toJson());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testConvertMaxDepth() {
+    JsonMigrationHelper25.convertToJsonNode(createDeepArray(NestingDepth.MAX_DEPTH + 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCopyMaxDepth() {
+    JsonArray json = createDeepArray(NestingDepth.MAX_DEPTH);
+    JsonNode node = JsonMigrationHelper25.convertToJsonNode(json);
+    JsonMigrationHelper25.copyToJsonValue(JsonNodeFactory.instance.arrayNode().add(node));
+  }
+
+  @Test
+  public void testConvertSiblingsAtMaxDepth() {
+    JsonArray json = Json.createArray();
+    json.set(0, createDeepArray(NestingDepth.MAX_DEPTH - 1));
+    json.set(1, createDeepArray(NestingDepth.MAX_DEPTH - 1));
+    JsonNode node = JsonMigrationHelper25.convertToJsonNode(json);
+    assertEquals(2, node.size());
+    assertEquals(json.toJson(), JsonMigrationHelper25.copyToJsonValue(node).toJson());
+  }
+
+  private static final String MIXED_JSON =
+      "{\"a\":[1,\"x\",null,true,{\"b\":[]},[[],{}]],\"c\":{\"d\":{\"e\":\"\\\"q\"}},\"f\":-0.5}";
+
+  @Test
+  public void testConvertMixedTree() {
+    JsonObject json = Json.parse(MIXED_JSON);
+    JsonNode node = JsonMigrationHelper25.convertToJsonNode(json);
+
+    List<String> names = new ArrayList<>();
+    node.propertyNames().forEach(names::add);
+    assertEquals(Arrays.asList("a", "c", "f"), names);
+    JsonNode array = node.get("a");
+    assertEquals(6, array.size());
+    assertEquals(1, array.get(0).asInt());
+    assertEquals("x", array.get(1).stringValue());
+    assertTrue(array.get(2).isNull());
+    assertTrue(array.get(3).booleanValue());
+    assertTrue(array.get(4).get("b").isArray());
+    assertTrue(array.get(5).get(0).isArray());
+    assertTrue(array.get(5).get(1).isObject());
+    assertEquals("\"q", node.get("c").get("d").get("e").stringValue());
+    assertEquals(-0.5, node.get("f").doubleValue(), 0);
+
+    JsonValue copy = JsonMigrationHelper25.copyToJsonValue(node);
+    assertEquals(MIXED_JSON, copy.toJson());
+    assertTrue(json.jsEquals(copy));
+  }
+
+  @Test
+  public void testConvertWideTree() {
+    JsonObject json = Json.createObject();
+    JsonArray items = Json.createArray();
+    for (int i = 0; i < 5000; i++) {
+      JsonArray item = Json.createArray();
+      item.set(0, i);
+      items.set(i, item);
+      json.put("k" + i, i);
+    }
+    json.put("items", items);
+
+    JsonNode node = JsonMigrationHelper25.convertToJsonNode(json);
+    assertEquals(5001, node.size());
+    assertEquals(4999, node.get("items").get(4999).get(0).asInt());
+    assertEquals(4999, node.get("k4999").asInt());
+    assertEquals(json.toJson(), JsonMigrationHelper25.copyToJsonValue(node).toJson());
+  }
+}
@@ -0,0 +1,92 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class InstrumentationCacheTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private static final Class<?> PARENT = LegacyClientCallable_JsonObject__V.class;
+
+  private static final String CLASS_NAME = PARENT.getName() + "$Instrumented";
+
+  private final AtomicInteger generated = new AtomicInteger();
+
+  private final Supplier<byte[]> generator =
+      () -> {
+        generated.incrementAndGet();
+        return new ClassInstrumentationUtil(24).generateBytecode(CLASS_NAME, PARENT);
+      };
+
+  private byte[] getBytecode(int version) {
+    return new InstrumentationCache(folder.getRoot().toPath(), version)
+        .getBytecode(CLASS_NAME, PARENT, generator);
+  }
+
+  private File[] getEntries() {
+    return folder.getRoot().listFiles();
+  }
+
+  @Test
+  public void testCachedBytecode() {
+    byte[] bytecode = getBytecode(24);
+    assertEquals(1, getEntries().length);
+
+    byte[] cached = getBytecode(24);
+    assertArrayEquals(bytecode, cached);
+    assertEquals(1, generated.get());
+  }
+
+  @Test
+  public void testVersionMismatch() {
+    getBytecode(24);
+    getBytecode(25);
+    assertEquals(2, getEntries().length);
+    assertEquals(2, generated.get());
+  }
+
+  @Test
+  public void testCorruptedEntry() throws Exception {
+    byte[] bytecode = getBytecode(24);
+
+    Path entry = getEntries()[0].toPath();
+    byte[] data = Files.readAllBytes(entry);
+    data[data.length / 2] ^= 1;
+    Files.write(entry, data);
+
+    byte[] regenerated = getBytecode(24);
+    assertArrayEquals(bytecode, regenerated);
+    assertEquals(2, generated.get());
+    assertArrayEquals(bytecode, getBytecode(24));
+    assertEquals(2, generated.get());
+  }
+}
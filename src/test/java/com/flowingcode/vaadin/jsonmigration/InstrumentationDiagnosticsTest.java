@@ -0,0 +1,82 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import elemental.json.JsonObject;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Test;
+
+public class InstrumentationDiagnosticsTest {
+
+  public static class Diagnosed extends BaseClientCallable {
+
+    @LegacyClientCallable
+    public void test(JsonObject arg) {
+      trace();
+    }
+  }
+
+  private final InstrumentationDiagnostics diagnostics = InstrumentationDiagnostics.getInstance();
+
+  private List<InstrumentedClassInfo> getDiagnosedClasses() {
+    return diagnostics.getInstrumentedClasses().stream()
+        .filter(info -> info.getParentClassName().equals(Diagnosed.class.getName()))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testInstrumentedClassInfo() {
+    long requests = diagnostics.getInstrumentationRequests();
+    long misses = diagnostics.getCacheMisses();
+
+    ClassInstrumentationUtil instrumentation = new ClassInstrumentationUtil(24);
+    Class<?> type = instrumentation.instrumentClass(Diagnosed.class);
+    instrumentation.instrumentClass(Diagnosed.class);
+
+    assertEquals(requests + 2, diagnostics.getInstrumentationRequests());
+    assertEquals(misses + 1, diagnostics.getCacheMisses());
+
+    List<InstrumentedClassInfo> infos = getDiagnosedClasses();
+    assertEquals(1, infos.size());
+    InstrumentedClassInfo info = infos.get(0);
+    assertEquals(type.getName(), info.getClassName());
+    assertEquals(24, info.getVaadinVersion());
+    assertEquals(InstrumentedClassInfo.Source.GENERATED, info.getSource());
+    assertEquals(1, info.getOverriddenMethods().size());
+    assertTrue(info.getBytecodeSize() > 0);
+  }
+
+  @Test
+  public void testMBean() throws Exception {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(InstrumentationDiagnostics.OBJECT_NAME);
+    assertTrue(server.isRegistered(name));
+    assertEquals(
+        diagnostics.getInstrumentationRequests(),
+        server.getAttribute(name, "InstrumentationRequests"));
+  }
+}
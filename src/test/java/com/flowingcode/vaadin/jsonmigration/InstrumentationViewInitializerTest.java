@@ -0,0 +1,219 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.flowingcode.vaadin.jsonmigration.InstrumentationViewInitializer.LazyInstrumentationListener;
+import com.vaadin.flow.component.Component;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import org.junit.After;
+import org.junit.Test;
+
+public class InstrumentationViewInitializerTest {
+
+  @InstrumentedRoute("a")
+  public static class ViewA extends BaseClientCallable {}
+
+  @InstrumentedRoute("b")
+  public static class ViewB extends BaseClientCallable {}
+
+  @InstrumentedRoute("c")
+  public static class ViewC extends BaseClientCallable {}
+
+  public static class InstrumentedA extends ViewA {}
+
+  public static class InstrumentedC extends ViewC {}
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private static Class<? extends Component> instrument(Class<? extends Component> type) {
+    if (type == ViewA.class) {
+      return InstrumentedA.class;
+    } else if (type == ViewC.class) {
+      return InstrumentedC.class;
+    } else {
+      return type;
+    }
+  }
+
+  @Test
+  public void testInstrumentAll() {
+    CountDownLatch latch = new CountDownLatch(3);
+    List<Class<? extends Component>> result =
+        InstrumentationViewInitializer.instrumentAll(
+            Arrays.asList(ViewA.class, ViewB.class, ViewC.class),
+            executor,
+            type -> {
+              // all the targets are instrumented at the same time
+              latch.countDown();
+              try {
+                assertTrue(latch.await(10, TimeUnit.SECONDS));
+              } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+              }
+              return instrument(type);
+            });
+    assertEquals(Arrays.asList(InstrumentedA.class, ViewB.class, InstrumentedC.class), result);
+  }
+
+  @Test
+  public void testInstrumentAllFailure() {
+    IllegalStateException exception = new IllegalStateException();
+    try {
+      InstrumentationViewInitializer.instrumentAll(
+          Arrays.asList(ViewA.class, ViewB.class, ViewC.class),
+          executor,
+          type -> {
+            if (type == ViewB.class) {
+              throw exception;
+            }
+            return instrument(type);
+          });
+      fail();
+    } catch (IllegalStateException e) {
+      assertSame(exception, e);
+    }
+  }
+
+  private final Map<String, Class<? extends Component>> updatedRoutes = new ConcurrentHashMap<>();
+
+  private final AtomicInteger instrumentations = new AtomicInteger();
+
+  private LazyInstrumentationListener createListener(
+      UnaryOperator<Class<? extends Component>> instrumenter) {
+    Map<Class<?>, String> routes = new ConcurrentHashMap<>();
+    routes.put(ViewA.class, "a");
+    routes.put(ViewB.class, "b");
+    return new LazyInstrumentationListener(
+        routes,
+        type -> {
+          instrumentations.incrementAndGet();
+          return instrumenter.apply(type);
+        },
+        updatedRoutes::put);
+  }
+
+  @Test
+  public void testLazyRerouteOnce() {
+    LazyInstrumentationListener listener =
+        createListener(InstrumentationViewInitializerTest::instrument);
+    assertTrue(listener.instrument(ViewA.class));
+    assertEquals(Collections.singletonMap("a", InstrumentedA.class), updatedRoutes);
+
+    // the rerouted navigation resolves the instrumented class
+    assertFalse(listener.instrument(InstrumentedA.class));
+    // a navigation that resolved the target before the route was replaced
+    assertTrue(listener.instrument(ViewA.class));
+    assertEquals(1, instrumentations.get());
+    assertEquals(1, updatedRoutes.size());
+  }
+
+  @Test
+  public void testLazyNoInstrumentationNeeded() {
+    LazyInstrumentationListener listener =
+        createListener(InstrumentationViewInitializerTest::instrument);
+    assertFalse(listener.instrument(ViewB.class));
+    assertFalse(listener.instrument(ViewB.class));
+    assertEquals(1, instrumentations.get());
+    assertTrue(updatedRoutes.isEmpty());
+  }
+
+  @Test
+  public void testLazyNotRegistered() {
+    LazyInstrumentationListener listener =
+        createListener(InstrumentationViewInitializerTest::instrument);
+    assertFalse(listener.instrument(ViewC.class));
+    assertEquals(0, instrumentations.get());
+  }
+
+  @Test
+  public void testLazyFailureIsRetried() {
+    AtomicBoolean fail = new AtomicBoolean(true);
+    LazyInstrumentationListener listener =
+        createListener(
+            type -> {
+              if (fail.getAndSet(false)) {
+                throw new IllegalStateException();
+              }
+              return instrument(type);
+            });
+    try {
+      listener.instrument(ViewA.class);
+      fail();
+    } catch (IllegalStateException e) {
+      assertTrue(updatedRoutes.isEmpty());
+    }
+    assertTrue(listener.instrument(ViewA.class));
+    assertEquals(2, instrumentations.get());
+  }
+
+  @Test
+  public void testLazyConcurrentFirstNavigation() throws Exception {
+    int threads = 3;
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    LazyInstrumentationListener listener =
+        createListener(
+            type -> {
+              started.countDown();
+              try {
+                release.await(10, TimeUnit.SECONDS);
+              } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+              }
+              return instrument(type);
+            });
+
+    List<Future<Boolean>> futures = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      futures.add(executor.submit(() -> listener.instrument(ViewA.class)));
+    }
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    release.countDown();
+    for (Future<Boolean> future : futures) {
+      assertTrue(future.get(10, TimeUnit.SECONDS));
+    }
+    assertEquals(1, instrumentations.get());
+    assertEquals(Collections.singletonMap("a", InstrumentedA.class), updatedRoutes);
+  }
+}
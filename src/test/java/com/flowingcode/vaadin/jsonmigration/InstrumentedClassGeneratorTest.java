@@ -0,0 +1,132 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.vaadin.flow.component.ClientCallable;
+import elemental.json.JsonObject;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class InstrumentedClassGeneratorTest {
+
+  public static class Pregenerated extends BaseClientCallable {
+
+    @LegacyClientCallable
+    public void test(JsonObject arg) {
+      trace();
+    }
+
+    // stands for the class generated at build time
+    public static final class Instrumented24 extends Pregenerated {
+      public static final String PARENT_DIGEST = computeParentDigest(Pregenerated.class);
+    }
+  }
+
+  public static class StalePregenerated extends BaseClientCallable {
+
+    @LegacyClientCallable
+    public void test(JsonObject arg) {
+      trace();
+    }
+
+    // stands for a class generated at build time from a previous version of its parent
+    public static final class Instrumented24 extends StalePregenerated {
+      public static final String PARENT_DIGEST = "stale";
+    }
+  }
+
+  private static String computeParentDigest(Class<?> parent) {
+    try {
+      return InstrumentationCache.computeParentDigest(parent);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Test
+  public void testLoadPregeneratedClass() {
+    assertSame(
+        Pregenerated.Instrumented24.class,
+        new ClassInstrumentationUtil(24).instrumentClass(Pregenerated.class));
+  }
+
+  @Test
+  public void testIgnoreStalePregeneratedClass() throws Exception {
+    Class<?> type = new ClassInstrumentationUtil(24).instrumentClass(StalePregenerated.class);
+    assertNotSame(StalePregenerated.Instrumented24.class, type);
+    assertSame(StalePregenerated.class, type.getSuperclass());
+    Method method = type.getDeclaredMethod("test", JsonObject.class);
+    assertTrue(method.isAnnotationPresent(ClientCallable.class));
+  }
+
+  @Test
+  public void testGenerate() throws Exception {
+    File outputDirectory = Files.createTempDirectory("instrumented").toFile();
+    List<String> generated =
+        InstrumentedClassGenerator.generate(
+            outputDirectory,
+            Arrays.asList(
+                LegacyClientCallable_JsonObject__V.class.getName(),
+                ClientCallable__JsonObject.class.getName(),
+                ClientCallable__V.class.getName(),
+                JsonSerializer.class.getName()));
+
+    String legacy = LegacyClientCallable_JsonObject__V.class.getName();
+    String callable = ClientCallable__JsonObject.class.getName();
+    assertEquals(
+        Arrays.asList(
+            legacy + "$Instrumented24", legacy + "$Instrumented25", callable + "$Instrumented25"),
+        generated);
+
+    // the class file is defined directly, since other tests may define a class with the same name
+    // at runtime in the class loader of its parent
+    String name = legacy + "$Instrumented24";
+    Path path = outputDirectory.toPath().resolve(name.replace('.', '/') + ".class");
+    Class<?> type =
+        new GeneratedClassLoader(getClass().getClassLoader())
+            .defineGeneratedClass(name, () -> readAllBytes(path));
+    assertSame(LegacyClientCallable_JsonObject__V.class, type.getSuperclass());
+    Method method = type.getDeclaredMethod("test", JsonObject.class);
+    assertTrue(method.isAnnotationPresent(ClientCallable.class));
+    assertEquals(
+        computeParentDigest(LegacyClientCallable_JsonObject__V.class),
+        type.getDeclaredField(ClassInstrumentationUtil.PARENT_DIGEST).get(null));
+  }
+
+  private static byte[] readAllBytes(Path path) {
+    try {
+      return Files.readAllBytes(path);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.json.JsonMapper;
+
+public class JacksonJsonSerializerTest {
+
+  public enum Kind {
+    LEAF,
+    NODE
+  }
+
+  public static class Item {
+    private String name;
+    private double weight;
+    private boolean active;
+    private Kind kind;
+    private int[] values;
+    private List<Item> children;
+    private JsonObject extra;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public double getWeight() {
+      return weight;
+    }
+
+    public void setWeight(double weight) {
+      this.weight = weight;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public void setActive(boolean active) {
+      this.active = active;
+    }
+
+    public Kind getKind() {
+      return kind;
+    }
+
+    public void setKind(Kind kind) {
+      this.kind = kind;
+    }
+
+    public int[] getValues() {
+      return values;
+    }
+
+    public void setValues(int[] values) {
+      this.values = values;
+    }
+
+    public List<Item> getChildren() {
+      return children;
+    }
+
+    public void setChildren(List<Item> children) {
+      this.children = children;
+    }
+
+    public JsonObject getExtra() {
+      return extra;
+    }
+
+    public void setExtra(JsonObject extra) {
+      this.extra = extra;
+    }
+  }
+
+  private static final JsonMapper mapper = JsonMapper.builder().build();
+
+  private static Item createItem() {
+    Item leaf = new Item();
+    leaf.setName("leaf \"1\"");
+    leaf.setWeight(-0.5);
+    leaf.setKind(Kind.LEAF);
+    leaf.setValues(new int[0]);
+
+    Item item = new Item();
+    item.setName("root");
+    item.setWeight(1e21);
+    item.setActive(true);
+    item.setKind(Kind.NODE);
+    item.setValues(new int[] {1, -2, Integer.MAX_VALUE});
+    item.setChildren(Arrays.asList(leaf, null));
+    item.setExtra(Json.parse("{\"a\":[1,\"x\",null,{}],\"b\":{\"c\":false}}"));
+    return item;
+  }
+
+  private static String writeJson(Object bean) {
+    StringWriter out = new StringWriter();
+    try (JsonGenerator generator = mapper.createGenerator(out)) {
+      JacksonJsonSerializer.writeJson(bean, generator);
+    }
+    return out.toString();
+  }
+
+  @Test
+  public void testWriteJson() {
+    Item item = createItem();
+    assertEquals(JsonSerializer.toJson(item).toJson(), writeJson(item));
+    assertEquals(JsonSerializer.toJson(item.getChildren()).toJson(), writeJson(item.getChildren()));
+    assertEquals("null", writeJson(null));
+  }
+
+  @Test
+  public void testReadJsonFromParser() {
+    String json = JsonSerializer.toJson(createItem()).toJson();
+    Item expected = JsonSerializer.toObject(Item.class, Json.parse(json));
+    try (JsonParser parser = mapper.createParser(json)) {
+      Item item = JacksonJsonSerializer.readJson(Item.class, parser);
+      assertEquals(JsonToken.END_OBJECT, parser.currentToken());
+      assertEquals(JsonSerializer.toJson(expected).toJson(), JsonSerializer.toJson(item).toJson());
+    }
+  }
+
+  @Test
+  public void testReadJsonFromNode() {
+    String json = JsonSerializer.toJson(createItem()).toJson();
+    Item expected = JsonSerializer.toObject(Item.class, Json.parse(json));
+    Item item = JacksonJsonSerializer.readJson(Item.class, mapper.readTree(json));
+    assertEquals(JsonSerializer.toJson(expected).toJson(), JsonSerializer.toJson(item).toJson());
+    assertNull(JacksonJsonSerializer.readJson(Item.class, mapper.readTree("null")));
+  }
+
+  @Test
+  public void testReadJsonList() {
+    List<Item> items = Arrays.asList(createItem(), null, createItem().getChildren().get(0));
+    String json = JsonSerializer.toJson(items).toJson();
+    List<Item> expected =
+        JsonSerializer.toObjects(Item.class, (JsonArray) Json.instance().parse(json));
+
+    try (JsonParser parser = mapper.createParser(json)) {
+      List<Item> result = JacksonJsonSerializer.readJsonList(Item.class, parser);
+      assertEquals(JsonSerializer.toJson(expected).toJson(), JsonSerializer.toJson(result).toJson());
+    }
+
+    List<Item> result = JacksonJsonSerializer.readJsonList(Item.class, mapper.readTree(json));
+    assertEquals(JsonSerializer.toJson(expected).toJson(), JsonSerializer.toJson(result).toJson());
+    assertEquals(0, JacksonJsonSerializer.readJsonList(Item.class, mapper.readTree("null")).size());
+  }
+
+  @Test
+  public void testReadJsonSkipsUnknownProperties() {
+    String json = "{\"unknown\":[{\"x\":[1,2]},null],\"name\":\"a\",\"other\":{}}";
+    try (JsonParser parser = mapper.createParser(json)) {
+      assertEquals("a", JacksonJsonSerializer.readJson(Item.class, parser).getName());
+    }
+    assertEquals("a", JacksonJsonSerializer.readJson(Item.class, mapper.readTree(json)).getName());
+  }
+}
@@ -0,0 +1,268 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.Test;
+
+public class JsonMigrationCodecProcessorTest {
+
+  private static final String PERSON =
+      "package test.codec;\n"
+          + "import com.flowingcode.vaadin.jsonmigration.JsonMigrationCodec;\n"
+          + "import java.util.List;\n"
+          + "@JsonMigrationCodec\n"
+          + "public class Person {\n"
+          + "  private String name;\n"
+          + "  private int age;\n"
+          + "  private boolean active;\n"
+          + "  private List<String> tags;\n"
+          + "  public String getName() { return name; }\n"
+          + "  public void setName(String name) { this.name = name; }\n"
+          + "  public int getAge() { return age; }\n"
+          + "  public void setAge(int age) { this.age = age; }\n"
+          + "  public boolean isActive() { return active; }\n"
+          + "  public void setActive(boolean active) { this.active = active; }\n"
+          + "  public List<String> getTags() { return tags; }\n"
+          + "  public void setTags(List<String> tags) { this.tags = tags; }\n"
+          + "}\n";
+
+  private static final String POINT =
+      "package test.codec;\n"
+          + "import com.flowingcode.vaadin.jsonmigration.JsonMigrationCodec;\n"
+          + "public class Outer {\n"
+          + "  @JsonMigrationCodec\n"
+          + "  public record Point(int x, String label) {}\n"
+          + "}\n";
+
+  private static final String HIDDEN =
+      "package test.codec;\n"
+          + "import com.flowingcode.vaadin.jsonmigration.JsonMigrationCodec;\n"
+          + "@JsonMigrationCodec\n"
+          + "class Hidden {}\n";
+
+  private static boolean compile(Path dir, String... sources) throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    List<File> files = new ArrayList<>();
+    for (String source : sources) {
+      String name = source.replaceFirst("(?s).*?class (\\w+).*", "$1");
+      Path file = dir.resolve("src/test/codec/" + name + ".java");
+      Files.createDirectories(file.getParent());
+      Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+      files.add(file.toFile());
+    }
+
+    Path classes = Files.createDirectories(dir.resolve("classes"));
+    String classpath =
+        getLocation(JsonMigrationCodec.class) + File.pathSeparator + getLocation(Json.class);
+    try (StandardJavaFileManager fileManager =
+        compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+      Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+      CompilationTask task =
+          compiler.getTask(
+              null,
+              fileManager,
+              null,
+              Arrays.asList("-classpath", classpath, "-d", classes.toString()),
+              null,
+              units);
+      task.setProcessors(Collections.singletonList(new JsonMigrationCodecProcessor()));
+      return task.call();
+    }
+  }
+
+  private static String getLocation(Class<?> type) {
+    try {
+      return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static ClassLoader getClassLoader(Path dir) throws IOException {
+    return new URLClassLoader(
+        new URL[] {dir.resolve("classes").toUri().toURL()},
+        JsonMigrationCodecProcessorTest.class.getClassLoader());
+  }
+
+  @Test
+  public void testBeanCodec() throws Exception {
+    Path dir = Files.createTempDirectory("codec");
+    assertTrue(compile(dir, PERSON));
+    assertTrue(Files.exists(dir.resolve("classes/test/codec/Person_JsonCodec.class")));
+
+    Class<?> type = getClassLoader(dir).loadClass("test.codec.Person");
+    assertNotNull(JsonBeanCodecRegistry.lookup(type));
+
+    JsonObject json = Json.createObject();
+    json.put("name", "john");
+    json.put("age", 42);
+    json.put("active", true);
+    json.put("tags", JsonSerializer.toJson(Arrays.asList("a", "b")));
+    json.put("unknown", "ignored");
+
+    Object person = JsonSerializer.toObject(type, json);
+    assertEquals("john", type.getMethod("getName").invoke(person));
+    assertEquals(42, type.getMethod("getAge").invoke(person));
+    assertEquals(true, type.getMethod("isActive").invoke(person));
+    assertEquals(Arrays.asList("a", "b"), type.getMethod("getTags").invoke(person));
+
+    JsonObject result = (JsonObject) JsonSerializer.toJson(person);
+    assertEquals(4, result.keys().length);
+    assertEquals("john", result.getString("name"));
+    assertEquals(42, result.getNumber("age"), 0);
+    assertTrue(result.getBoolean("active"));
+    assertEquals("[\"a\",\"b\"]", result.getArray("tags").toJson());
+  }
+
+  @Test
+  public void testRecordCodec() throws Exception {
+    Path dir = Files.createTempDirectory("codec");
+    assertTrue(compile(dir, POINT));
+
+    Class<?> type = getClassLoader(dir).loadClass("test.codec.Outer$Point");
+    assertNotNull(JsonBeanCodecRegistry.lookup(type));
+
+    JsonObject json = Json.createObject();
+    json.put("x", 1);
+    json.put("label", "p");
+    Object point = JsonSerializer.toObject(type, json);
+    assertEquals(1, type.getMethod("x").invoke(point));
+    assertEquals("p", type.getMethod("label").invoke(point));
+
+    JsonObject result = (JsonObject) JsonSerializer.toJson(point);
+    assertEquals(2, result.keys().length);
+    assertEquals(1, result.getNumber("x"), 0);
+    assertEquals("p", result.getString("label"));
+  }
+
+  private static void assertNullPrimitiveRejected(Class<?> type, JsonObject json) {
+    try {
+      JsonSerializer.toObject(type, json);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // as the reflective path, which fails when the setter or constructor is invoked with null
+      assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+  }
+
+  @Test
+  public void testBeanCodecNullPrimitive() throws Exception {
+    Path dir = Files.createTempDirectory("codec");
+    assertTrue(compile(dir, PERSON));
+    Class<?> type = getClassLoader(dir).loadClass("test.codec.Person");
+
+    JsonObject json = Json.createObject();
+    json.put("age", Json.createNull());
+    assertNullPrimitiveRejected(type, json);
+
+    json = Json.createObject();
+    json.put("name", Json.createNull());
+    assertEquals(null, type.getMethod("getName").invoke(JsonSerializer.toObject(type, json)));
+  }
+
+  @Test
+  public void testRecordCodecNullPrimitive() throws Exception {
+    Path dir = Files.createTempDirectory("codec");
+    assertTrue(compile(dir, POINT));
+    Class<?> type = getClassLoader(dir).loadClass("test.codec.Outer$Point");
+
+    JsonObject json = Json.createObject();
+    json.put("x", Json.createNull());
+    assertNullPrimitiveRejected(type, json);
+    assertNullPrimitiveRejected(type, Json.createObject());
+  }
+
+  @Test
+  public void testBrokenProvider() throws Exception {
+    Path dir = Files.createTempDirectory("codec");
+    assertTrue(compile(dir, PERSON));
+    Path services = dir.resolve("classes/META-INF/services/" + JsonBeanCodec.class.getName());
+    Files.write(
+        services,
+        Arrays.asList("test.codec.Missing_JsonCodec", "test.codec.Person_JsonCodec"),
+        StandardCharsets.UTF_8);
+
+    Class<?> type = getClassLoader(dir).loadClass("test.codec.Person");
+    assertNotNull(JsonBeanCodecRegistry.lookup(type));
+  }
+
+  private static WeakReference<ClassLoader> lookupInNewClassLoader(Path dir) throws Exception {
+    ClassLoader classLoader = getClassLoader(dir);
+    Class<?> type = classLoader.loadClass("test.codec.Person");
+    assertNotNull(JsonBeanCodecRegistry.lookup(type));
+    return new WeakReference<>(classLoader);
+  }
+
+  @Test
+  public void testClassLoaderNotRetained() throws Exception {
+    Path dir = Files.createTempDirectory("codec");
+    assertTrue(compile(dir, PERSON));
+    WeakReference<ClassLoader> ref = lookupInNewClassLoader(dir);
+    for (int i = 0; i < 50 && ref.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull(ref.get());
+  }
+
+  @Test
+  public void testServiceFile() throws Exception {
+    Path dir = Files.createTempDirectory("codec");
+    assertTrue(compile(dir, PERSON, POINT));
+    List<String> services =
+        Files.readAllLines(
+            dir.resolve("classes/META-INF/services/" + JsonBeanCodec.class.getName()));
+    assertEquals(
+        Arrays.asList("test.codec.Outer_Point_JsonCodec", "test.codec.Person_JsonCodec"),
+        services);
+  }
+
+  @Test
+  public void testNonPublicClass() throws Exception {
+    Path dir = Files.createTempDirectory("codec");
+    assertFalse(compile(dir, HIDDEN));
+  }
+}
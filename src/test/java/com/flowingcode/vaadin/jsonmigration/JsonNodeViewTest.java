@@ -0,0 +1,210 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+import org.junit.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.JsonNodeFactory;
+import tools.jackson.databind.node.ObjectNode;
+
+public class JsonNodeViewTest {
+
+  private static ObjectNode createNode() {
+    JsonNodeFactory factory = JsonNodeFactory.instance;
+    ObjectNode detail = factory.objectNode();
+    detail.put("x", 1.5);
+    ArrayNode tags = factory.arrayNode();
+    tags.add("a");
+    tags.add("b");
+    ObjectNode node = factory.objectNode();
+    node.put("name", "view");
+    node.set("detail", detail);
+    node.set("tags", tags);
+    node.set("empty", factory.nullNode());
+    return node;
+  }
+
+  @Test
+  public void testObjectView() {
+    JsonObject json = (JsonObject) JsonMigrationHelper25.toJsonValueView(createNode());
+    assertEquals(JsonType.OBJECT, json.getType());
+    assertArrayEquals(new String[] {"name", "detail", "tags", "empty"}, json.keys());
+    assertEquals("view", json.getString("name"));
+    assertEquals(1.5, json.getObject("detail").getNumber("x"), 0);
+    assertSame(json.getObject("detail"), json.getObject("detail"));
+    assertEquals(JsonType.NULL, json.get("empty").getType());
+    assertTrue(json.hasKey("tags"));
+    assertFalse(json.hasKey("missing"));
+    assertNull(json.get("missing"));
+  }
+
+  @Test
+  public void testArrayView() {
+    JsonArray json =
+        ((JsonObject) JsonMigrationHelper25.toJsonValueView(createNode())).getArray("tags");
+    assertEquals(2, json.length());
+    assertEquals("a", json.getString(0));
+    assertEquals("b", json.getString(1));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testArrayViewOutOfBounds() {
+    JsonArray json =
+        (JsonArray) JsonMigrationHelper25.toJsonValueView(JsonNodeFactory.instance.arrayNode());
+    json.get(0);
+  }
+
+  @Test
+  public void testCopyOnWrite() {
+    ObjectNode node = createNode();
+    JsonObject json = (JsonObject) JsonMigrationHelper25.toJsonValueView(node);
+    JsonObject detail = json.getObject("detail");
+    json.put("name", "changed");
+    json.remove("empty");
+    json.getArray("tags").set(0, "c");
+
+    assertEquals("changed", json.getString("name"));
+    assertFalse(json.hasKey("empty"));
+    assertSame(detail, json.getObject("detail"));
+    assertEquals("c", json.getArray("tags").getString(0));
+
+    assertEquals("view", node.get("name").stringValue());
+    assertTrue(node.has("empty"));
+    assertEquals("a", node.get("tags").get(0).stringValue());
+  }
+
+  @Test
+  public void testModifyNestedView() {
+    JsonObject json = (JsonObject) JsonMigrationHelper25.toJsonValueView(createNode());
+    json.getObject("detail").put("y", 2);
+    assertEquals("{\"x\":1.5,\"y\":2}", json.getObject("detail").toJson());
+    assertEquals(2, JsonMigrationHelper25.convertToJsonNode(json).get("detail").size());
+    assertEquals(
+        "{\"name\":\"view\",\"detail\":{\"x\":1.5,\"y\":2},\"tags\":[\"a\",\"b\"],\"empty\":null}",
+        json.toJson());
+  }
+
+  @Test
+  public void testMaterializeAfterModifyingNestedView() {
+    ObjectNode node = createNode();
+    node.putArray("items").addObject().put("v", 1);
+    JsonNodeObjectView json = (JsonNodeObjectView) JsonMigrationHelper25.toJsonValueView(node);
+    json.getObject("detail").put("y", 2);
+    json.getArray("tags").set(1, "z");
+    json.getArray("items").getObject(0).put("v", 2);
+
+    String expected =
+        "{\"name\":\"view\",\"detail\":{\"x\":1.5,\"y\":2},\"tags\":[\"a\",\"z\"],"
+            + "\"empty\":null,\"items\":[{\"v\":2}]}";
+    JsonObject copy = json.materialize();
+    assertFalse(copy instanceof JsonNodeObjectView);
+    assertEquals(expected, copy.toJson());
+    assertTrue(Json.parse(expected).jsEquals(copy));
+    JsonNode converted = JsonMigrationHelper25.convertToJsonNode(json);
+    assertEquals(2, converted.get("items").get(0).get("v").asInt());
+    assertEquals("z", converted.get("tags").get(1).stringValue());
+
+    JsonObject parent = Json.createObject();
+    parent.put("x", copy);
+    assertEquals("{\"x\":" + expected + "}", parent.toJson());
+
+    assertEquals(1, node.get("detail").size());
+    assertEquals("b", node.get("tags").get(1).stringValue());
+    assertEquals(1, node.get("items").get(0).get("v").asInt());
+  }
+
+  @Test
+  public void testClientCallableArgumentsAreElementalValues() {
+    String object =
+        "{\"name\":\"view\",\"detail\":{\"x\":1.5},\"tags\":[\"a\",\"b\"],\"empty\":null}";
+    JsonObject json = ClientCallableConversions.toJsonObject(createNode());
+    assertTrue(json instanceof JsonNodeObjectView);
+    JsonObject parent = Json.createObject();
+    parent.put("x", json);
+    assertEquals("{\"x\":" + object + "}", parent.toJson());
+    assertTrue(Json.parse(object).jsEquals(json));
+    assertTrue(json.jsEquals(Json.parse(object)));
+
+    JsonArray array = ClientCallableConversions.toJsonArray((ArrayNode) createNode().get("tags"));
+    assertTrue(array instanceof JsonNodeArrayView);
+    JsonArray items = Json.createArray();
+    items.set(0, array);
+    assertEquals("[[\"a\",\"b\"]]", items.toJson());
+    assertTrue(Json.instance().parse("[\"a\",\"b\"]").jsEquals(array));
+  }
+
+  @Test
+  public void testEmbedView() {
+    ObjectNode node = createNode();
+    JsonObject json = (JsonObject) JsonMigrationHelper25.toJsonValueView(node);
+    JsonArray array = Json.createArray();
+    array.set(0, json);
+    array.set(1, json.getArray("tags"));
+    json.getObject("detail").put("y", 2);
+    assertEquals(
+        "[{\"name\":\"view\",\"detail\":{\"x\":1.5,\"y\":2},\"tags\":[\"a\",\"b\"],"
+            + "\"empty\":null},[\"a\",\"b\"]]",
+        array.toJson());
+
+    JsonObject copy = Json.parse(json.toJson());
+    assertTrue(copy.jsEquals(json));
+    copy.put("name", "other");
+    assertFalse(copy.jsEquals(json));
+    assertFalse(json.jsEquals(copy));
+    assertEquals(1, node.get("detail").size());
+  }
+
+  @Test
+  public void testToJson() {
+    JsonValue json = JsonMigrationHelper25.toJsonValueView(createNode());
+    assertEquals(
+        "{\"name\":\"view\",\"detail\":{\"x\":1.5},\"tags\":[\"a\",\"b\"],\"empty\":null}",
+        json.toJson());
+  }
+
+  @Test
+  public void testConvertToJsonNode() {
+    ObjectNode node = createNode();
+    JsonObject json = (JsonObject) JsonMigrationHelper25.toJsonValueView(node);
+
+    JsonNode copy = JsonMigrationHelper25.convertToJsonNode(json);
+    assertNotSame(node, copy);
+    assertEquals(node.toString(), copy.toString());
+
+    json.put("name", "changed");
+    copy = JsonMigrationHelper25.convertToJsonNode(json);
+    assertEquals("changed", copy.get("name").stringValue());
+    assertEquals(1.5, copy.get("detail").get("x").asDouble(), 0);
+  }
+}
@@ -0,0 +1,395 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.flowingcode.vaadin.jsonmigration.BeanMetadata.Codec;
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class JsonSerializerTest {
+
+  public static class Bean {
+    private String name;
+    private int count;
+    private List<String> tags;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+
+    public List<String> getTags() {
+      return tags;
+    }
+
+    public void setTags(List<String> tags) {
+      this.tags = tags;
+    }
+  }
+
+  public static class Cycle {
+    public Cycle getSelf() {
+      return this;
+    }
+  }
+
+  private static Bean createBean() {
+    Bean bean = new Bean();
+    bean.setName("bean");
+    bean.setCount(42);
+    bean.setTags(Arrays.asList("a", "b"));
+    return bean;
+  }
+
+  @Test
+  public void testBeanToJson() {
+    JsonObject json = (JsonObject) JsonSerializer.toJson(createBean());
+    assertEquals(3, json.keys().length);
+    assertEquals("bean", json.getString("name"));
+    assertEquals(42, json.getNumber("count"), 0);
+    assertEquals("[\"a\",\"b\"]", json.getArray("tags").toJson());
+  }
+
+  @Test
+  public void testBeanRoundTrip() {
+    Bean bean = JsonSerializer.toObject(Bean.class, JsonSerializer.toJson(createBean()));
+    assertEquals("bean", bean.getName());
+    assertEquals(42, bean.getCount());
+    assertEquals(Arrays.asList("a", "b"), bean.getTags());
+  }
+
+  private static String writeJson(Object bean) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    JsonSerializer.writeJson(bean, sb);
+    return sb.toString();
+  }
+
+  @Test
+  public void testWriteJson() throws IOException {
+    assertEquals(
+        "{\"count\":42,\"name\":\"bean\",\"tags\":[\"a\",\"b\"]}", writeJson(createBean()));
+  }
+
+  @Test
+  public void testWriteJsonSimpleTypes() throws IOException {
+    assertEquals(
+        "[1,2.5,\"a\\\"b\\n\",null,true,\"c\",[]]",
+        writeJson(Arrays.asList(1, 2.5, "a\"b\n", null, true, 'c', new int[0])));
+  }
+
+  @Test
+  public void testReadJson() throws IOException {
+    String json =
+        "{\"name\":\"a\\\"\\u0062\",\"other\":{\"x\":[1,{}]},"
+            + "\"count\":42,\"tags\":[\"a\",\"b\"]}";
+    Bean bean = JsonSerializer.readJson(Bean.class, new StringReader(json));
+    assertEquals("a\"b", bean.getName());
+    assertEquals(42, bean.getCount());
+    assertEquals(Arrays.asList("a", "b"), bean.getTags());
+  }
+
+  @Test
+  public void testReadJsonList() throws IOException {
+    List<Bean> beans =
+        JsonSerializer.readJsonList(Bean.class, new StringReader(" [ {\"count\":1}, null ] "));
+    assertEquals(2, beans.size());
+    assertEquals(1, beans.get(0).getCount());
+    assertNull(beans.get(1));
+  }
+
+  @Test
+  public void testReadJsonSimpleTypes() throws IOException {
+    assertEquals(Integer.valueOf(3), JsonSerializer.readJson(Integer.class, new StringReader("3")));
+    assertEquals("x", JsonSerializer.readJson(String.class, new StringReader("\"x\"")));
+    assertNull(JsonSerializer.readJson(Bean.class, new StringReader("null")));
+  }
+
+  @Test(expected = JsonException.class)
+  public void testReadJsonMalformed() throws IOException {
+    JsonSerializer.readJson(Bean.class, new StringReader("{\"count\":1,}"));
+  }
+
+  @Test
+  public void testPrimitiveArrays() throws IOException {
+    double[] doubles = {1, 2.5, -3};
+    assertEquals("[1,2.5,-3]", JsonSerializer.toJson(doubles).toJson());
+    assertEquals("[1,2.5,-3]", writeJson(doubles));
+    assertArrayEquals(
+        doubles, JsonSerializer.toObject(double[].class, JsonSerializer.toJson(doubles)), 0);
+    assertArrayEquals(
+        doubles, JsonSerializer.readJson(double[].class, new StringReader("[1,2.5,-3]")), 0);
+
+    int[] ints = {1, 2, 3};
+    assertArrayEquals(ints, JsonSerializer.toObject(int[].class, JsonSerializer.toJson(ints)));
+    assertArrayEquals(
+        ints, JsonSerializer.readJson(int[].class, new StringReader(writeJson(ints))));
+
+    char[] chars = {'a', 'b'};
+    assertEquals("[\"a\",\"b\"]", JsonSerializer.toJson(chars).toJson());
+    assertArrayEquals(chars, JsonSerializer.toObject(char[].class, JsonSerializer.toJson(chars)));
+
+    boolean[] booleans = {true, false};
+    assertEquals("[true,false]", writeJson(booleans));
+    assertArrayEquals(
+        booleans, JsonSerializer.readJson(boolean[].class, new StringReader("[true,false]")));
+  }
+
+  private static JsonArray parseArray(String json) {
+    return Json.instance().parse(json);
+  }
+
+  private static void assertSameEncoding(String expected, Object primitiveArray, Object boxedArray)
+      throws IOException {
+    assertEquals(expected, JsonSerializer.toJson(boxedArray).toJson());
+    assertEquals(expected, writeJson(boxedArray));
+    assertEquals(expected, JsonSerializer.toJson(primitiveArray).toJson());
+    assertEquals(expected, writeJson(primitiveArray));
+  }
+
+  @Test
+  public void testPrimitiveArrayEncodingMatchesBoxedArray() throws IOException {
+    assertSameEncoding(
+        "[null,null,null,-0,1.5]",
+        new double[] {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -0.0, 1.5},
+        new Double[] {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -0.0, 1.5});
+    assertSameEncoding("[null,0.5]", new float[] {Float.NaN, 0.5f}, new Float[] {Float.NaN, 0.5f});
+    assertSameEncoding(
+        "[-2.147483648E9,2.147483647E9]",
+        new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE},
+        new Integer[] {Integer.MIN_VALUE, Integer.MAX_VALUE});
+    assertSameEncoding("[9.007199254740992E15]", new long[] {1L << 53}, new Long[] {1L << 53});
+    assertSameEncoding("[-128,127]", new byte[] {-128, 127}, new Byte[] {-128, 127});
+    assertSameEncoding("[-1]", new short[] {-1}, new Short[] {-1});
+    assertSameEncoding("[true,false]", new boolean[] {true, false}, new Boolean[] {true, false});
+    assertSameEncoding(
+        "[\"a\",\"\\\"\",\"\\u0000\"]",
+        new char[] {'a', '"', '\0'},
+        new Character[] {'a', '"', '\0'});
+    assertSameEncoding("[]", new int[0], new Integer[0]);
+  }
+
+  @Test
+  public void testPrimitiveArrayDecodingMatchesBoxedArray() throws IOException {
+    JsonArray json = Json.createArray();
+    json.set(0, Double.NaN);
+    json.set(1, 2.9);
+    json.set(2, -2.9);
+    assertTrue(Double.isNaN(JsonSerializer.toObject(double[].class, json)[0]));
+    assertTrue(Double.isNaN(JsonSerializer.toObject(Double[].class, json)[0]));
+
+    String text = "[2.9,-2.9,1e10]";
+    Integer[] boxed = JsonSerializer.toObject(Integer[].class, parseArray(text));
+    int[] unboxed = JsonSerializer.toObject(int[].class, parseArray(text));
+    assertArrayEquals(new Integer[] {2, -2, Integer.MAX_VALUE}, boxed);
+    for (int i = 0; i < boxed.length; i++) {
+      assertEquals(boxed[i].intValue(), unboxed[i]);
+    }
+    assertArrayEquals(unboxed, JsonSerializer.readJson(int[].class, new StringReader(text)));
+
+    Long[] longs = JsonSerializer.toObject(Long[].class, parseArray(text));
+    assertEquals(longs[2].longValue(), JsonSerializer.toObject(long[].class, parseArray(text))[2]);
+    assertEquals(
+        longs[2].longValue(), JsonSerializer.readJson(long[].class, new StringReader(text))[2]);
+  }
+
+  @Test
+  public void testPrimitiveArrayNullElement() throws IOException {
+    String text = "[1,null]";
+    assertArrayEquals(
+        new Integer[] {1, null}, JsonSerializer.toObject(Integer[].class, parseArray(text)));
+    assertArrayEquals(
+        new Integer[] {1, null}, JsonSerializer.readJson(Integer[].class, new StringReader(text)));
+
+    for (Class<?> type : Arrays.asList(int[].class, double[].class, char[].class)) {
+      try {
+        JsonSerializer.toObject(type, parseArray("[null]"));
+        fail("toObject accepted null in " + type.getSimpleName());
+      } catch (IllegalArgumentException e) {
+        assertEquals("Could not convert null at index 0 to a primitive value", e.getMessage());
+      }
+      try {
+        JsonSerializer.readJson(type, new StringReader("[null]"));
+        fail("readJson accepted null in " + type.getSimpleName());
+      } catch (IllegalArgumentException e) {
+        assertEquals("Could not convert null at index 0 to a primitive value", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testCharArrayDecodingMatchesBoxedArray() throws IOException {
+    String text = "[\"a\",\"bc\",\"\\u0000\"]";
+    Character[] boxed = JsonSerializer.toObject(Character[].class, parseArray(text));
+    assertArrayEquals(new Character[] {'a', 'b', '\0'}, boxed);
+    assertArrayEquals(
+        new char[] {'a', 'b', '\0'}, JsonSerializer.toObject(char[].class, parseArray(text)));
+    assertArrayEquals(
+        new char[] {'a', 'b', '\0'},
+        JsonSerializer.readJson(char[].class, new StringReader(text)));
+  }
+
+  @Test
+  public void testObjectArray() {
+    String[] strings = {"a", null};
+    assertArrayEquals(
+        strings, JsonSerializer.toObject(String[].class, JsonSerializer.toJson(strings)));
+  }
+
+  @Test
+  public void testNumberList() {
+    List<Double> numbers = Arrays.asList(1.0, 2.5, null);
+    JsonValue json = JsonSerializer.toJson(numbers);
+    assertEquals("[1,2.5,null]", json.toJson());
+    assertEquals(numbers, JsonSerializer.toObjects(Double.class, (JsonArray) json));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testToJsonCycle() {
+    JsonSerializer.toJson(new Cycle());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWriteJsonCycle() throws IOException {
+    writeJson(new Cycle());
+  }
+
+  @Test
+  public void testReadJsonDeepArray() throws IOException {
+    String json = repeat("[", 500) + repeat("]", 500);
+    assertEquals(json, JsonSerializer.readJson(JsonValue.class, new StringReader(json)).toJson());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testReadJsonMaxDepth() throws IOException {
+    String json = repeat("[", NestingDepth.MAX_DEPTH + 1) + repeat("]", NestingDepth.MAX_DEPTH + 1);
+    JsonSerializer.readJson(JsonValue.class, new StringReader(json));
+  }
+
+  @Test
+  public void testJsonValueRoundTrip() throws IOException {
+    String json =
+        "{\"a\":[1,\"x\",null,true,{\"b\":[]},[[],{}]],\"c\":{\"d\":{\"e\":\"\\\"q\"}},\"f\":-0.5}";
+    JsonValue value = JsonSerializer.readJson(JsonValue.class, new StringReader(json));
+    assertEquals(json, value.toJson());
+    assertTrue(Json.parse(json).jsEquals(value));
+  }
+
+  @Test
+  public void testJsonValueSiblingsAtMaxDepth() throws IOException {
+    String deep = repeat("[", NestingDepth.MAX_DEPTH - 1) + repeat("]", NestingDepth.MAX_DEPTH - 1);
+    String json = "[" + deep + "," + deep + "]";
+    JsonValue value = JsonSerializer.readJson(JsonValue.class, new StringReader(json));
+    assertEquals(json, value.toJson());
+  }
+
+  @Test
+  public void testGraphDepthIsReleased() throws IOException {
+    try {
+      JsonSerializer.toJson(new Cycle());
+      fail();
+    } catch (IllegalArgumentException e) {
+      // the depth of the failed conversion must not leak into the next one
+    }
+    List<List<Integer>> siblings = new ArrayList<>();
+    for (int i = 0; i <= NestingDepth.MAX_DEPTH; i++) {
+      siblings.add(Arrays.asList(i));
+    }
+    assertEquals(NestingDepth.MAX_DEPTH + 1, JsonSerializer.toJson(siblings).length());
+    assertEquals(JsonSerializer.toJson(siblings).toJson(), writeJson(siblings));
+  }
+
+  private static String repeat(String s, int count) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      sb.append(s);
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testWriteJsonUsesCodec() throws IOException {
+    BeanMetadata.of(Bean.class).setCodec(new Codec(bean -> Json.create("codec"), null));
+    try {
+      assertEquals("\"codec\"", writeJson(createBean()));
+      assertEquals("[\"codec\"]", writeJson(Arrays.asList(createBean())));
+    } finally {
+      JsonSerializer.clearCache(Bean.class);
+    }
+  }
+
+  @Test
+  public void testReadJsonUsesCodec() throws IOException {
+    BeanMetadata.of(Bean.class)
+        .setCodec(new Codec(null, (bean, json) -> ((Bean) bean).setName("codec")));
+    try {
+      Bean bean = JsonSerializer.readJson(Bean.class, new StringReader("{\"count\":1}"));
+      assertEquals("codec", bean.getName());
+      assertEquals(0, bean.getCount());
+      List<Bean> beans = JsonSerializer.readJsonList(Bean.class, new StringReader("[{}]"));
+      assertEquals("codec", beans.get(0).getName());
+    } finally {
+      JsonSerializer.clearCache(Bean.class);
+    }
+  }
+
+  @Test
+  public void testMetadataIsCached() {
+    assertSame(BeanMetadata.of(Bean.class), BeanMetadata.of(Bean.class));
+  }
+
+  @Test
+  public void testClearCache() {
+    BeanMetadata metadata = BeanMetadata.of(Bean.class);
+    JsonSerializer.clearCache(Bean.class);
+    assertNotSame(metadata, BeanMetadata.of(Bean.class));
+
+    metadata = BeanMetadata.of(Bean.class);
+    JsonSerializer.clearCache();
+    assertNotSame(metadata, BeanMetadata.of(Bean.class));
+  }
+}
@@ -0,0 +1,98 @@
+/*-
+ * #%L
+ * Json Migration Helper
+ * %%
+ * Copyright (C) 2025 Flowing Code
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.flowingcode.vaadin.jsonmigration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import org.junit.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.BaseJsonNode;
+import tools.jackson.databind.node.JsonNodeFactory;
+import tools.jackson.databind.node.ObjectNode;
+
+public class MethodHandleAdaptationTest {
+
+  private final JsonMigrationHelper helper = new JsonMigrationHelper25();
+
+  public static String setPropertyJson(String name, BaseJsonNode value) {
+    return value == null ? null : name + "=" + value.getNodeType();
+  }
+
+  public static Object[] executeJs(String expression, Object... parameters) {
+    return parameters;
+  }
+
+  public static JsonNode getEventData() {
+    return JsonNodeFactory.instance.objectNode().put("x", "y");
+  }
+
+  private MethodHandle adapt(String name, MethodType type) throws ReflectiveOperationException {
+    for (Method method : getClass().getMethods()) {
+      if (method.getName().equals(name)) {
+        return helper.adaptMethodHandle(MethodHandles.publicLookup().unreflect(method), type);
+      }
+    }
+    throw new NoSuchMethodException(name);
+  }
+
+  @Test
+  public void testAdaptArgument() throws Throwable {
+    MethodHandle handle =
+        adapt(
+            "setPropertyJson",
+            MethodType.methodType(String.class, String.class, JsonValue.class));
+    assertEquals("p=OBJECT", (String) handle.invokeExact("p", (JsonValue) Json.createObject()));
+    assertNull((String) handle.invokeExact("p", (JsonValue) null));
+  }
+
+  @Test
+  public void testAdaptVarargs() throws Throwable {
+    MethodHandle handle =
+        adapt(
+            "executeJs",
+            MethodType.methodType(Object[].class, String.class, Serializable[].class));
+
+    Serializable[] plain = {"a", 1};
+    assertSame(plain, (Object[]) handle.invokeExact("js", plain));
+
+    Serializable[] json = {"a", Json.createObject()};
+    Object[] result = (Object[]) handle.invokeExact("js", json);
+    assertEquals("a", result[0]);
+    assertTrue(result[1] instanceof ObjectNode);
+  }
+
+  @Test
+  public void testAdaptReturnValue() throws Throwable {
+    MethodHandle handle = adapt("getEventData", MethodType.methodType(JsonObject.class));
+    JsonObject json = (JsonObject) handle.invokeExact();
+    assertEquals("y", json.getString("x"));
+  }
+}